@@ -11,22 +11,31 @@ public abstract class BenchmarkBase {
     public static final int ITERATIONS = 1000;
     public static final int WARMUP_ITERATIONS = 100;
 
+    protected final int size;
     protected final float[] arrayA;
     protected final float[] arrayB;
     protected final float[] result;
+    /** Per-iteration timings of the timed loops, in nanoseconds. */
+    protected final LatencyHistogram arrayLatency = new LatencyHistogram();
+    protected final LatencyHistogram vectorLatency = new LatencyHistogram();
     protected final Random random;
 
     protected BenchmarkBase() {
+        this(ARRAY_SIZE);
+    }
+
+    protected BenchmarkBase(int size) {
+        this.size = size;
         this.random = new Random(42);
-        this.arrayA = new float[ARRAY_SIZE];
-        this.arrayB = new float[ARRAY_SIZE];
-        this.result = new float[ARRAY_SIZE];
+        this.arrayA = new float[size];
+        this.arrayB = new float[size];
+        this.result = new float[size];
 
         initializeArrays();
     }
 
     private void initializeArrays() {
-        for (int i = 0; i < ARRAY_SIZE; i++) {
+        for (int i = 0; i < size; i++) {
             arrayA[i] = random.nextFloat() * 100;
             arrayB[i] = random.nextFloat() * 100;
         }
@@ -36,18 +45,55 @@ public abstract class BenchmarkBase {
         double arrayTimeMs = arrayTime / 1_000_000.0;
         double vectorTimeMs = vectorTime / 1_000_000.0;
         double speedup = (double) arrayTime / vectorTime;
-        double throughputArray = (double) ARRAY_SIZE * ITERATIONS / arrayTimeMs * 1000 / 1_000_000;
-        double throughputVector = (double) ARRAY_SIZE * ITERATIONS / vectorTimeMs * 1000 / 1_000_000;
+        double throughputArray = (double) size * ITERATIONS / arrayTimeMs * 1000 / 1_000_000;
+        double throughputVector = (double) size * ITERATIONS / vectorTimeMs * 1000 / 1_000_000;
+        var cost = kernelCost();
 
         IO.println(String.format("Operation: %s", operation));
         IO.println(String.format("Array time:     %.2f ms (%.2f M ops/sec)", arrayTimeMs, throughputArray));
         IO.println(String.format("Vector time:    %.2f ms (%.2f M ops/sec)", vectorTimeMs, throughputVector));
+        IO.println(String.format("Vector rate:    %.2f GB/s, %.2f GFLOP/s",
+                throughputVector * cost.bytesPerElement() / 1000, throughputVector * cost.flopsPerElement() / 1000));
         IO.println(String.format("Speedup:        %.2fx", speedup));
         IO.println(String.format("Improvement:    %.1f%%", (speedup - 1) * 100));
+        printLatencies("Array", arrayLatency);
+        printLatencies("Vector", vectorLatency);
         IO.println();
     }
 
+    private static void printLatencies(String label, LatencyHistogram latency) {
+        if (latency.count() == 0) {
+            return;
+        }
+        IO.println(String.format("%-15s p50 %.1f us, p90 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us",
+                label + " latency:",
+                latency.percentile(50) / 1000.0, latency.percentile(90) / 1000.0,
+                latency.percentile(99) / 1000.0, latency.percentile(99.9) / 1000.0,
+                latency.max() / 1000.0));
+    }
+
+    public LatencyHistogram arrayLatency() {
+        return arrayLatency;
+    }
+
+    public LatencyHistogram vectorLatency() {
+        return vectorLatency;
+    }
+
+    public int size() {
+        return size;
+    }
+
     public abstract void runBenchmark();
 
+    /** Bytes moved and flops issued per element by both variants of the kernel. */
+    public abstract KernelCost kernelCost();
+
+    /** One pass of the scalar loop over {@link #size} elements; returns a result to keep it live. */
+    public abstract float runArrayKernel();
+
+    /** One pass of the Vector API kernel over {@link #size} elements; returns a result to keep it live. */
+    public abstract float runVectorKernel();
+
     public abstract String getBenchmarkName();
 }
@@ -0,0 +1,16 @@
+package org.perujug.base;
+
+/**
+ * Memory traffic and arithmetic of one kernel per array element, for roofline reporting.
+ *
+ * <p>Bytes count the loads and stores the kernel issues (4 per float operand, as in STREAM,
+ * without write-allocate traffic); flops count one per add, multiply or square root, and two
+ * per FMA.
+ */
+public record KernelCost(int bytesPerElement, int flopsPerElement) {
+
+    /** Flops per byte: kernels below {@link MachineRoofs#ridgePoint} cannot reach the compute roof. */
+    public double intensity() {
+        return (double) flopsPerElement / bytesPerElement;
+    }
+}
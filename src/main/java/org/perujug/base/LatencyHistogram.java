@@ -0,0 +1,90 @@
+package org.perujug.base;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size log-linear histogram of nanosecond timings, allocation-free once constructed.
+ *
+ * <p>Values below {@code 2^SUB_BUCKET_BITS} get a bucket each; above that, every power of two
+ * is split into {@code 2^SUB_BUCKET_BITS} equal buckets, so a recorded value is known to
+ * within 1/128 of itself (0.8%) over the whole {@code long} range. {@link #record} only
+ * increments a counter, so it can sit inside a timed loop without perturbing it.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /** Adds one timing; negative values count as zero. */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucket(value)]++;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /** Smallest recorded value, exact; 0 if empty. */
+    public long min() {
+        return count == 0 ? 0 : min;
+    }
+
+    /** Largest recorded value, exact; 0 if empty. */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Value at or below which {@code percentile}% of the timings fall: the upper bound of the
+     * bucket holding that rank, capped by the exact maximum. Returns 0 if empty.
+     */
+    public long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[b];
+            if (seen >= rank) {
+                return Math.min(max, upperBound(b));
+            }
+        }
+        return max;
+    }
+
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long mantissa = SUB_BUCKETS + bucket % SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
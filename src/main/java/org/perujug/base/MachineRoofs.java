@@ -0,0 +1,179 @@
+package org.perujug.base;
+
+import jdk.incubator.vector.*;
+
+import java.util.Arrays;
+
+/**
+ * Single-core limits measured on the local machine: the bandwidth of a STREAM-style triad
+ * {@code a[i] = b[i] + s * c[i]} at a given working-set size, and the peak FMA rate of a
+ * register-only kernel.
+ *
+ * <p>Bandwidth is measured per array length because the roof depends on where the working set
+ * lives: a length that fits in L1 or L2 gets the cache's bandwidth, not DRAM's. Every figure is
+ * the best of {@link #TRIALS} timed runs, so it approximates what the core can sustain rather
+ * than a typical run.
+ */
+public final class MachineRoofs {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    /** Timed runs per figure. */
+    public static final int TRIALS = 5;
+    /** Minimum duration of each timed run. */
+    public static final long TRIAL_NANOS = 100_000_000L;
+    /** Untimed calls before calibrating, long enough for C2 to compile the kernel. */
+    public static final long WARMUP_NANOS = 500_000_000L;
+
+    private static final int FMA_ITERATIONS = 1 << 20;
+
+    private final int[] sizes;
+    private final double[] bandwidthGBs;
+    private final double peakGflops;
+
+    private MachineRoofs(int[] sizes, double[] bandwidthGBs, double peakGflops) {
+        this.sizes = sizes;
+        this.bandwidthGBs = bandwidthGBs;
+        this.peakGflops = peakGflops;
+    }
+
+    /** Measures the triad at each of {@code sizes} floats per array, and the FMA peak. */
+    public static MachineRoofs measure(int... sizes) {
+        int[] sorted = sizes.clone();
+        Arrays.sort(sorted);
+        double[] bandwidth = new double[sorted.length];
+        for (int s = 0; s < sorted.length; s++) {
+            bandwidth[s] = triadGBs(sorted[s]);
+        }
+        return new MachineRoofs(sorted, bandwidth, fmaGflops());
+    }
+
+    /** Triad GB/s measured at the largest measured size not above {@code size}. */
+    public double bandwidthGBs(int size) {
+        int s = 0;
+        while (s + 1 < sizes.length && sizes[s + 1] <= size) {
+            s++;
+        }
+        return bandwidthGBs[s];
+    }
+
+    public double peakGflops() {
+        return peakGflops;
+    }
+
+    /** Flops per byte at which {@code size}-long kernels turn from memory- to compute-bound. */
+    public double ridgePoint(int size) {
+        return peakGflops / bandwidthGBs(size);
+    }
+
+    private static double triadGBs(int size) {
+        float[] a = new float[size];
+        float[] b = new float[size];
+        float[] c = new float[size];
+        Arrays.fill(b, 1.0f);
+        Arrays.fill(c, 2.0f);
+
+        int reps = calibrate(() -> triad(a, b, c, 0.5f));
+        long best = Long.MAX_VALUE;
+        for (int t = 0; t < TRIALS; t++) {
+            long start = System.nanoTime();
+            for (int r = 0; r < reps; r++) {
+                triad(a, b, c, 0.5f);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return 12.0 * size * reps / best;
+    }
+
+    private static void triad(float[] a, float[] b, float[] c, float s) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(a.length);
+        var vs = FloatVector.broadcast(SPECIES, s);
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            var vb = FloatVector.fromArray(SPECIES, b, i);
+            var vc = FloatVector.fromArray(SPECIES, c, i);
+            vc.fma(vs, vb).intoArray(a, i);
+        }
+
+        for (; i < a.length; i++) {
+            a[i] = b[i] + s * c[i];
+        }
+    }
+
+    private static double fmaGflops() {
+        int reps = calibrate(MachineRoofs::fmaKernel);
+        long best = Long.MAX_VALUE;
+        float sink = 0.0f;
+        for (int t = 0; t < TRIALS; t++) {
+            long start = System.nanoTime();
+            for (int r = 0; r < reps; r++) {
+                sink += fmaKernel();
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        if (sink == 42.0f) {
+            IO.println("");
+        }
+        double flops = 2.0 * SPECIES.length() * 12 * FMA_ITERATIONS * reps;
+        return flops / best;
+    }
+
+    // 12 independent FMA chains: enough to cover the latency x throughput of two FMA ports,
+    // few enough to stay in 16 registers together with the two operands
+    private static float fmaKernel() {
+        var x = FloatVector.broadcast(SPECIES, 0.999999f);
+        var y = FloatVector.broadcast(SPECIES, 1.0e-6f);
+        var a0 = FloatVector.broadcast(SPECIES, 0.0f);
+        var a1 = FloatVector.broadcast(SPECIES, 0.1f);
+        var a2 = FloatVector.broadcast(SPECIES, 0.2f);
+        var a3 = FloatVector.broadcast(SPECIES, 0.3f);
+        var a4 = FloatVector.broadcast(SPECIES, 0.4f);
+        var a5 = FloatVector.broadcast(SPECIES, 0.5f);
+        var a6 = FloatVector.broadcast(SPECIES, 0.6f);
+        var a7 = FloatVector.broadcast(SPECIES, 0.7f);
+        var a8 = FloatVector.broadcast(SPECIES, 0.8f);
+        var a9 = FloatVector.broadcast(SPECIES, 0.9f);
+        var a10 = FloatVector.broadcast(SPECIES, 1.0f);
+        var a11 = FloatVector.broadcast(SPECIES, 1.1f);
+
+        for (int i = 0; i < FMA_ITERATIONS; i++) {
+            a0 = a0.fma(x, y);
+            a1 = a1.fma(x, y);
+            a2 = a2.fma(x, y);
+            a3 = a3.fma(x, y);
+            a4 = a4.fma(x, y);
+            a5 = a5.fma(x, y);
+            a6 = a6.fma(x, y);
+            a7 = a7.fma(x, y);
+            a8 = a8.fma(x, y);
+            a9 = a9.fma(x, y);
+            a10 = a10.fma(x, y);
+            a11 = a11.fma(x, y);
+        }
+
+        return a0.add(a1).add(a2).add(a3).add(a4).add(a5)
+                .add(a6).add(a7).add(a8).add(a9).add(a10).add(a11)
+                .reduceLanes(VectorOperators.ADD);
+    }
+
+    // Repetitions that take at least TRIAL_NANOS once the kernel is compiled
+    private static int calibrate(Runnable kernel) {
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < WARMUP_NANOS) {
+            kernel.run();
+        }
+
+        int reps = 1;
+        while (true) {
+            start = System.nanoTime();
+            for (int r = 0; r < reps; r++) {
+                kernel.run();
+            }
+            if (System.nanoTime() - start >= TRIAL_NANOS || reps >= 1 << 30) {
+                return reps;
+            }
+            reps <<= 1;
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package org.perujug.benchmarks;
 
 import org.perujug.base.BenchmarkBase;
-
-import jdk.incubator.vector.*;
+import org.perujug.base.KernelCost;
+import org.perujug.kernels.FloatKernels;
 
 public class DotProductBenchmark extends BenchmarkBase {
 
+    public DotProductBenchmark() {
+    }
+
+    public DotProductBenchmark(int size) {
+        super(size);
+    }
+
     @Override
     public String getBenchmarkName() {
         return "Dot Product";
@@ -25,7 +32,9 @@ public class DotProductBenchmark extends BenchmarkBase {
         long startTime = System.nanoTime();
         float arrayResult = 0;
         for (int i = 0; i < ITERATIONS; i++) {
+            long iterationStart = System.nanoTime();
             arrayResult = arrayDotProduct();
+            arrayLatency.record(System.nanoTime() - iterationStart);
         }
         long arrayTime = System.nanoTime() - startTime;
 
@@ -33,7 +42,9 @@ public class DotProductBenchmark extends BenchmarkBase {
         startTime = System.nanoTime();
         float vectorResult = 0;
         for (int i = 0; i < ITERATIONS; i++) {
+            long iterationStart = System.nanoTime();
             vectorResult = vectorApiDotProduct();
+            vectorLatency.record(System.nanoTime() - iterationStart);
         }
         long vectorTime = System.nanoTime() - startTime;
 
@@ -44,9 +55,24 @@ public class DotProductBenchmark extends BenchmarkBase {
         IO.println();
     }
 
+    @Override
+    public KernelCost kernelCost() {
+        return new KernelCost(8, 2);
+    }
+
+    @Override
+    public float runArrayKernel() {
+        return arrayDotProduct();
+    }
+
+    @Override
+    public float runVectorKernel() {
+        return vectorApiDotProduct();
+    }
+
     private float arrayDotProduct() {
         float sum = 0.0f;
-        for (int i = 0; i < ARRAY_SIZE; i++) {
+        for (int i = 0; i < size; i++) {
             sum += arrayA[i] * arrayB[i];
         }
 
@@ -54,24 +80,6 @@ public class DotProductBenchmark extends BenchmarkBase {
     }
 
     private float vectorApiDotProduct() {
-        float sum = 0.0f;
-        int i = 0;
-        int upperBound = SPECIES.loopBound(ARRAY_SIZE);
-        var vsum = FloatVector.zero(SPECIES);
-
-        for (; i < upperBound; i += SPECIES.length()) {
-            var va = FloatVector.fromArray(SPECIES, arrayA, i);
-            var vb = FloatVector.fromArray(SPECIES, arrayB, i);
-            vsum = va.fma(vb, vsum);
-        }
-
-        sum += vsum.reduceLanes(VectorOperators.ADD);
-
-        // Handle remaining elements
-        for (; i < ARRAY_SIZE; i++) {
-            sum += arrayA[i] * arrayB[i];
-        }
-
-        return sum;
+        return FloatKernels.dot(SPECIES, arrayA, 0, arrayB, 0, size);
     }
 }
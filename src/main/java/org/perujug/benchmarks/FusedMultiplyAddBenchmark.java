@@ -1,13 +1,20 @@
 package org.perujug.benchmarks;
 
 import org.perujug.base.BenchmarkBase;
-
-import jdk.incubator.vector.*;
+import org.perujug.base.KernelCost;
+import org.perujug.kernels.FloatKernels;
 
 public class FusedMultiplyAddBenchmark extends BenchmarkBase {
 
     private static final float SCALAR = 1.5f;
 
+    public FusedMultiplyAddBenchmark() {
+    }
+
+    public FusedMultiplyAddBenchmark(int size) {
+        super(size);
+    }
+
     @Override
     public String getBenchmarkName() {
         return "Fused Multiply-Add (FMA)";
@@ -27,41 +34,48 @@ public class FusedMultiplyAddBenchmark extends BenchmarkBase {
         // Array-based benchmark
         long startTime = System.nanoTime();
         for (int i = 0; i < ITERATIONS; i++) {
+            long iterationStart = System.nanoTime();
             arrayFusedMultiplyAdd();
+            arrayLatency.record(System.nanoTime() - iterationStart);
         }
         long arrayTime = System.nanoTime() - startTime;
 
         // Vector API benchmark
         startTime = System.nanoTime();
         for (int i = 0; i < ITERATIONS; i++) {
+            long iterationStart = System.nanoTime();
             vectorApiFusedMultiplyAdd();
+            vectorLatency.record(System.nanoTime() - iterationStart);
         }
         long vectorTime = System.nanoTime() - startTime;
 
         printBenchmarkResults(getBenchmarkName(), arrayTime, vectorTime);
     }
 
+    @Override
+    public KernelCost kernelCost() {
+        return new KernelCost(12, 2);
+    }
+
+    @Override
+    public float runArrayKernel() {
+        arrayFusedMultiplyAdd();
+        return result[0];
+    }
+
+    @Override
+    public float runVectorKernel() {
+        vectorApiFusedMultiplyAdd();
+        return result[0];
+    }
+
     private void arrayFusedMultiplyAdd() {
-        for (int i = 0; i < ARRAY_SIZE; i++) {
+        for (int i = 0; i < size; i++) {
             result[i] = arrayA[i] * arrayB[i] + SCALAR;
         }
     }
 
     private void vectorApiFusedMultiplyAdd() {
-        int i = 0;
-        int upperBound = SPECIES.loopBound(ARRAY_SIZE);
-        var vscalar = FloatVector.broadcast(SPECIES, SCALAR);
-
-        for (; i < upperBound; i += SPECIES.length()) {
-            var va = FloatVector.fromArray(SPECIES, arrayA, i);
-            var vb = FloatVector.fromArray(SPECIES, arrayB, i);
-            var vr = va.fma(vb, vscalar);
-            vr.intoArray(result, i);
-        }
-
-        // Handle remaining elements
-        for (; i < ARRAY_SIZE; i++) {
-            result[i] = arrayA[i] * arrayB[i] + SCALAR;
-        }
+        FloatKernels.fma(SPECIES, arrayA, 0, arrayB, 0, SCALAR, result, 0, size);
     }
 }
@@ -1,11 +1,18 @@
 package org.perujug.benchmarks;
 
 import org.perujug.base.BenchmarkBase;
-
-import jdk.incubator.vector.*;
+import org.perujug.base.KernelCost;
+import org.perujug.kernels.FloatKernels;
 
 public class MathFunctionsBenchmark extends BenchmarkBase {
 
+    public MathFunctionsBenchmark() {
+    }
+
+    public MathFunctionsBenchmark(int size) {
+        super(size);
+    }
+
     @Override
     public String getBenchmarkName() {
         return "Math Functions (Square Root)";
@@ -25,14 +32,18 @@ public class MathFunctionsBenchmark extends BenchmarkBase {
         // Array-based benchmark
         long startTime = System.nanoTime();
         for (int i = 0; i < ITERATIONS; i++) {
+            long iterationStart = System.nanoTime();
             arraySquareRoot();
+            arrayLatency.record(System.nanoTime() - iterationStart);
         }
         long arrayTime = System.nanoTime() - startTime;
 
         // Vector API benchmark
         startTime = System.nanoTime();
         for (int i = 0; i < ITERATIONS; i++) {
+            long iterationStart = System.nanoTime();
             vectorApiSquareRoot();
+            vectorLatency.record(System.nanoTime() - iterationStart);
         }
         long vectorTime = System.nanoTime() - startTime;
 
@@ -47,25 +58,30 @@ public class MathFunctionsBenchmark extends BenchmarkBase {
         IO.println();
     }
 
-    private void arraySquareRoot() {
-        for (int i = 0; i < ARRAY_SIZE; i++) {
-            result[i] = (float) Math.sqrt(Math.abs(arrayA[i]));
-        }
+    @Override
+    public KernelCost kernelCost() {
+        return new KernelCost(8, 1);
     }
 
-    private void vectorApiSquareRoot() {
-        int i = 0;
-        int upperBound = SPECIES.loopBound(ARRAY_SIZE);
+    @Override
+    public float runArrayKernel() {
+        arraySquareRoot();
+        return result[0];
+    }
 
-        for (; i < upperBound; i += SPECIES.length()) {
-            var va = FloatVector.fromArray(SPECIES, arrayA, i);
-            var vr = va.abs().sqrt();
-            vr.intoArray(result, i);
-        }
+    @Override
+    public float runVectorKernel() {
+        vectorApiSquareRoot();
+        return result[0];
+    }
 
-        // Handle remaining elements
-        for (; i < ARRAY_SIZE; i++) {
+    private void arraySquareRoot() {
+        for (int i = 0; i < size; i++) {
             result[i] = (float) Math.sqrt(Math.abs(arrayA[i]));
         }
     }
+
+    private void vectorApiSquareRoot() {
+        FloatKernels.sqrtAbs(SPECIES, arrayA, 0, result, 0, size);
+    }
 }
@@ -0,0 +1,89 @@
+package org.perujug.benchmarks;
+
+import org.perujug.base.BenchmarkBase;
+import org.perujug.base.KernelCost;
+import org.perujug.kernels.ScanKernels;
+
+public class PrefixSumBenchmark extends BenchmarkBase {
+
+    public PrefixSumBenchmark() {
+    }
+
+    public PrefixSumBenchmark(int size) {
+        super(size);
+    }
+
+    @Override
+    public String getBenchmarkName() {
+        return "Prefix Sum (Scan)";
+    }
+
+    @Override
+    public void runBenchmark() {
+        IO.println("--- " + getBenchmarkName() + " Benchmark ---");
+        IO.println("Operation: result[i] = A[0] + ... + A[i]");
+
+        // Warmup
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            arrayPrefixSum();
+            vectorApiPrefixSum();
+        }
+
+        // Array-based benchmark
+        long startTime = System.nanoTime();
+        float arrayResult = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long iterationStart = System.nanoTime();
+            arrayResult = arrayPrefixSum();
+            arrayLatency.record(System.nanoTime() - iterationStart);
+        }
+        long arrayTime = System.nanoTime() - startTime;
+
+        // Vector API benchmark
+        startTime = System.nanoTime();
+        float vectorResult = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long iterationStart = System.nanoTime();
+            vectorResult = vectorApiPrefixSum();
+            vectorLatency.record(System.nanoTime() - iterationStart);
+        }
+        long vectorTime = System.nanoTime() - startTime;
+
+        printBenchmarkResults(getBenchmarkName(), arrayTime, vectorTime);
+
+        // Float sums of a million elements round differently in tree order, so compare relatively
+        IO.println(String.format("Array total: %.1f", arrayResult));
+        IO.println(String.format("Vector total: %.1f", vectorResult));
+        IO.println(String.format("Results match: %s", Math.abs(arrayResult - vectorResult) <= 1e-4f * Math.abs(arrayResult) ? "Yes" : "No"));
+        IO.println();
+    }
+
+    @Override
+    public KernelCost kernelCost() {
+        return new KernelCost(8, 1);
+    }
+
+    @Override
+    public float runArrayKernel() {
+        return arrayPrefixSum();
+    }
+
+    @Override
+    public float runVectorKernel() {
+        return vectorApiPrefixSum();
+    }
+
+    private float arrayPrefixSum() {
+        float sum = 0.0f;
+        for (int i = 0; i < size; i++) {
+            sum += arrayA[i];
+            result[i] = sum;
+        }
+
+        return sum;
+    }
+
+    private float vectorApiPrefixSum() {
+        return ScanKernels.prefixSum(SPECIES, arrayA, 0, 0.0f, result, 0, size);
+    }
+}
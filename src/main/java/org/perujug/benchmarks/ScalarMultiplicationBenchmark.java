@@ -1,13 +1,20 @@
 package org.perujug.benchmarks;
 
 import org.perujug.base.BenchmarkBase;
-
-import jdk.incubator.vector.*;
+import org.perujug.base.KernelCost;
+import org.perujug.kernels.FloatKernels;
 
 public class ScalarMultiplicationBenchmark extends BenchmarkBase {
 
     private static final float SCALAR = 2.5f;
 
+    public ScalarMultiplicationBenchmark() {
+    }
+
+    public ScalarMultiplicationBenchmark(int size) {
+        super(size);
+    }
+
     @Override
     public String getBenchmarkName() {
         return "Scalar Multiplication";
@@ -27,39 +34,48 @@ public class ScalarMultiplicationBenchmark extends BenchmarkBase {
         // Array-based benchmark
         long startTime = System.nanoTime();
         for (int i = 0; i < ITERATIONS; i++) {
+            long iterationStart = System.nanoTime();
             arrayScalarMultiplication();
+            arrayLatency.record(System.nanoTime() - iterationStart);
         }
         long arrayTime = System.nanoTime() - startTime;
 
         // Vector API benchmark
         startTime = System.nanoTime();
         for (int i = 0; i < ITERATIONS; i++) {
+            long iterationStart = System.nanoTime();
             vectorApiScalarMultiplication();
+            vectorLatency.record(System.nanoTime() - iterationStart);
         }
         long vectorTime = System.nanoTime() - startTime;
 
         printBenchmarkResults(getBenchmarkName(), arrayTime, vectorTime);
     }
 
-    private void arrayScalarMultiplication() {
-        for (int i = 0; i < ARRAY_SIZE; i++) {
-            result[i] = arrayA[i] * SCALAR;
-        }
+    @Override
+    public KernelCost kernelCost() {
+        return new KernelCost(8, 1);
     }
 
-    private void vectorApiScalarMultiplication() {
-        int i = 0;
-        int upperBound = SPECIES.loopBound(ARRAY_SIZE);
+    @Override
+    public float runArrayKernel() {
+        arrayScalarMultiplication();
+        return result[0];
+    }
 
-        for (; i < upperBound; i += SPECIES.length()) {
-            var va = FloatVector.fromArray(SPECIES, arrayA, i);
-            var vr = va.mul(SCALAR);
-            vr.intoArray(result, i);
-        }
+    @Override
+    public float runVectorKernel() {
+        vectorApiScalarMultiplication();
+        return result[0];
+    }
 
-        // Handle remaining elements
-        for (; i < ARRAY_SIZE; i++) {
+    private void arrayScalarMultiplication() {
+        for (int i = 0; i < size; i++) {
             result[i] = arrayA[i] * SCALAR;
         }
     }
+
+    private void vectorApiScalarMultiplication() {
+        FloatKernels.scale(SPECIES, arrayA, 0, SCALAR, result, 0, size);
+    }
 }
@@ -1,11 +1,18 @@
 package org.perujug.benchmarks;
 
 import org.perujug.base.BenchmarkBase;
-
-import jdk.incubator.vector.*;
+import org.perujug.base.KernelCost;
+import org.perujug.kernels.FloatKernels;
 
 public class VectorAdditionBenchmark extends BenchmarkBase {
 
+    public VectorAdditionBenchmark() {
+    }
+
+    public VectorAdditionBenchmark(int size) {
+        super(size);
+    }
+
     @Override
     public String getBenchmarkName() {
         return "Vector Addition";
@@ -24,40 +31,48 @@ public class VectorAdditionBenchmark extends BenchmarkBase {
         // Array-based benchmark
         long startTime = System.nanoTime();
         for (int i = 0; i < ITERATIONS; i++) {
+            long iterationStart = System.nanoTime();
             arrayVectorAddition();
+            arrayLatency.record(System.nanoTime() - iterationStart);
         }
         long arrayTime = System.nanoTime() - startTime;
 
         // Vector API benchmark
         startTime = System.nanoTime();
         for (int i = 0; i < ITERATIONS; i++) {
+            long iterationStart = System.nanoTime();
             vectorApiVectorAddition();
+            vectorLatency.record(System.nanoTime() - iterationStart);
         }
         long vectorTime = System.nanoTime() - startTime;
 
         printBenchmarkResults(getBenchmarkName(), arrayTime, vectorTime);
     }
 
+    @Override
+    public KernelCost kernelCost() {
+        return new KernelCost(12, 1);
+    }
+
+    @Override
+    public float runArrayKernel() {
+        arrayVectorAddition();
+        return result[0];
+    }
+
+    @Override
+    public float runVectorKernel() {
+        vectorApiVectorAddition();
+        return result[0];
+    }
+
     private void arrayVectorAddition() {
-        for (int i = 0; i < ARRAY_SIZE; i++) {
+        for (int i = 0; i < size; i++) {
             result[i] = arrayA[i] + arrayB[i];
         }
     }
 
     private void vectorApiVectorAddition() {
-        int i = 0;
-        int upperBound = SPECIES.loopBound(ARRAY_SIZE);
-
-        for (; i < upperBound; i += SPECIES.length()) {
-            var va = FloatVector.fromArray(SPECIES, arrayA, i);
-            var vb = FloatVector.fromArray(SPECIES, arrayB, i);
-            var vr = va.add(vb);
-            vr.intoArray(result, i);
-        }
-
-        // Handle remaining elements
-        for (; i < ARRAY_SIZE; i++) {
-            result[i] = arrayA[i] + arrayB[i];
-        }
+        FloatKernels.add(SPECIES, arrayA, 0, arrayB, 0, result, 0, size);
     }
 }
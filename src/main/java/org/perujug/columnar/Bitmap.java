@@ -0,0 +1,118 @@
+package org.perujug.columnar;
+
+import jdk.incubator.vector.*;
+
+import java.util.Arrays;
+
+/**
+ * One bit per row: bit {@code i} is set when row {@code i} passed a {@link ColumnFilter}.
+ *
+ * <p>The aggregates walk the column densely and apply each vector's slice of bits as a
+ * {@link VectorMask}, skipping vectors with no bits set, so they suit high selectivities
+ * where a {@link Selection} would gather almost every row anyway. A bitmap is reusable:
+ * filling it again overwrites the previous rows.
+ */
+public final class Bitmap {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private final long[] words;
+    private int length;
+
+    private Bitmap(int capacity) {
+        this.words = new long[(capacity + 63) >>> 6];
+    }
+
+    public static Bitmap withCapacity(int rows) {
+        return new Bitmap(rows);
+    }
+
+    /** Number of rows covered. */
+    public int length() {
+        return length;
+    }
+
+    public int capacity() {
+        return words.length * 64;
+    }
+
+    public boolean get(int row) {
+        return (words[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /** Number of set bits. */
+    public int cardinality() {
+        int count = 0;
+        for (int w = 0; w < (length + 63) >>> 6; w++) {
+            count += Long.bitCount(words[w]);
+        }
+        return count;
+    }
+
+    /** Backing words, little-endian by row; valid up to {@link #length()} bits. */
+    long[] words() {
+        return words;
+    }
+
+    void reset(int rows) {
+        if (rows > capacity()) {
+            throw new IllegalArgumentException("Bitmap holds " + capacity() + " rows, not " + rows);
+        }
+        Arrays.fill(words, 0, (rows + 63) >>> 6, 0L);
+        length = rows;
+    }
+
+    /** Returns {@code sum(column[i])} over the set rows. */
+    public float sum(float[] column) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+        var vsum = FloatVector.zero(SPECIES);
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            long bits = laneBits(i);
+            if (bits != 0) {
+                var m = VectorMask.fromLong(SPECIES, bits);
+                vsum = vsum.add(FloatVector.fromArray(SPECIES, column, i), m);
+            }
+        }
+
+        float sum = vsum.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            if (get(i)) {
+                sum += column[i];
+            }
+        }
+        return sum;
+    }
+
+    /** Returns {@code sum(a[i] * b[i])} over the set rows. */
+    public float dot(float[] a, float[] b) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+        var vsum = FloatVector.zero(SPECIES);
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            long bits = laneBits(i);
+            if (bits != 0) {
+                var m = VectorMask.fromLong(SPECIES, bits);
+                var va = FloatVector.fromArray(SPECIES, a, i);
+                var vb = FloatVector.fromArray(SPECIES, b, i);
+                vsum = vsum.add(va.mul(vb), m);
+            }
+        }
+
+        float sum = vsum.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            if (get(i)) {
+                sum += a[i] * b[i];
+            }
+        }
+        return sum;
+    }
+
+    // The species length divides 64, so one vector's bits never straddle two words
+    private long laneBits(int row) {
+        long laneMask = -1L >>> (64 - SPECIES.length());
+        return (words[row >>> 6] >>> row) & laneMask;
+    }
+}
@@ -0,0 +1,158 @@
+package org.perujug.columnar;
+
+import jdk.incubator.vector.*;
+
+import java.util.Arrays;
+
+/**
+ * Conjunction of column predicates, {@code WHERE a > x AND b < y ...}, evaluated a vector
+ * of rows at a time.
+ *
+ * <p>Each term compares one vector of its column against a constant and takes the mask as bits
+ * with {@link VectorMask#toLong}; the terms are combined with a scalar {@code &} and the
+ * result is written either as a {@link Bitmap} or as a {@link Selection} of row indices,
+ * compacted with {@link IntVector#compress}. Both can be fed to downstream aggregates.
+ * Filters are immutable; {@link #and} returns a new one.
+ */
+public final class ColumnFilter {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INDEX_SPECIES = SPECIES.withLanes(int.class);
+
+    private record Term(float[] column, Compare op, float value) {
+    }
+
+    private final Term[] terms;
+
+    private ColumnFilter(Term[] terms) {
+        this.terms = terms;
+    }
+
+    public static ColumnFilter where(float[] column, Compare op, float value) {
+        return new ColumnFilter(new Term[] {new Term(column, op, value)});
+    }
+
+    public ColumnFilter and(float[] column, Compare op, float value) {
+        var combined = Arrays.copyOf(terms, terms.length + 1);
+        combined[terms.length] = new Term(column, op, value);
+        return new ColumnFilter(combined);
+    }
+
+    public Bitmap bitmap(int length) {
+        var bitmap = Bitmap.withCapacity(length);
+        bitmap(length, bitmap);
+        return bitmap;
+    }
+
+    /** Sets bit {@code i} of {@code out} for every passing row {@code i < length}. */
+    public void bitmap(int length, Bitmap out) {
+        checkLength(length);
+        out.reset(length);
+        long[] words = out.words();
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            words[i >>> 6] |= mask(i) << i;
+        }
+
+        for (; i < length; i++) {
+            if (test(i)) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    public Selection select(int length) {
+        var selection = Selection.withCapacity(length);
+        select(length, selection);
+        return selection;
+    }
+
+    /** Writes the indices of the passing rows {@code i < length} to {@code out}, in order. */
+    public void select(int length, Selection out) {
+        checkLength(length);
+        if (length > out.capacity()) {
+            throw new IllegalArgumentException("Selection holds " + out.capacity() + " rows, not " + length);
+        }
+        int[] indices = out.indices();
+        int count = 0;
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+        var iota = IntVector.zero(INDEX_SPECIES).addIndex(1);
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            long bits = mask(i);
+            // Writes a whole vector; the lanes past the passing ones are overwritten by the next one
+            iota.add(i).compress(VectorMask.fromLong(INDEX_SPECIES, bits)).intoArray(indices, count);
+            count += Long.bitCount(bits);
+        }
+
+        for (; i < length; i++) {
+            if (test(i)) {
+                indices[count++] = i;
+            }
+        }
+        out.setSize(count);
+    }
+
+    /** Number of passing rows {@code i < length}. */
+    public int count(int length) {
+        checkLength(length);
+        int count = 0;
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            count += Long.bitCount(mask(i));
+        }
+
+        for (; i < length; i++) {
+            if (test(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Bit j is set if row + j passes. Masks are merged as bits: a VectorMask carried around the
+    // term loop, or out of the switch below, is boxed on every vector
+    private long mask(int row) {
+        long bits = compare(terms[0], row);
+        for (int t = 1; t < terms.length; t++) {
+            bits &= compare(terms[t], row);
+        }
+        return bits;
+    }
+
+    // Each branch passes a constant comparison so the compare is intrinsified
+    private static long compare(Term term, int row) {
+        var v = FloatVector.fromArray(SPECIES, term.column(), row);
+        float value = term.value();
+        return switch (term.op()) {
+            case LT -> v.compare(VectorOperators.LT, value).toLong();
+            case LE -> v.compare(VectorOperators.LE, value).toLong();
+            case GT -> v.compare(VectorOperators.GT, value).toLong();
+            case GE -> v.compare(VectorOperators.GE, value).toLong();
+            case EQ -> v.compare(VectorOperators.EQ, value).toLong();
+            case NE -> v.compare(VectorOperators.NE, value).toLong();
+        };
+    }
+
+    private boolean test(int row) {
+        for (Term term : terms) {
+            if (!term.op().test(term.column()[row], term.value())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkLength(int length) {
+        for (Term term : terms) {
+            if (term.column().length < length) {
+                throw new IllegalArgumentException("Column is shorter than " + length);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.perujug.columnar;
+
+/** Comparison of a column value against a constant, as in {@code WHERE col > x}. */
+public enum Compare {
+    LT,
+    LE,
+    GT,
+    GE,
+    EQ,
+    NE;
+
+    boolean test(float value, float operand) {
+        return switch (this) {
+            case LT -> value < operand;
+            case LE -> value <= operand;
+            case GT -> value > operand;
+            case GE -> value >= operand;
+            case EQ -> value == operand;
+            case NE -> value != operand;
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package org.perujug.columnar;
+
+import java.util.Arrays;
+
+/**
+ * SUM/MIN/MAX/COUNT per group, as produced by {@link GroupBy}.
+ *
+ * <p>Accumulators are parallel primitive arrays indexed by the group key, so updating a group
+ * never boxes and neighbouring keys share cache lines. Sums are kept in double to hold their
+ * precision over columns of many millions of rows. A group with no rows has a count of zero,
+ * a sum of zero, a min of {@code +Infinity} and a max of {@code -Infinity}.
+ */
+public final class GroupAggregates {
+
+    final double[] sums;
+    final float[] mins;
+    final float[] maxs;
+    final long[] counts;
+
+    private GroupAggregates(int groups) {
+        this.sums = new double[groups];
+        this.mins = new float[groups];
+        this.maxs = new float[groups];
+        this.counts = new long[groups];
+        reset();
+    }
+
+    public static GroupAggregates withGroups(int groups) {
+        return new GroupAggregates(groups);
+    }
+
+    /** Number of groups; keys run from 0 to {@code groups() - 1}. */
+    public int groups() {
+        return counts.length;
+    }
+
+    public double sum(int group) {
+        return sums[group];
+    }
+
+    public float min(int group) {
+        return mins[group];
+    }
+
+    public float max(int group) {
+        return maxs[group];
+    }
+
+    public long count(int group) {
+        return counts[group];
+    }
+
+    /** Returns {@code sum / count}, or NaN for an empty group. */
+    public double mean(int group) {
+        return counts[group] == 0 ? Double.NaN : sums[group] / counts[group];
+    }
+
+    void reset() {
+        Arrays.fill(sums, 0.0);
+        Arrays.fill(mins, Float.POSITIVE_INFINITY);
+        Arrays.fill(maxs, Float.NEGATIVE_INFINITY);
+        Arrays.fill(counts, 0L);
+    }
+
+    void add(int group, float value) {
+        sums[group] += value;
+        mins[group] = Math.min(mins[group], value);
+        maxs[group] = Math.max(maxs[group], value);
+        counts[group]++;
+    }
+
+    void add(int group, float sum, float min, float max, long count) {
+        sums[group] += sum;
+        mins[group] = Math.min(mins[group], min);
+        maxs[group] = Math.max(maxs[group], max);
+        counts[group] += count;
+    }
+
+    void merge(GroupAggregates other) {
+        for (int g = 0; g < counts.length; g++) {
+            sums[g] += other.sums[g];
+            mins[g] = Math.min(mins[g], other.mins[g]);
+            maxs[g] = Math.max(maxs[g], other.maxs[g]);
+            counts[g] += other.counts[g];
+        }
+    }
+}
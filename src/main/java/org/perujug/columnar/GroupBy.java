@@ -0,0 +1,275 @@
+package org.perujug.columnar;
+
+import jdk.incubator.vector.*;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+
+/**
+ * {@code SELECT key, SUM(v), MIN(v), MAX(v), COUNT(*) GROUP BY key} over an int key column
+ * with values in {@code [0, groups)} and a float value column.
+ *
+ * <p>Up to {@link #VECTOR_MAX_GROUPS} groups the column is processed in L1-sized blocks, and
+ * every group makes one masked pass over the block: the key vector compared against the
+ * group becomes a {@link VectorMask} for a masked add, min and max, and its true count is
+ * the group's count. Above that the per-group passes cost more than they save, and rows are
+ * accumulated one by one. With a {@link ForkJoinPool}, up to {@code 2^}{@link #PARTITION_BITS}
+ * groups the rows are split and per-task accumulators merged; above that the rows are first
+ * scattered into partitions of consecutive keys, so that each task then owns a disjoint,
+ * cache-sized slice of the accumulators and needs no merge at all. The partition size is
+ * chosen per call from the group count and the pool's parallelism.
+ *
+ * <p>An instance owns its result and its partitioning scratch, so it must not run several
+ * aggregations at once, and each call overwrites the previous {@link #result()}. A key
+ * outside {@code [0, groups)} fails the call with an {@link IndexOutOfBoundsException}.
+ */
+public final class GroupBy {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> KEY_SPECIES = SPECIES.withLanes(int.class);
+
+    /** Highest group count that takes the masked vector path. */
+    public static final int VECTOR_MAX_GROUPS = 16;
+
+    /**
+     * Most keys per partition on the parallel path: 4096 groups are 96 KiB of accumulators.
+     * Up to this many groups, tasks merge private accumulators instead of partitioning.
+     */
+    public static final int PARTITION_BITS = 12;
+
+    // Fewest keys per partition: neighbouring partitions then rarely share a cache line
+    private static final int MIN_PARTITION_BITS = 6;
+
+    // Partitions per worker, so that uneven partitions still balance
+    private static final int PARTITIONS_PER_WORKER = 4;
+
+    // Rows per masked block: 16 KiB of keys and values stay in L1 across the group passes
+    private static final int BLOCK = 2048;
+
+    // Rows per parallel task
+    private static final int TASK_ROWS = 64 * 1024;
+
+    private final GroupAggregates result;
+    private int[] partitionKeys = new int[0];
+    private float[] partitionValues = new float[0];
+
+    private GroupBy(int groups) {
+        this.result = GroupAggregates.withGroups(groups);
+    }
+
+    public static GroupBy withGroups(int groups) {
+        if (groups <= 0) {
+            throw new IllegalArgumentException("Group count must be positive: " + groups);
+        }
+        return new GroupBy(groups);
+    }
+
+    public int groups() {
+        return result.groups();
+    }
+
+    /** Aggregates of the last call. */
+    public GroupAggregates result() {
+        return result;
+    }
+
+    /** Single-threaded: the masked vector path for low cardinality, the scalar one otherwise. */
+    public GroupAggregates aggregate(int[] keys, float[] values, int length) {
+        checkLength(keys, values, length);
+        result.reset();
+        if (groups() <= VECTOR_MAX_GROUPS) {
+            masked(keys, values, 0, length, result);
+        } else {
+            scalar(keys, values, 0, length, result);
+        }
+        return result;
+    }
+
+    /** Multi-threaded: merged per-task aggregation up to {@code 2^PARTITION_BITS} groups, partitioned above. */
+    public GroupAggregates aggregate(ForkJoinPool pool, int[] keys, float[] values, int length) {
+        if (length <= TASK_ROWS) {
+            return aggregate(keys, values, length);
+        }
+        checkLength(keys, values, length);
+        result.reset();
+        if (groups() <= 1 << PARTITION_BITS) {
+            result.merge(pool.invoke(new MergeTask(keys, values, 0, length, groups())));
+        } else {
+            partitioned(pool, keys, values, length);
+        }
+        return result;
+    }
+
+    /** Row-at-a-time into the primitive accumulators; the baseline for both vector paths. */
+    public GroupAggregates aggregateScalar(int[] keys, float[] values, int length) {
+        checkLength(keys, values, length);
+        result.reset();
+        scalar(keys, values, 0, length, result);
+        return result;
+    }
+
+    private static void scalar(int[] keys, float[] values, int from, int to, GroupAggregates out) {
+        int groups = out.groups();
+        for (int i = from; i < to; i++) {
+            out.add(Objects.checkIndex(keys[i], groups), values[i]);
+        }
+    }
+
+    private static void masked(int[] keys, float[] values, int from, int to, GroupAggregates out) {
+        int groups = out.groups();
+        var positiveInfinity = FloatVector.broadcast(SPECIES, Float.POSITIVE_INFINITY);
+        var negativeInfinity = FloatVector.broadcast(SPECIES, Float.NEGATIVE_INFINITY);
+
+        for (int start = from; start < to; start += BLOCK) {
+            int end = Math.min(start + BLOCK, to);
+            int upperBound = start + SPECIES.loopBound(end - start);
+            int matched = 0;
+
+            for (int g = 0; g < groups; g++) {
+                var vsum = FloatVector.zero(SPECIES);
+                var vmin = positiveInfinity;
+                var vmax = negativeInfinity;
+                int count = 0;
+
+                for (int i = start; i < upperBound; i += SPECIES.length()) {
+                    var m = IntVector.fromArray(KEY_SPECIES, keys, i).eq(g).cast(SPECIES);
+                    var v = FloatVector.fromArray(SPECIES, values, i);
+                    vsum = vsum.add(v, m);
+                    vmin = vmin.lanewise(VectorOperators.MIN, v, m);
+                    vmax = vmax.lanewise(VectorOperators.MAX, v, m);
+                    count += m.trueCount();
+                }
+
+                if (count > 0) {
+                    out.add(g, vsum.reduceLanes(VectorOperators.ADD),
+                            vmin.reduceLanes(VectorOperators.MIN), vmax.reduceLanes(VectorOperators.MAX), count);
+                    matched += count;
+                }
+            }
+
+            // Every row matches exactly one group, unless its key is out of range
+            if (matched != upperBound - start) {
+                throw new IndexOutOfBoundsException("Key outside [0, " + groups + ") in rows " + start + ".." + upperBound);
+            }
+            scalar(keys, values, upperBound, end, out);
+        }
+    }
+
+    private void partitioned(ForkJoinPool pool, int[] keys, float[] values, int length) {
+        int groups = groups();
+        int perPartition = Math.max(1, groups / (PARTITIONS_PER_WORKER * pool.getParallelism()));
+        int shift = Math.clamp(31 - Integer.numberOfLeadingZeros(perPartition), MIN_PARTITION_BITS, PARTITION_BITS);
+        int partitions = ((groups - 1) >>> shift) + 1;
+        int tasks = Math.ceilDiv(length, TASK_ROWS);
+        int[][] offsets = new int[tasks][partitions];
+
+        // 1. Rows per (task, partition)
+        pool.invoke(new IndexTask(0, tasks, t -> {
+            int[] histogram = offsets[t];
+            for (int i = t * TASK_ROWS, end = Math.min(i + TASK_ROWS, length); i < end; i++) {
+                histogram[Objects.checkIndex(keys[i], groups) >>> shift]++;
+            }
+        }));
+
+        // 2. Partition-major prefix sum, so every partition is one contiguous run
+        int[] partitionStart = new int[partitions + 1];
+        int running = 0;
+        for (int p = 0; p < partitions; p++) {
+            partitionStart[p] = running;
+            for (int t = 0; t < tasks; t++) {
+                int count = offsets[t][p];
+                offsets[t][p] = running;
+                running += count;
+            }
+        }
+        partitionStart[partitions] = running;
+
+        // 3. Scatter; each task writes its own disjoint slots of every partition
+        if (partitionKeys.length < length) {
+            partitionKeys = new int[length];
+            partitionValues = new float[length];
+        }
+        int[] pKeys = partitionKeys;
+        float[] pValues = partitionValues;
+        pool.invoke(new IndexTask(0, tasks, t -> {
+            int[] next = offsets[t];
+            for (int i = t * TASK_ROWS, end = Math.min(i + TASK_ROWS, length); i < end; i++) {
+                int slot = next[keys[i] >>> shift]++;
+                pKeys[slot] = keys[i];
+                pValues[slot] = values[i];
+            }
+        }));
+
+        // 4. Each partition updates only its own keys
+        pool.invoke(new IndexTask(0, partitions, p ->
+                scalar(pKeys, pValues, partitionStart[p], partitionStart[p + 1], result)));
+    }
+
+    private static void checkLength(int[] keys, float[] values, int length) {
+        if (keys.length < length || values.length < length) {
+            throw new IllegalArgumentException("Columns are shorter than " + length);
+        }
+    }
+
+    private static final class IndexTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final IntConsumer op;
+
+        IndexTask(int from, int to, IntConsumer op) {
+            this.from = from;
+            this.to = to;
+            this.op = op;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                op.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new IndexTask(from, mid, op), new IndexTask(mid, to, op));
+        }
+    }
+
+    private static final class MergeTask extends RecursiveTask<GroupAggregates> {
+        private final int[] keys;
+        private final float[] values;
+        private final int from;
+        private final int to;
+        private final int groups;
+
+        MergeTask(int[] keys, float[] values, int from, int to, int groups) {
+            this.keys = keys;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.groups = groups;
+        }
+
+        @Override
+        protected GroupAggregates compute() {
+            if (to - from <= TASK_ROWS) {
+                var partial = GroupAggregates.withGroups(groups);
+                if (groups <= VECTOR_MAX_GROUPS) {
+                    masked(keys, values, from, to, partial);
+                } else {
+                    scalar(keys, values, from, to, partial);
+                }
+                return partial;
+            }
+            // Split on a TASK_ROWS boundary so every leaf but the last is whole blocks
+            int mid = from + ((to - from + TASK_ROWS - 1) / TASK_ROWS / 2) * TASK_ROWS;
+            var left = new MergeTask(keys, values, from, mid, groups);
+            var right = new MergeTask(keys, values, mid, to, groups);
+            left.fork();
+            var merged = right.compute();
+            merged.merge(left.join());
+            return merged;
+        }
+    }
+}
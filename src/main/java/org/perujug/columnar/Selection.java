@@ -0,0 +1,80 @@
+package org.perujug.columnar;
+
+import jdk.incubator.vector.*;
+
+/**
+ * Ascending indices of the rows that passed a {@link ColumnFilter}.
+ *
+ * <p>The aggregates gather only the selected rows, so they suit low selectivities. The
+ * backing array has {@code SPECIES.length()} slots of slack past the capacity because
+ * {@code compress} writes whole vectors. A selection is reusable: filling it again
+ * overwrites the previous rows.
+ */
+public final class Selection {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private final int[] indices;
+    private int size;
+
+    private Selection(int capacity) {
+        this.indices = new int[capacity + SPECIES.length()];
+    }
+
+    public static Selection withCapacity(int rows) {
+        return new Selection(rows);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return indices.length - SPECIES.length();
+    }
+
+    /** Backing indices; only the first {@link #size()} are valid. */
+    public int[] indices() {
+        return indices;
+    }
+
+    void setSize(int size) {
+        this.size = size;
+    }
+
+    /** Returns {@code sum(column[i])} over the selected rows. */
+    public float sum(float[] column) {
+        int k = 0;
+        int upperBound = SPECIES.loopBound(size);
+        var vsum = FloatVector.zero(SPECIES);
+
+        for (; k < upperBound; k += SPECIES.length()) {
+            vsum = vsum.add(FloatVector.fromArray(SPECIES, column, 0, indices, k));
+        }
+
+        float sum = vsum.reduceLanes(VectorOperators.ADD);
+        for (; k < size; k++) {
+            sum += column[indices[k]];
+        }
+        return sum;
+    }
+
+    /** Returns {@code sum(a[i] * b[i])} over the selected rows. */
+    public float dot(float[] a, float[] b) {
+        int k = 0;
+        int upperBound = SPECIES.loopBound(size);
+        var vsum = FloatVector.zero(SPECIES);
+
+        for (; k < upperBound; k += SPECIES.length()) {
+            var va = FloatVector.fromArray(SPECIES, a, 0, indices, k);
+            var vb = FloatVector.fromArray(SPECIES, b, 0, indices, k);
+            vsum = va.fma(vb, vsum);
+        }
+
+        float sum = vsum.reduceLanes(VectorOperators.ADD);
+        for (; k < size; k++) {
+            sum += a[indices[k]] * b[indices[k]];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,84 @@
+package org.perujug.expr;
+
+/**
+ * Lazy element-wise expression over {@code float[]} inputs.
+ *
+ * <p>Building an expression does no work; {@link #compile()} turns the tree into a
+ * {@link FusedKernel} that evaluates it in a single pass over the inputs. For example
+ * {@code input(0).add(input(1)).mul(2.5f).sqrt()} is {@code sqrt((a[i] + b[i]) * 2.5)}.
+ */
+public sealed interface Expr {
+
+    /** The {@code index}-th array passed to {@link FusedKernel#evaluate}. */
+    record Input(int index) implements Expr {
+        public Input {
+            if (index < 0) {
+                throw new IllegalArgumentException("Input index must be non-negative: " + index);
+            }
+        }
+    }
+
+    record Constant(float value) implements Expr {
+    }
+
+    record Unary(Op op, Expr operand) implements Expr {
+    }
+
+    record Binary(Op op, Expr left, Expr right) implements Expr {
+    }
+
+    /** {@code a * b + c} with a single rounding. */
+    record Fma(Expr a, Expr b, Expr c) implements Expr {
+    }
+
+    enum Op {
+        ADD,
+        MUL,
+        ABS,
+        SQRT
+    }
+
+    static Expr input(int index) {
+        return new Input(index);
+    }
+
+    static Expr constant(float value) {
+        return new Constant(value);
+    }
+
+    default Expr add(Expr other) {
+        return new Binary(Op.ADD, this, other);
+    }
+
+    default Expr add(float value) {
+        return add(constant(value));
+    }
+
+    default Expr mul(Expr other) {
+        return new Binary(Op.MUL, this, other);
+    }
+
+    default Expr mul(float value) {
+        return mul(constant(value));
+    }
+
+    default Expr fma(Expr b, Expr c) {
+        return new Fma(this, b, c);
+    }
+
+    default Expr fma(Expr b, float c) {
+        return fma(b, constant(c));
+    }
+
+    default Expr abs() {
+        return new Unary(Op.ABS, this);
+    }
+
+    default Expr sqrt() {
+        return new Unary(Op.SQRT, this);
+    }
+
+    default FusedKernel compile() {
+        return new FusedKernel(this);
+    }
+}
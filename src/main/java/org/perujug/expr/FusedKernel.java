@@ -0,0 +1,246 @@
+package org.perujug.expr;
+
+import jdk.incubator.vector.*;
+import org.perujug.kernels.FloatKernels;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled {@link Expr}: evaluates the whole tree in one pass over its inputs.
+ *
+ * <p>The tree is flattened into a short list of element-wise instructions over
+ * {@link #STRIP}-element scratch slots, and the output is produced strip by strip: each
+ * strip of the inputs is read once, every instruction runs over it while the intermediates
+ * are still in L1, and the strip of the result is written once. Inputs and output are
+ * therefore streamed exactly once, however long the expression, and no full-size
+ * intermediate array is ever allocated. Slots are reused as soon as their value is consumed,
+ * constant subtrees are folded at compile time, and each instruction is a
+ * {@link FloatKernels} loop over a {@code static final} species.
+ *
+ * <p>A kernel owns its scratch slots, so it must not be evaluated by several threads at
+ * once; compile one per thread instead. The output may alias any input.
+ */
+public final class FusedKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    /** Elements per strip: 4 KiB per slot keeps a handful of intermediates within L1. */
+    public static final int STRIP = 1024;
+
+    private enum Code {
+        ADD,
+        MUL,
+        FMA,
+        ABS,
+        SQRT,
+        SQRT_ABS,
+        COPY
+    }
+
+    private enum Kind {
+        INPUT,
+        SLOT,
+        CONSTANT,
+        OUTPUT
+    }
+
+    private record Operand(Kind kind, int index) {
+    }
+
+    private record Instruction(Code code, Operand target, Operand... sources) {
+    }
+
+    private static final Operand OUTPUT = new Operand(Kind.OUTPUT, 0);
+
+    private final Expr expr;
+    private final Instruction[] program;
+    private final float[][] slots;
+    private final float[][] constants;
+    private final int inputCount;
+
+    FusedKernel(Expr expr) {
+        this.expr = fold(expr);
+        var compiler = new Compiler();
+        compiler.emitRoot(this.expr);
+        this.program = compiler.program.toArray(Instruction[]::new);
+        this.slots = new float[compiler.slotCount][STRIP];
+        this.constants = compiler.constants.toArray(float[][]::new);
+        this.inputCount = compiler.inputCount;
+    }
+
+    /** Number of input arrays {@link #evaluate} expects. */
+    public int inputCount() {
+        return inputCount;
+    }
+
+    /** {@code dst[i] = expr(inputs[0][i], inputs[1][i], ...)} for {@code i < length}. */
+    public void evaluate(float[][] inputs, float[] dst, int length) {
+        if (inputs.length < inputCount) {
+            throw new IllegalArgumentException("Expected " + inputCount + " inputs but got " + inputs.length);
+        }
+        for (int k = 0; k < inputCount; k++) {
+            if (inputs[k].length < length) {
+                throw new IllegalArgumentException("Input " + k + " is shorter than " + length);
+            }
+        }
+        if (dst.length < length) {
+            throw new IllegalArgumentException("Output is shorter than " + length);
+        }
+
+        for (int start = 0; start < length; start += STRIP) {
+            int n = Math.min(STRIP, length - start);
+            for (Instruction instruction : program) {
+                execute(instruction, inputs, dst, start, n);
+            }
+        }
+    }
+
+    private void execute(Instruction instruction, float[][] inputs, float[] dst, int start, int n) {
+        var sources = instruction.sources();
+        var s0 = sources[0];
+        float[] target = array(instruction.target(), inputs, dst);
+        int targetOffset = offset(instruction.target(), start);
+
+        switch (instruction.code()) {
+            case ADD -> FloatKernels.add(SPECIES,
+                    array(s0, inputs, dst), offset(s0, start),
+                    array(sources[1], inputs, dst), offset(sources[1], start),
+                    target, targetOffset, n);
+            case MUL -> FloatKernels.mul(SPECIES,
+                    array(s0, inputs, dst), offset(s0, start),
+                    array(sources[1], inputs, dst), offset(sources[1], start),
+                    target, targetOffset, n);
+            case FMA -> FloatKernels.fma(SPECIES,
+                    array(s0, inputs, dst), offset(s0, start),
+                    array(sources[1], inputs, dst), offset(sources[1], start),
+                    array(sources[2], inputs, dst), offset(sources[2], start),
+                    target, targetOffset, n);
+            case ABS -> FloatKernels.abs(SPECIES, array(s0, inputs, dst), offset(s0, start), target, targetOffset, n);
+            case SQRT -> FloatKernels.sqrt(SPECIES, array(s0, inputs, dst), offset(s0, start), target, targetOffset, n);
+            case SQRT_ABS -> FloatKernels.sqrtAbs(SPECIES, array(s0, inputs, dst), offset(s0, start), target, targetOffset, n);
+            case COPY -> System.arraycopy(array(s0, inputs, dst), offset(s0, start), target, targetOffset, n);
+        }
+    }
+
+    private float[] array(Operand operand, float[][] inputs, float[] dst) {
+        return switch (operand.kind()) {
+            case INPUT -> inputs[operand.index()];
+            case SLOT -> slots[operand.index()];
+            case CONSTANT -> constants[operand.index()];
+            case OUTPUT -> dst;
+        };
+    }
+
+    // Inputs and output are addressed at the strip start; slots and constants are one strip long
+    private static int offset(Operand operand, int start) {
+        return operand.kind() == Kind.INPUT || operand.kind() == Kind.OUTPUT ? start : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "FusedKernel[" + expr + ", " + program.length + " instructions, " + slots.length + " slots]";
+    }
+
+    // ==== COMPILATION ====
+
+    private static Expr fold(Expr expr) {
+        return switch (expr) {
+            case Expr.Input input -> input;
+            case Expr.Constant constant -> constant;
+            case Expr.Unary(var op, var operand) -> {
+                var folded = fold(operand);
+                if (folded instanceof Expr.Constant(float value)) {
+                    yield new Expr.Constant(op == Expr.Op.ABS ? Math.abs(value) : (float) Math.sqrt(value));
+                }
+                yield new Expr.Unary(op, folded);
+            }
+            case Expr.Binary(var op, var left, var right) -> {
+                var l = fold(left);
+                var r = fold(right);
+                if (l instanceof Expr.Constant(float a) && r instanceof Expr.Constant(float b)) {
+                    yield new Expr.Constant(op == Expr.Op.ADD ? a + b : a * b);
+                }
+                yield new Expr.Binary(op, l, r);
+            }
+            case Expr.Fma(var a, var b, var c) -> {
+                var fa = fold(a);
+                var fb = fold(b);
+                var fc = fold(c);
+                if (fa instanceof Expr.Constant(float x) && fb instanceof Expr.Constant(float y)
+                        && fc instanceof Expr.Constant(float z)) {
+                    yield new Expr.Constant(Math.fma(x, y, z));
+                }
+                yield new Expr.Fma(fa, fb, fc);
+            }
+        };
+    }
+
+    private static final class Compiler {
+        private final List<Instruction> program = new ArrayList<>();
+        private final List<float[]> constants = new ArrayList<>();
+        private final Map<Integer, Operand> constantsByBits = new HashMap<>();
+        private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+        private int slotCount;
+        private int inputCount;
+
+        void emitRoot(Expr root) {
+            var result = emit(root, true);
+            if (result != OUTPUT) {
+                program.add(new Instruction(Code.COPY, OUTPUT, result));
+            }
+        }
+
+        // The root instruction writes straight to the output instead of a slot
+        private Operand emit(Expr expr, boolean root) {
+            return switch (expr) {
+                case Expr.Input(int index) -> {
+                    inputCount = Math.max(inputCount, index + 1);
+                    yield new Operand(Kind.INPUT, index);
+                }
+                case Expr.Constant(float value) -> constant(value);
+                // sqrt(abs(x)) has its own kernel, as in MathFunctionsBenchmark
+                case Expr.Unary(var op, Expr.Unary(var inner, var operand))
+                        when op == Expr.Op.SQRT && inner == Expr.Op.ABS ->
+                        instruction(Code.SQRT_ABS, root, emit(operand, false));
+                case Expr.Unary(var op, var operand) ->
+                        instruction(op == Expr.Op.ABS ? Code.ABS : Code.SQRT, root, emit(operand, false));
+                case Expr.Binary(var op, var left, var right) ->
+                        instruction(op == Expr.Op.ADD ? Code.ADD : Code.MUL, root, emit(left, false), emit(right, false));
+                case Expr.Fma(var a, var b, var c) ->
+                        instruction(Code.FMA, root, emit(a, false), emit(b, false), emit(c, false));
+            };
+        }
+
+        // Sources are released before the target is allocated; every kernel reads element i
+        // before writing it, so the target may reuse a source slot
+        private Operand instruction(Code code, boolean root, Operand... sources) {
+            for (Operand source : sources) {
+                if (source.kind() == Kind.SLOT) {
+                    freeSlots.push(source.index());
+                }
+            }
+            Operand target;
+            if (root) {
+                target = OUTPUT;
+            } else {
+                target = new Operand(Kind.SLOT, freeSlots.isEmpty() ? slotCount++ : freeSlots.pop());
+            }
+            program.add(new Instruction(code, target, sources));
+            return target;
+        }
+
+        private Operand constant(float value) {
+            return constantsByBits.computeIfAbsent(Float.floatToRawIntBits(value), bits -> {
+                float[] strip = new float[STRIP];
+                Arrays.fill(strip, value);
+                constants.add(strip);
+                return new Operand(Kind.CONSTANT, constants.size() - 1);
+            });
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.perujug.jmh;
+
+import jdk.incubator.vector.*;
+import org.openjdk.jmh.annotations.*;
+import org.perujug.kernels.FloatKernels;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single versus 2/4/8 independent accumulators for dot product and sum. In-cache sizes
+ * show the FMA/add latency chain; past L2 all variants converge on memory bandwidth.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector"
+})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class JmhAccumulatorBenchmarks {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Param({"64", "512", "4096", "32768", "262144", "2097152", "16777216"})
+    public int arraySize;
+
+    private float[] arrayA;
+    private float[] arrayB;
+
+    @Setup(Level.Trial)
+    public void setupArrays() {
+        Random random = new Random(42);
+        arrayA = new float[arraySize];
+        arrayB = new float[arraySize];
+
+        for (int i = 0; i < arraySize; i++) {
+            arrayA[i] = random.nextFloat() * 100;
+            arrayB[i] = random.nextFloat() * 100;
+        }
+    }
+
+    // ==== DOT PRODUCT BENCHMARKS ====
+
+    @Benchmark
+    public float dotProduct_1Acc() {
+        return FloatKernels.dot(SPECIES, arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    @Benchmark
+    public float dotProduct_2Acc() {
+        return FloatKernels.dot2(SPECIES, arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    @Benchmark
+    public float dotProduct_4Acc() {
+        return FloatKernels.dot4(SPECIES, arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    @Benchmark
+    public float dotProduct_8Acc() {
+        return FloatKernels.dot8(SPECIES, arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    // ==== SUM REDUCTION BENCHMARKS ====
+
+    @Benchmark
+    public float sum_1Acc() {
+        return FloatKernels.sum(SPECIES, arrayA, 0, arraySize);
+    }
+
+    @Benchmark
+    public float sum_2Acc() {
+        return FloatKernels.sum2(SPECIES, arrayA, 0, arraySize);
+    }
+
+    @Benchmark
+    public float sum_4Acc() {
+        return FloatKernels.sum4(SPECIES, arrayA, 0, arraySize);
+    }
+
+    @Benchmark
+    public float sum_8Acc() {
+        return FloatKernels.sum8(SPECIES, arrayA, 0, arraySize);
+    }
+}
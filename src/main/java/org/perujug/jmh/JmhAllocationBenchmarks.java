@@ -0,0 +1,1037 @@
+package org.perujug.jmh;
+
+import jdk.incubator.vector.*;
+import org.openjdk.jmh.annotations.*;
+import org.perujug.columnar.Bitmap;
+import org.perujug.columnar.ColumnFilter;
+import org.perujug.columnar.Compare;
+import org.perujug.columnar.GroupAggregates;
+import org.perujug.columnar.GroupBy;
+import org.perujug.columnar.Selection;
+import org.perujug.expr.FusedKernel;
+import org.perujug.kernels.ConvolutionKernels;
+import org.perujug.kernels.DoubleKernels;
+import org.perujug.kernels.FloatKernels;
+import org.perujug.kernels.FloatSegmentKernels;
+import org.perujug.kernels.GemmKernels;
+import org.perujug.kernels.MathKernels;
+import org.perujug.kernels.MixedPrecisionKernels;
+import org.perujug.kernels.ParallelKernels;
+import org.perujug.kernels.QuantizedKernels;
+import org.perujug.kernels.ReductionKernels;
+import org.perujug.kernels.ScanKernels;
+import org.perujug.kernels.SparseKernels;
+import org.perujug.kernels.TailKernels;
+import org.perujug.quantization.Float16Vectors;
+import org.perujug.quantization.Int8Vectors;
+import org.perujug.search.DistanceMatrix;
+import org.perujug.search.EmbeddingStore;
+import org.perujug.search.Metric;
+import org.perujug.search.SearchResult;
+import org.perujug.search.VectorSearchEngine;
+import org.perujug.sparse.CsrMatrix;
+import org.perujug.sparse.SparseVector;
+import org.perujug.tuning.TunedKernels;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.perujug.expr.Expr.input;
+
+/**
+ * Allocation per call of the kernels, to be run under {@code -prof gc}: C2 keeps a
+ * {@link FloatVector} in registers only when it can see the species as a constant and inline
+ * every method the vector passes through. Otherwise each vector becomes a heap object.
+ *
+ * <p>There is one benchmark per public kernel entry point, and the suffix says what
+ * {@code runners.JmhAllocationRunner} expects of it:
+ * <ul>
+ *   <li>{@code _VectorAPI} - about 0 B/op of {@code gc.alloc.rate.norm}.</li>
+ *   <li>{@code _PerCall} - a few objects per call whatever the length: fork/join tasks, or a
+ *       search result. Boxed vectors would add one object per vector on top of them.</li>
+ *   <li>{@code _SpeciesField} and {@code _Megamorphic} - break the two conditions on purpose
+ *       to show what it costs: the species read from a non-final field, and vectors passed
+ *       through an interface call site that has seen three implementations.</li>
+ * </ul>
+ * {@code arraySize} is a multiple of every species length, so the tail kernels get their own
+ * {@code tailLength} that leaves a remainder.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector"
+})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 3, time = 1)
+public class JmhAllocationBenchmarks {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLE_SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTE_SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Short> SHORT_SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    /** Floats for the parallel kernels: enough for several leaves of every split tree. */
+    private static final int PARALLEL_SIZE = 4 * ScanKernels.CHUNK_SIZE;
+    private static final int TAPS = 16;
+    private static final int GROUPS = 16;
+    private static final int TABLE_ROWS = 1024;
+    private static final int DIMENSION = 64;
+    private static final int QUERIES = 4;
+    private static final int K = 10;
+
+    /** An element-wise step applied to whole vectors through an interface. */
+    @FunctionalInterface
+    public interface VectorOp {
+        FloatVector apply(FloatVector a, FloatVector b);
+    }
+
+    private static final VectorOp ADD = FloatVector::add;
+    private static final VectorOp MUL = FloatVector::mul;
+    private static final VectorOp MAX = FloatVector::max;
+    private static final VectorOp[] OPS = {ADD, MUL, MAX};
+
+    @Param({"4096"})
+    public int arraySize;
+
+    // Deliberately not final: C2 cannot fold it to a constant
+    private VectorSpecies<Float> speciesField = FloatVector.SPECIES_PREFERRED;
+
+    private float[] arrayA;
+    private float[] arrayB;
+    private float[] arrayC;
+    private float[] result;
+    private double[] doubleA;
+    private double[] doubleB;
+    private double[] doubleResult;
+    private int tailLength;
+    private int nextOp;
+
+    // arraySize viewed as a square matrix, for the GEMM benchmarks
+    private int matrixSize;
+    private Arena arena;
+    private MemorySegment segmentA;
+    private MemorySegment segmentB;
+    private MemorySegment segmentC;
+
+    private float[] taps;
+    // Outputs of the sliding-window kernels: the inputs past them cover the longest window
+    private int windowOutputs;
+
+    private byte[] bytesA;
+    private byte[] bytesB;
+    private short[] halfA;
+    private short[] halfB;
+    private Int8Vectors int8;
+    private Float16Vectors float16;
+
+    private float[] sparseValues;
+    private int[] sparseIndices;
+    private CsrMatrix csr;
+    private float[] csrResult;
+    private SparseVector sparseVector;
+
+    private float[][] fusedInputs;
+    private FusedKernel fused;
+
+    private ColumnFilter filter;
+    private Bitmap bitmap;
+    private Selection selection;
+    private int[] keys;
+    private float[] values;
+    private GroupBy groupBy;
+
+    private float[] table;
+    private float[] queryData;
+    private float[][] queries;
+    private float[] distances;
+    private DistanceMatrix distanceMatrix;
+    private VectorSearchEngine heapEngine;
+    private VectorSearchEngine offHeapEngine;
+
+    private float[] parallelA;
+    private float[] parallelB;
+    private float[] parallelResult;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setupArrays() {
+        Random random = new Random(42);
+        arrayA = new float[arraySize];
+        arrayB = new float[arraySize];
+        arrayC = new float[arraySize];
+        result = new float[arraySize];
+        doubleA = new double[arraySize];
+        doubleB = new double[arraySize];
+        doubleResult = new double[arraySize];
+
+        for (int i = 0; i < arraySize; i++) {
+            arrayA[i] = random.nextFloat() * 100;
+            arrayB[i] = random.nextFloat() * 100;
+            arrayC[i] = random.nextFloat() * 200 - 100;
+            doubleA[i] = arrayA[i];
+            doubleB[i] = arrayB[i];
+        }
+        tailLength = arraySize - 3;
+
+        matrixSize = (int) Math.sqrt(arraySize);
+        arena = Arena.ofShared();
+        segmentA = FloatSegmentKernels.allocate(arena, arraySize).copyFrom(MemorySegment.ofArray(arrayA));
+        segmentB = FloatSegmentKernels.allocate(arena, arraySize).copyFrom(MemorySegment.ofArray(arrayB));
+        segmentC = FloatSegmentKernels.allocate(arena, arraySize);
+
+        taps = new float[TAPS];
+        for (int k = 0; k < TAPS; k++) {
+            taps[k] = random.nextFloat() / TAPS;
+        }
+        windowOutputs = arraySize - 4 * TAPS;
+
+        setupQuantized(random);
+        setupSparse(random);
+        setupColumnar(random);
+        setupSearch(random);
+
+        fusedInputs = new float[][] {arrayA, arrayB, arrayC};
+        fused = input(0).fma(input(1), input(2)).abs().sqrt().add(input(0)).mul(2.5f).compile();
+
+        parallelA = new float[PARALLEL_SIZE];
+        parallelB = new float[PARALLEL_SIZE];
+        parallelResult = new float[PARALLEL_SIZE];
+        for (int i = 0; i < PARALLEL_SIZE; i++) {
+            parallelA[i] = random.nextFloat() * 100;
+            parallelB[i] = random.nextFloat() * 100;
+        }
+        pool = ForkJoinPool.commonPool();
+    }
+
+    private void setupQuantized(Random random) {
+        bytesA = new byte[arraySize];
+        bytesB = new byte[arraySize];
+        random.nextBytes(bytesA);
+        random.nextBytes(bytesB);
+        halfA = new short[arraySize];
+        halfB = new short[arraySize];
+        for (int i = 0; i < arraySize; i++) {
+            halfA[i] = Float.floatToFloat16(arrayA[i]);
+            halfB[i] = Float.floatToFloat16(arrayB[i]);
+        }
+
+        // Row 0 holds A and row 1 holds B
+        int8 = new Int8Vectors(arraySize, 2);
+        int8.add(arrayA);
+        int8.add(arrayB);
+        float16 = new Float16Vectors(arraySize, 2);
+        float16.add(arrayA);
+        float16.add(arrayB);
+    }
+
+    private void setupSparse(Random random) {
+        // Every other element, so the gathers hit a different cache line every few lanes
+        sparseValues = new float[arraySize / 2];
+        sparseIndices = new int[arraySize / 2];
+        for (int k = 0; k < sparseIndices.length; k++) {
+            sparseValues[k] = arrayA[2 * k];
+            sparseIndices[k] = 2 * k;
+        }
+
+        // Half of the cells set, so every row is long enough to gather
+        float[] dense = new float[matrixSize * matrixSize];
+        float[] sparseDense = new float[arraySize];
+        for (int i = 0; i < dense.length; i++) {
+            if (random.nextBoolean()) {
+                dense[i] = arrayA[i];
+            }
+        }
+        for (int i = 0; i < arraySize; i += 2) {
+            sparseDense[i] = arrayA[i];
+        }
+        csr = CsrMatrix.fromDense(dense, matrixSize, matrixSize);
+        csrResult = new float[matrixSize];
+        sparseVector = SparseVector.fromDense(sparseDense);
+    }
+
+    private void setupColumnar(Random random) {
+        filter = ColumnFilter.where(arrayA, Compare.GT, 25.0f).and(arrayB, Compare.LT, 75.0f);
+        bitmap = Bitmap.withCapacity(arraySize);
+        selection = Selection.withCapacity(arraySize);
+        filter.bitmap(arraySize, bitmap);
+        filter.select(arraySize, selection);
+
+        // Enough rows for the parallel aggregate to split
+        keys = new int[PARALLEL_SIZE];
+        values = new float[PARALLEL_SIZE];
+        for (int i = 0; i < PARALLEL_SIZE; i++) {
+            keys[i] = random.nextInt(GROUPS);
+            values[i] = random.nextFloat() * 100;
+        }
+        groupBy = GroupBy.withGroups(GROUPS);
+    }
+
+    private void setupSearch(Random random) {
+        table = new float[TABLE_ROWS * DIMENSION];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = random.nextFloat() * 2 - 1;
+        }
+        queryData = new float[QUERIES * DIMENSION];
+        queries = new float[QUERIES][DIMENSION];
+        for (int q = 0; q < QUERIES; q++) {
+            for (int j = 0; j < DIMENSION; j++) {
+                queryData[q * DIMENSION + j] = random.nextFloat() * 2 - 1;
+                queries[q][j] = queryData[q * DIMENSION + j];
+            }
+        }
+        distances = new float[QUERIES * TABLE_ROWS];
+        distanceMatrix = DistanceMatrix.of(Metric.COSINE, table, TABLE_ROWS, DIMENSION);
+
+        var heapStore = EmbeddingStore.onHeap(DIMENSION, TABLE_ROWS);
+        var offHeapStore = EmbeddingStore.offHeap(arena, DIMENSION, TABLE_ROWS);
+        float[] row = new float[DIMENSION];
+        for (int r = 0; r < TABLE_ROWS; r++) {
+            System.arraycopy(table, r * DIMENSION, row, 0, DIMENSION);
+            heapStore.add(row);
+            offHeapStore.add(row);
+        }
+        heapEngine = new VectorSearchEngine(heapStore, Metric.COSINE);
+        offHeapEngine = new VectorSearchEngine(offHeapStore, Metric.L2);
+    }
+
+    @TearDown(Level.Trial)
+    public void release() {
+        arena.close();
+    }
+
+    // ==== HOT PATH: must not allocate ====
+
+    // ---- FloatKernels ----
+
+    @Benchmark
+    public float[] add_VectorAPI() {
+        FloatKernels.add(SPECIES, arrayA, 0, arrayB, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] sub_VectorAPI() {
+        FloatKernels.sub(SPECIES, arrayA, 0, arrayB, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] scale_VectorAPI() {
+        FloatKernels.scale(SPECIES, arrayA, 0, 2.5f, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] mul_VectorAPI() {
+        FloatKernels.mul(SPECIES, arrayA, 0, arrayB, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] fma_VectorAPI() {
+        FloatKernels.fma(SPECIES, arrayA, 0, arrayB, 0, 1.5f, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] fmaArray_VectorAPI() {
+        FloatKernels.fma(SPECIES, arrayA, 0, arrayB, 0, arrayC, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] abs_VectorAPI() {
+        FloatKernels.abs(SPECIES, arrayC, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] sqrt_VectorAPI() {
+        FloatKernels.sqrt(SPECIES, arrayA, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] sqrtAbs_VectorAPI() {
+        FloatKernels.sqrtAbs(SPECIES, arrayA, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float dot_VectorAPI() {
+        return FloatKernels.dot(SPECIES, arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    @Benchmark
+    public float dot2_VectorAPI() {
+        return FloatKernels.dot2(SPECIES, arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    @Benchmark
+    public float dot4_VectorAPI() {
+        return FloatKernels.dot4(SPECIES, arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    @Benchmark
+    public float dot8_VectorAPI() {
+        return FloatKernels.dot8(SPECIES, arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    @Benchmark
+    public float sum_VectorAPI() {
+        return FloatKernels.sum(SPECIES, arrayA, 0, arraySize);
+    }
+
+    @Benchmark
+    public float sum2_VectorAPI() {
+        return FloatKernels.sum2(SPECIES, arrayA, 0, arraySize);
+    }
+
+    @Benchmark
+    public float sum4_VectorAPI() {
+        return FloatKernels.sum4(SPECIES, arrayA, 0, arraySize);
+    }
+
+    @Benchmark
+    public float sum8_VectorAPI() {
+        return FloatKernels.sum8(SPECIES, arrayA, 0, arraySize);
+    }
+
+    @Benchmark
+    public float squaredDistance_VectorAPI() {
+        return FloatKernels.squaredDistance(SPECIES, arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    // ---- FloatSegmentKernels ----
+
+    @Benchmark
+    public MemorySegment segmentAdd_VectorAPI() {
+        FloatSegmentKernels.add(SPECIES, segmentA, 0, segmentB, 0, segmentC, 0, arraySize);
+        return segmentC;
+    }
+
+    @Benchmark
+    public MemorySegment segmentScale_VectorAPI() {
+        FloatSegmentKernels.scale(SPECIES, segmentA, 0, 2.5f, segmentC, 0, arraySize);
+        return segmentC;
+    }
+
+    @Benchmark
+    public MemorySegment segmentFma_VectorAPI() {
+        FloatSegmentKernels.fma(SPECIES, segmentA, 0, segmentB, 0, 1.5f, segmentC, 0, arraySize);
+        return segmentC;
+    }
+
+    @Benchmark
+    public MemorySegment segmentSqrt_VectorAPI() {
+        FloatSegmentKernels.sqrt(SPECIES, segmentA, 0, segmentC, 0, arraySize);
+        return segmentC;
+    }
+
+    @Benchmark
+    public MemorySegment segmentSqrtAbs_VectorAPI() {
+        FloatSegmentKernels.sqrtAbs(SPECIES, segmentA, 0, segmentC, 0, arraySize);
+        return segmentC;
+    }
+
+    @Benchmark
+    public float segmentDot_VectorAPI() {
+        return FloatSegmentKernels.dot(SPECIES, segmentA, 0, segmentB, 0, arraySize);
+    }
+
+    @Benchmark
+    public float segmentSquaredDistance_VectorAPI() {
+        return FloatSegmentKernels.squaredDistance(SPECIES, segmentA, 0, segmentB, 0, arraySize);
+    }
+
+    // ---- DoubleKernels and MixedPrecisionKernels ----
+
+    @Benchmark
+    public double[] doubleAdd_VectorAPI() {
+        DoubleKernels.add(DOUBLE_SPECIES, doubleA, 0, doubleB, 0, doubleResult, 0, arraySize);
+        return doubleResult;
+    }
+
+    @Benchmark
+    public double[] doubleScale_VectorAPI() {
+        DoubleKernels.scale(DOUBLE_SPECIES, doubleA, 0, 2.5, doubleResult, 0, arraySize);
+        return doubleResult;
+    }
+
+    @Benchmark
+    public double[] doubleFma_VectorAPI() {
+        DoubleKernels.fma(DOUBLE_SPECIES, doubleA, 0, doubleB, 0, 1.5, doubleResult, 0, arraySize);
+        return doubleResult;
+    }
+
+    @Benchmark
+    public double[] doubleSqrt_VectorAPI() {
+        DoubleKernels.sqrt(DOUBLE_SPECIES, doubleA, 0, doubleResult, 0, arraySize);
+        return doubleResult;
+    }
+
+    @Benchmark
+    public double[] doubleSqrtAbs_VectorAPI() {
+        DoubleKernels.sqrtAbs(DOUBLE_SPECIES, doubleA, 0, doubleResult, 0, arraySize);
+        return doubleResult;
+    }
+
+    @Benchmark
+    public double doubleDot_VectorAPI() {
+        return DoubleKernels.dot(DOUBLE_SPECIES, doubleA, 0, doubleB, 0, arraySize);
+    }
+
+    @Benchmark
+    public double doubleSum_VectorAPI() {
+        return DoubleKernels.sum(DOUBLE_SPECIES, doubleA, 0, arraySize);
+    }
+
+    @Benchmark
+    public double mixedDot_VectorAPI() {
+        return MixedPrecisionKernels.dot(SPECIES, arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    @Benchmark
+    public double mixedSum_VectorAPI() {
+        return MixedPrecisionKernels.sum(SPECIES, arrayA, 0, arraySize);
+    }
+
+    // ---- TunedKernels ----
+
+    @Benchmark
+    public float[] tunedAdd_VectorAPI() {
+        TunedKernels.add(arrayA, 0, arrayB, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] tunedScale_VectorAPI() {
+        TunedKernels.scale(arrayA, 0, 2.5f, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] tunedFma_VectorAPI() {
+        TunedKernels.fma(arrayA, 0, arrayB, 0, 1.5f, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] tunedSqrtAbs_VectorAPI() {
+        TunedKernels.sqrtAbs(arrayA, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float tunedDot_VectorAPI() {
+        return TunedKernels.dot(arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    // ---- TailKernels ----
+
+    @Benchmark
+    public float[] addMaskedTail_VectorAPI() {
+        TailKernels.addMaskedTail(arrayA, 0, arrayB, 0, result, 0, tailLength);
+        return result;
+    }
+
+    @Benchmark
+    public float[] scaleMaskedTail_VectorAPI() {
+        TailKernels.scaleMaskedTail(arrayA, 0, 2.5f, result, 0, tailLength);
+        return result;
+    }
+
+    @Benchmark
+    public float[] fmaMaskedTail_VectorAPI() {
+        TailKernels.fmaMaskedTail(arrayA, 0, arrayB, 0, 1.5f, result, 0, tailLength);
+        return result;
+    }
+
+    @Benchmark
+    public float[] sqrtAbsMaskedTail_VectorAPI() {
+        TailKernels.sqrtAbsMaskedTail(arrayA, 0, result, 0, tailLength);
+        return result;
+    }
+
+    @Benchmark
+    public float dotMaskedTail_VectorAPI() {
+        return TailKernels.dotMaskedTail(arrayA, 0, arrayB, 0, tailLength);
+    }
+
+    @Benchmark
+    public float[] addMaskedLoop_VectorAPI() {
+        TailKernels.addMaskedLoop(arrayA, 0, arrayB, 0, result, 0, tailLength);
+        return result;
+    }
+
+    @Benchmark
+    public float[] scaleMaskedLoop_VectorAPI() {
+        TailKernels.scaleMaskedLoop(arrayA, 0, 2.5f, result, 0, tailLength);
+        return result;
+    }
+
+    @Benchmark
+    public float[] fmaMaskedLoop_VectorAPI() {
+        TailKernels.fmaMaskedLoop(arrayA, 0, arrayB, 0, 1.5f, result, 0, tailLength);
+        return result;
+    }
+
+    @Benchmark
+    public float[] sqrtAbsMaskedLoop_VectorAPI() {
+        TailKernels.sqrtAbsMaskedLoop(arrayA, 0, result, 0, tailLength);
+        return result;
+    }
+
+    @Benchmark
+    public float dotMaskedLoop_VectorAPI() {
+        return TailKernels.dotMaskedLoop(arrayA, 0, arrayB, 0, tailLength);
+    }
+
+    @Benchmark
+    public float[] addOverlap_VectorAPI() {
+        TailKernels.addOverlap(arrayA, 0, arrayB, 0, result, 0, tailLength);
+        return result;
+    }
+
+    @Benchmark
+    public float[] scaleOverlap_VectorAPI() {
+        TailKernels.scaleOverlap(arrayA, 0, 2.5f, result, 0, tailLength);
+        return result;
+    }
+
+    @Benchmark
+    public float[] fmaOverlap_VectorAPI() {
+        TailKernels.fmaOverlap(arrayA, 0, arrayB, 0, 1.5f, result, 0, tailLength);
+        return result;
+    }
+
+    @Benchmark
+    public float[] sqrtAbsOverlap_VectorAPI() {
+        TailKernels.sqrtAbsOverlap(arrayA, 0, result, 0, tailLength);
+        return result;
+    }
+
+    @Benchmark
+    public float dotOverlap_VectorAPI() {
+        return TailKernels.dotOverlap(arrayA, 0, arrayB, 0, tailLength);
+    }
+
+    // ---- ReductionKernels and ScanKernels ----
+
+    @Benchmark
+    public float min_VectorAPI() {
+        return ReductionKernels.min(SPECIES, arrayA, 0, arraySize);
+    }
+
+    @Benchmark
+    public float max_VectorAPI() {
+        return ReductionKernels.max(SPECIES, arrayA, 0, arraySize);
+    }
+
+    @Benchmark
+    public int argmin_VectorAPI() {
+        return ReductionKernels.argmin(SPECIES, arrayA, 0, arraySize);
+    }
+
+    @Benchmark
+    public int argmax_VectorAPI() {
+        return ReductionKernels.argmax(SPECIES, arrayA, 0, arraySize);
+    }
+
+    @Benchmark
+    public double meanVariance_VectorAPI() {
+        return ReductionKernels.meanVariance(SPECIES, arrayA, 0, arraySize).variance();
+    }
+
+    @Benchmark
+    public float prefixSum_VectorAPI() {
+        return ScanKernels.prefixSum(SPECIES, arrayA, 0, 0.0f, result, 0, arraySize);
+    }
+
+    @Benchmark
+    public float runningMax_VectorAPI() {
+        return ScanKernels.runningMax(SPECIES, arrayA, 0, Float.NEGATIVE_INFINITY, result, 0, arraySize);
+    }
+
+    @Benchmark
+    public float runningMin_VectorAPI() {
+        return ScanKernels.runningMin(SPECIES, arrayA, 0, Float.POSITIVE_INFINITY, result, 0, arraySize);
+    }
+
+    // ---- MathKernels ----
+
+    @Benchmark
+    public float[] exp_VectorAPI() {
+        MathKernels.exp(arrayC, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] log_VectorAPI() {
+        MathKernels.log(arrayA, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] tanh_VectorAPI() {
+        MathKernels.tanh(arrayC, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] sigmoid_VectorAPI() {
+        MathKernels.sigmoid(arrayC, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] expPolyFast_VectorAPI() {
+        MathKernels.expPoly(MathKernels.Mode.FAST, arrayC, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] expPolyStrict_VectorAPI() {
+        MathKernels.expPoly(MathKernels.Mode.STRICT, arrayC, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] logPolyFast_VectorAPI() {
+        MathKernels.logPoly(MathKernels.Mode.FAST, arrayA, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] logPolyStrict_VectorAPI() {
+        MathKernels.logPoly(MathKernels.Mode.STRICT, arrayA, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] tanhPolyFast_VectorAPI() {
+        MathKernels.tanhPoly(MathKernels.Mode.FAST, arrayC, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] tanhPolyStrict_VectorAPI() {
+        MathKernels.tanhPoly(MathKernels.Mode.STRICT, arrayC, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] sigmoidPolyFast_VectorAPI() {
+        MathKernels.sigmoidPoly(MathKernels.Mode.FAST, arrayC, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] sigmoidPolyStrict_VectorAPI() {
+        MathKernels.sigmoidPoly(MathKernels.Mode.STRICT, arrayC, 0, result, 0, arraySize);
+        return result;
+    }
+
+    // ---- GemmKernels ----
+
+    @Benchmark
+    public float[] gemm_VectorAPI() {
+        int size = matrixSize;
+        GemmKernels.multiply(size, size, size, arrayA, size, arrayB, size, result, size);
+        return result;
+    }
+
+    @Benchmark
+    public MemorySegment gemmSegment_VectorAPI() {
+        int size = matrixSize;
+        GemmKernels.multiply(size, size, size, segmentA, size, segmentB, size, segmentC, size);
+        return segmentC;
+    }
+
+    // ---- ConvolutionKernels ----
+
+    @Benchmark
+    public float[] fir_VectorAPI() {
+        ConvolutionKernels.fir(SPECIES, arrayA, 0, taps, result, 0, windowOutputs);
+        return result;
+    }
+
+    @Benchmark
+    public float[] movingAverage_VectorAPI() {
+        ConvolutionKernels.movingAverage(SPECIES, arrayA, 0, TAPS, result, 0, windowOutputs);
+        return result;
+    }
+
+    @Benchmark
+    public float[] stencil3_VectorAPI() {
+        ConvolutionKernels.stencil3(SPECIES, arrayA, 0, 0.25f, 0.5f, 0.25f, result, 0, windowOutputs);
+        return result;
+    }
+
+    @Benchmark
+    public float[] stencil5_VectorAPI() {
+        ConvolutionKernels.stencil5(SPECIES, arrayA, 0, -0.125f, 0.25f, 0.75f, 0.25f, -0.125f, result, 0, windowOutputs);
+        return result;
+    }
+
+    // ---- QuantizedKernels, Int8Vectors and Float16Vectors ----
+
+    @Benchmark
+    public long dotInt8_VectorAPI() {
+        return QuantizedKernels.dotInt8(BYTE_SPECIES, bytesA, 0, bytesB, 0, arraySize);
+    }
+
+    @Benchmark
+    public float dotFloat16_VectorAPI() {
+        return QuantizedKernels.dotFloat16(SHORT_SPECIES, halfA, 0, halfB, 0, arraySize);
+    }
+
+    @Benchmark
+    public float dotFloat16xFloat_VectorAPI() {
+        return QuantizedKernels.dotFloat16(SHORT_SPECIES, halfA, 0, arrayB, 0, arraySize);
+    }
+
+    @Benchmark
+    public float[] decodeFloat16_VectorAPI() {
+        QuantizedKernels.decodeFloat16(SHORT_SPECIES, halfA, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float int8VectorsDot_VectorAPI() {
+        return int8.dot(0, int8, 1);
+    }
+
+    @Benchmark
+    public float[] int8VectorsDecode_VectorAPI() {
+        int8.decode(0, result);
+        return result;
+    }
+
+    @Benchmark
+    public float float16VectorsDot_VectorAPI() {
+        return float16.dot(0, float16, 1);
+    }
+
+    @Benchmark
+    public float float16VectorsDotFloat_VectorAPI() {
+        return float16.dot(0, arrayB);
+    }
+
+    @Benchmark
+    public float[] float16VectorsDecode_VectorAPI() {
+        float16.decode(0, result);
+        return result;
+    }
+
+    // ---- SparseKernels, CsrMatrix and SparseVector ----
+
+    @Benchmark
+    public float dotGather_VectorAPI() {
+        return SparseKernels.dotGather(SPECIES, sparseValues, 0, sparseIndices, 0, sparseIndices.length, arrayB, 0);
+    }
+
+    @Benchmark
+    public float[] csrMultiply_VectorAPI() {
+        csr.multiply(arrayB, csrResult);
+        return csrResult;
+    }
+
+    @Benchmark
+    public float sparseVectorDot_VectorAPI() {
+        return sparseVector.dot(arrayB);
+    }
+
+    // ---- FusedKernel ----
+
+    @Benchmark
+    public float[] fusedEvaluate_VectorAPI() {
+        fused.evaluate(fusedInputs, result, arraySize);
+        return result;
+    }
+
+    // ---- Columnar ----
+
+    @Benchmark
+    public Bitmap filterBitmap_VectorAPI() {
+        filter.bitmap(arraySize, bitmap);
+        return bitmap;
+    }
+
+    @Benchmark
+    public Selection filterSelect_VectorAPI() {
+        filter.select(arraySize, selection);
+        return selection;
+    }
+
+    @Benchmark
+    public int filterCount_VectorAPI() {
+        return filter.count(arraySize);
+    }
+
+    @Benchmark
+    public float bitmapSum_VectorAPI() {
+        return bitmap.sum(arrayC);
+    }
+
+    @Benchmark
+    public float bitmapDot_VectorAPI() {
+        return bitmap.dot(arrayA, arrayB);
+    }
+
+    @Benchmark
+    public float selectionSum_VectorAPI() {
+        return selection.sum(arrayC);
+    }
+
+    @Benchmark
+    public float selectionDot_VectorAPI() {
+        return selection.dot(arrayA, arrayB);
+    }
+
+    @Benchmark
+    public GroupAggregates groupBy_VectorAPI() {
+        return groupBy.aggregate(keys, values, arraySize);
+    }
+
+    // ---- Interfaces ----
+
+    @Benchmark
+    public float[] add_Monomorphic_VectorAPI() {
+        applyMonomorphic(ADD);
+        return result;
+    }
+
+    // ==== PER CALL: tasks or a result, not vectors ====
+
+    @Benchmark
+    public float[] parallelAdd_PerCall() {
+        ParallelKernels.add(pool, parallelA, 0, parallelB, 0, parallelResult, 0, PARALLEL_SIZE);
+        return parallelResult;
+    }
+
+    @Benchmark
+    public float[] parallelFma_PerCall() {
+        ParallelKernels.fma(pool, parallelA, 0, parallelB, 0, 1.5f, parallelResult, 0, PARALLEL_SIZE);
+        return parallelResult;
+    }
+
+    @Benchmark
+    public float[] parallelSqrt_PerCall() {
+        ParallelKernels.sqrt(pool, parallelA, 0, parallelResult, 0, PARALLEL_SIZE);
+        return parallelResult;
+    }
+
+    @Benchmark
+    public float[] parallelSqrtAbs_PerCall() {
+        ParallelKernels.sqrtAbs(pool, parallelA, 0, parallelResult, 0, PARALLEL_SIZE);
+        return parallelResult;
+    }
+
+    @Benchmark
+    public float[] parallelFir_PerCall() {
+        ParallelKernels.fir(pool, parallelA, 0, taps, parallelResult, 0, PARALLEL_SIZE - 4 * TAPS);
+        return parallelResult;
+    }
+
+    @Benchmark
+    public float[] parallelMovingAverage_PerCall() {
+        ParallelKernels.movingAverage(pool, parallelA, 0, TAPS, parallelResult, 0, PARALLEL_SIZE - 4 * TAPS);
+        return parallelResult;
+    }
+
+    @Benchmark
+    public float parallelDot_PerCall() {
+        return ParallelKernels.dot(pool, parallelA, 0, parallelB, 0, PARALLEL_SIZE);
+    }
+
+    @Benchmark
+    public float parallelPrefixSum_PerCall() {
+        return ScanKernels.prefixSum(pool, parallelA, 0, 0.0f, parallelResult, 0, PARALLEL_SIZE);
+    }
+
+    @Benchmark
+    public GroupAggregates parallelGroupBy_PerCall() {
+        return groupBy.aggregate(pool, keys, values, PARALLEL_SIZE);
+    }
+
+    @Benchmark
+    public float[] distanceMatrix_PerCall() {
+        distanceMatrix.compute(queryData, QUERIES, distances);
+        return distances;
+    }
+
+    @Benchmark
+    public float[] parallelDistanceMatrix_PerCall() {
+        distanceMatrix.compute(pool, queryData, QUERIES, distances);
+        return distances;
+    }
+
+    @Benchmark
+    public SearchResult search_PerCall() {
+        return heapEngine.search(queries[0], K);
+    }
+
+    @Benchmark
+    public SearchResult searchOffHeap_PerCall() {
+        return offHeapEngine.search(queries[0], K);
+    }
+
+    @Benchmark
+    public SearchResult[] searchBatch_PerCall() {
+        return heapEngine.searchBatch(queries, K);
+    }
+
+    @Benchmark
+    public SearchResult[] parallelSearchBatch_PerCall() {
+        return heapEngine.searchBatch(pool, queries, K);
+    }
+
+    // ==== DE-OPTIMIZED: expected to allocate ====
+
+    @Benchmark
+    public float[] add_SpeciesField() {
+        FloatKernels.add(speciesField, arrayA, 0, arrayB, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float dot_SpeciesField() {
+        return FloatKernels.dot(speciesField, arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    // Rotates through the three ops so that neither the call site nor the argument has a
+    // single type for C2 to speculate on
+    @Benchmark
+    public float[] op_Megamorphic() {
+        applyMegamorphic(OPS[nextOp]);
+        nextOp = nextOp == OPS.length - 1 ? 0 : nextOp + 1;
+        return result;
+    }
+
+    // Only ever sees ADD, so the call inlines and the vectors stay in registers
+    private void applyMonomorphic(VectorOp op) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(arraySize);
+        for (; i < upperBound; i += SPECIES.length()) {
+            var va = FloatVector.fromArray(SPECIES, arrayA, i);
+            var vb = FloatVector.fromArray(SPECIES, arrayB, i);
+            op.apply(va, vb).intoArray(result, i);
+        }
+    }
+
+    // Sees ADD, MUL and MAX: the call stays virtual and every vector crossing it is boxed
+    private void applyMegamorphic(VectorOp op) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(arraySize);
+        for (; i < upperBound; i += SPECIES.length()) {
+            var va = FloatVector.fromArray(SPECIES, arrayA, i);
+            var vb = FloatVector.fromArray(SPECIES, arrayB, i);
+            op.apply(va, vb).intoArray(result, i);
+        }
+    }
+}
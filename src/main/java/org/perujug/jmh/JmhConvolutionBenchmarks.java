@@ -0,0 +1,159 @@
+package org.perujug.jmh;
+
+import jdk.incubator.vector.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.perujug.kernels.ConvolutionKernels;
+import org.perujug.kernels.ParallelKernels;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sliding-window kernels against their scalar loops: FIR filters and moving averages for
+ * 3 to 256 taps (single-threaded and on the common pool), and the fixed 3- and 5-point
+ * stencils. Only the FIR and moving-average benchmarks take {@link TapState}, so only they
+ * are repeated per tap count.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector"
+})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class JmhConvolutionBenchmarks {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    /** Longest window; the signal has this much slack past the last output. */
+    private static final int MAX_TAPS = 256;
+
+    @Param({"1048576", "16777216"})
+    public int signalSize;
+
+    private float[] signal;
+    private float[] result;
+    private ForkJoinPool pool;
+
+    @State(Scope.Benchmark)
+    public static class TapState {
+
+        @Param({"3", "5", "8", "16", "32", "64", "128", "256"})
+        public int taps;
+
+        float[] coefficients;
+
+        @Setup(Level.Trial)
+        public void setupTaps() {
+            Random random = new Random(7);
+            coefficients = new float[taps];
+            for (int k = 0; k < taps; k++) {
+                coefficients[k] = random.nextFloat() / taps;
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setupSignal() {
+        Random random = new Random(42);
+        signal = new float[signalSize + MAX_TAPS - 1];
+        result = new float[signalSize];
+
+        for (int i = 0; i < signal.length; i++) {
+            signal[i] = (float) Math.sin(i * 0.01) + random.nextFloat() * 0.1f;
+        }
+
+        pool = ForkJoinPool.commonPool();
+    }
+
+    // ==== FIR ====
+
+    @Benchmark
+    public void fir_Array(TapState state, Blackhole bh) {
+        float[] taps = state.coefficients;
+        for (int i = 0; i < signalSize; i++) {
+            float acc = 0.0f;
+            for (int k = 0; k < taps.length; k++) {
+                acc += taps[k] * signal[i + k];
+            }
+            result[i] = acc;
+        }
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void fir_VectorAPI(TapState state, Blackhole bh) {
+        ConvolutionKernels.fir(SPECIES, signal, 0, state.coefficients, result, 0, signalSize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void fir_Parallel(TapState state, Blackhole bh) {
+        ParallelKernels.fir(pool, signal, 0, state.coefficients, result, 0, signalSize);
+        bh.consume(result);
+    }
+
+    // ==== MOVING AVERAGE ====
+
+    @Benchmark
+    public void movingAverage_Array(TapState state, Blackhole bh) {
+        int window = state.taps;
+        float inverse = 1.0f / window;
+        float sum = 0.0f;
+        for (int k = 0; k < window; k++) {
+            sum += signal[k];
+        }
+        result[0] = sum * inverse;
+        for (int i = 1; i < signalSize; i++) {
+            sum += signal[i + window - 1] - signal[i - 1];
+            result[i] = sum * inverse;
+        }
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void movingAverage_VectorAPI(TapState state, Blackhole bh) {
+        ConvolutionKernels.movingAverage(SPECIES, signal, 0, state.taps, result, 0, signalSize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void movingAverage_Parallel(TapState state, Blackhole bh) {
+        ParallelKernels.movingAverage(pool, signal, 0, state.taps, result, 0, signalSize);
+        bh.consume(result);
+    }
+
+    // ==== STENCILS ====
+
+    @Benchmark
+    public void stencil3_Array(Blackhole bh) {
+        for (int i = 0; i < signalSize; i++) {
+            result[i] = 0.25f * signal[i] + 0.5f * signal[i + 1] + 0.25f * signal[i + 2];
+        }
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void stencil3_VectorAPI(Blackhole bh) {
+        ConvolutionKernels.stencil3(SPECIES, signal, 0, 0.25f, 0.5f, 0.25f, result, 0, signalSize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void stencil5_Array(Blackhole bh) {
+        for (int i = 0; i < signalSize; i++) {
+            result[i] = -0.0833f * signal[i] + 1.3333f * signal[i + 1] - 2.5f * signal[i + 2]
+                    + 1.3333f * signal[i + 3] - 0.0833f * signal[i + 4];
+        }
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void stencil5_VectorAPI(Blackhole bh) {
+        ConvolutionKernels.stencil5(SPECIES, signal, 0, -0.0833f, 1.3333f, -2.5f, 1.3333f, -0.0833f, result, 0, signalSize);
+        bh.consume(result);
+    }
+}
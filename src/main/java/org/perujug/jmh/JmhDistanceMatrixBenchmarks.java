@@ -0,0 +1,100 @@
+package org.perujug.jmh;
+
+import jdk.incubator.vector.*;
+import org.openjdk.jmh.annotations.*;
+import org.perujug.kernels.FloatKernels;
+import org.perujug.search.DistanceMatrix;
+import org.perujug.search.Metric;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Q x N score matrix over a 16384 x 256 table (16 MiB, past L2 and most L3 slices): the
+ * single-pair kernel called Q * N times, against the cache-blocked, register-tiled
+ * {@link DistanceMatrix} single-threaded and on the common pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector"
+})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class JmhDistanceMatrixBenchmarks {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private static final int ROWS = 16 * 1024;
+    private static final int DIMENSION = 256;
+
+    @Param({"1", "4", "16", "64", "256", "1024"})
+    public int queries;
+
+    @Param({"INNER_PRODUCT", "COSINE", "L2"})
+    public Metric metric;
+
+    private float[] data;
+    private float[] queryData;
+    private float[] inverseNorms;
+    private float[] out;
+    private DistanceMatrix matrix;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setupData() {
+        Random random = new Random(42);
+        data = new float[ROWS * DIMENSION];
+        queryData = new float[queries * DIMENSION];
+        out = new float[queries * ROWS];
+
+        for (int i = 0; i < data.length; i++) {
+            data[i] = random.nextFloat() * 2 - 1;
+        }
+        for (int i = 0; i < queryData.length; i++) {
+            queryData[i] = random.nextFloat() * 2 - 1;
+        }
+
+        inverseNorms = new float[ROWS];
+        for (int r = 0; r < ROWS; r++) {
+            inverseNorms[r] = 1.0f / (float) Math.sqrt(FloatKernels.dot(SPECIES, data, r * DIMENSION, data, r * DIMENSION, DIMENSION));
+        }
+
+        matrix = DistanceMatrix.of(metric, data, ROWS, DIMENSION);
+        pool = ForkJoinPool.commonPool();
+    }
+
+    @Benchmark
+    public float[] distances_Pairwise() {
+        for (int q = 0; q < queries; q++) {
+            int qOffset = q * DIMENSION;
+            float inverseQueryNorm = metric == Metric.COSINE
+                    ? 1.0f / (float) Math.sqrt(FloatKernels.dot(SPECIES, queryData, qOffset, queryData, qOffset, DIMENSION))
+                    : 1.0f;
+            for (int r = 0; r < ROWS; r++) {
+                int rOffset = r * DIMENSION;
+                out[q * ROWS + r] = switch (metric) {
+                    case INNER_PRODUCT -> FloatKernels.dot(SPECIES, queryData, qOffset, data, rOffset, DIMENSION);
+                    case COSINE -> FloatKernels.dot(SPECIES, queryData, qOffset, data, rOffset, DIMENSION)
+                            * inverseQueryNorm * inverseNorms[r];
+                    case L2 -> FloatKernels.squaredDistance(SPECIES, queryData, qOffset, data, rOffset, DIMENSION);
+                };
+            }
+        }
+        return out;
+    }
+
+    @Benchmark
+    public float[] distances_Tiled() {
+        matrix.compute(queryData, queries, out);
+        return out;
+    }
+
+    @Benchmark
+    public float[] distances_TiledParallel() {
+        matrix.compute(pool, queryData, queries, out);
+        return out;
+    }
+}
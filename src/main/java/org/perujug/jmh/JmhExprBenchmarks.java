@@ -0,0 +1,115 @@
+package org.perujug.jmh;
+
+import jdk.incubator.vector.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.perujug.expr.Expr;
+import org.perujug.expr.FusedKernel;
+import org.perujug.kernels.FloatKernels;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.perujug.expr.Expr.input;
+
+/**
+ * Element-wise pipelines evaluated op by op over full arrays ({@code Unfused}, one pass per
+ * op through {@code result}) versus one strip-mined pass of a compiled {@link Expr}
+ * ({@code Fused}). The add/scale/sqrt pipeline also has a hand-written single vector loop
+ * ({@code HandFused}) as the upper bound.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector"
+})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class JmhExprBenchmarks {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Param({"64", "300", "512", "768", "1021", "4096", "32768", "262144", "2097152", "16777216"})
+    public int arraySize;
+
+    private float[] arrayA;
+    private float[] arrayB;
+    private float[] arrayC;
+    private float[] result;
+    private float[][] inputs;
+
+    // sqrt((a + b) * 2.5)
+    private FusedKernel addScaleSqrt;
+    // sqrt(|a * b + c|) + a
+    private FusedKernel fmaAbsSqrtAdd;
+
+    @Setup(Level.Trial)
+    public void setupArrays() {
+        Random random = new Random(42);
+        arrayA = new float[arraySize];
+        arrayB = new float[arraySize];
+        arrayC = new float[arraySize];
+        result = new float[arraySize];
+
+        for (int i = 0; i < arraySize; i++) {
+            arrayA[i] = random.nextFloat() * 100;
+            arrayB[i] = random.nextFloat() * 100;
+            arrayC[i] = random.nextFloat() * 200 - 100;
+        }
+        inputs = new float[][] {arrayA, arrayB, arrayC};
+
+        addScaleSqrt = input(0).add(input(1)).mul(2.5f).sqrt().compile();
+        fmaAbsSqrtAdd = input(0).fma(input(1), input(2)).abs().sqrt().add(input(0)).compile();
+    }
+
+    // ==== ADD, SCALE, SQRT ====
+
+    @Benchmark
+    public void addScaleSqrt_Unfused(Blackhole bh) {
+        FloatKernels.add(SPECIES, arrayA, 0, arrayB, 0, result, 0, arraySize);
+        FloatKernels.scale(SPECIES, result, 0, 2.5f, result, 0, arraySize);
+        FloatKernels.sqrt(SPECIES, result, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void addScaleSqrt_Fused(Blackhole bh) {
+        addScaleSqrt.evaluate(inputs, result, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void addScaleSqrt_HandFused(Blackhole bh) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(arraySize);
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            var va = FloatVector.fromArray(SPECIES, arrayA, i);
+            var vb = FloatVector.fromArray(SPECIES, arrayB, i);
+            va.add(vb).mul(2.5f).sqrt().intoArray(result, i);
+        }
+
+        for (; i < arraySize; i++) {
+            result[i] = (float) Math.sqrt((arrayA[i] + arrayB[i]) * 2.5f);
+        }
+        bh.consume(result);
+    }
+
+    // ==== FMA, ABS, SQRT, ADD ====
+
+    @Benchmark
+    public void fmaAbsSqrtAdd_Unfused(Blackhole bh) {
+        FloatKernels.fma(SPECIES, arrayA, 0, arrayB, 0, arrayC, 0, result, 0, arraySize);
+        FloatKernels.abs(SPECIES, result, 0, result, 0, arraySize);
+        FloatKernels.sqrt(SPECIES, result, 0, result, 0, arraySize);
+        FloatKernels.add(SPECIES, result, 0, arrayA, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void fmaAbsSqrtAdd_Fused(Blackhole bh) {
+        fmaAbsSqrtAdd.evaluate(inputs, result, arraySize);
+        bh.consume(result);
+    }
+}
@@ -0,0 +1,149 @@
+package org.perujug.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.perujug.columnar.Bitmap;
+import org.perujug.columnar.ColumnFilter;
+import org.perujug.columnar.Compare;
+import org.perujug.columnar.Selection;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code WHERE a > x AND b < y} over two float columns: a branchy scalar filter versus the
+ * vectorized {@link ColumnFilter} producing a {@link Bitmap} or a compressed
+ * {@link Selection}, alone and followed by a sum or dot over the passing rows. The two
+ * thresholds are set so that each term passes {@code sqrt(selectivity)} of the uniformly
+ * distributed rows, and the branch outcome is unpredictable near 50%.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector"
+})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class JmhFilterBenchmarks {
+
+    @Param({"1048576"})
+    public int arraySize;
+
+    @Param({"1", "10", "50", "90", "99"})
+    public int selectivityPercent;
+
+    private float[] arrayA;
+    private float[] arrayB;
+    private float lowerA;
+    private float upperB;
+    private ColumnFilter filter;
+    private Bitmap bitmap;
+    private Selection selection;
+    private int[] scalarSelection;
+
+    @Setup(Level.Trial)
+    public void setupColumns() {
+        Random random = new Random(42);
+        arrayA = new float[arraySize];
+        arrayB = new float[arraySize];
+
+        for (int i = 0; i < arraySize; i++) {
+            arrayA[i] = random.nextFloat() * 100;
+            arrayB[i] = random.nextFloat() * 100;
+        }
+
+        double perTerm = Math.sqrt(selectivityPercent / 100.0);
+        lowerA = (float) (100 * (1 - perTerm));
+        upperB = (float) (100 * perTerm);
+
+        filter = ColumnFilter.where(arrayA, Compare.GT, lowerA).and(arrayB, Compare.LT, upperB);
+        bitmap = Bitmap.withCapacity(arraySize);
+        selection = Selection.withCapacity(arraySize);
+        scalarSelection = new int[arraySize];
+    }
+
+    // ==== FILTER ONLY ====
+
+    @Benchmark
+    public int select_ScalarBranchy() {
+        int count = 0;
+        for (int i = 0; i < arraySize; i++) {
+            if (arrayA[i] > lowerA && arrayB[i] < upperB) {
+                scalarSelection[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int select_ScalarBranchless() {
+        int count = 0;
+        for (int i = 0; i < arraySize; i++) {
+            scalarSelection[count] = i;
+            count += (arrayA[i] > lowerA) & (arrayB[i] < upperB) ? 1 : 0;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int select_VectorCompress() {
+        filter.select(arraySize, selection);
+        return selection.size();
+    }
+
+    @Benchmark
+    public Bitmap bitmap_Vector() {
+        filter.bitmap(arraySize, bitmap);
+        return bitmap;
+    }
+
+    // ==== FILTER + SUM ====
+
+    @Benchmark
+    public float filterSum_ScalarBranchy() {
+        float sum = 0.0f;
+        for (int i = 0; i < arraySize; i++) {
+            if (arrayA[i] > lowerA && arrayB[i] < upperB) {
+                sum += arrayA[i];
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float filterSum_Selection() {
+        filter.select(arraySize, selection);
+        return selection.sum(arrayA);
+    }
+
+    @Benchmark
+    public float filterSum_Bitmap() {
+        filter.bitmap(arraySize, bitmap);
+        return bitmap.sum(arrayA);
+    }
+
+    // ==== FILTER + DOT ====
+
+    @Benchmark
+    public float filterDot_ScalarBranchy() {
+        float sum = 0.0f;
+        for (int i = 0; i < arraySize; i++) {
+            if (arrayA[i] > lowerA && arrayB[i] < upperB) {
+                sum += arrayA[i] * arrayB[i];
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float filterDot_Selection() {
+        filter.select(arraySize, selection);
+        return selection.dot(arrayA, arrayB);
+    }
+
+    @Benchmark
+    public float filterDot_Bitmap() {
+        filter.bitmap(arraySize, bitmap);
+        return bitmap.dot(arrayA, arrayB);
+    }
+}
@@ -0,0 +1,144 @@
+package org.perujug.jmh;
+
+import jdk.incubator.vector.*;
+import org.openjdk.jmh.annotations.*;
+import org.perujug.kernels.FloatKernels;
+import org.perujug.kernels.FloatSegmentKernels;
+import org.perujug.kernels.GemmKernels;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SGEMM throughput for square and skinny shapes. The {@code gflops} secondary result is
+ * the floating-point rate ({@code 2*m*n*k} per call) in GFLOP/s.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector",
+    "-Xms4g", "-Xmx4g"
+})
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class JmhGemmBenchmarks {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    /** {@code m x n x k}: square, tall-skinny output, small inner dimension and a single row. */
+    @Param({"256x256x256", "1024x1024x1024", "4096x64x4096", "4096x4096x64", "1x4096x4096"})
+    public String shape;
+
+    private int m;
+    private int n;
+    private int k;
+    private float[] a;
+    private float[] b;
+    private float[] bTransposed;
+    private float[] c;
+
+    private Arena arena;
+    private MemorySegment segmentA;
+    private MemorySegment segmentB;
+    private MemorySegment segmentC;
+
+    private ForkJoinPool pool;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Flops {
+        public double gflops;
+    }
+
+    @Setup(Level.Trial)
+    public void setupMatrices() {
+        String[] dims = shape.split("x");
+        m = Integer.parseInt(dims[0]);
+        n = Integer.parseInt(dims[1]);
+        k = Integer.parseInt(dims[2]);
+
+        Random random = new Random(42);
+        a = new float[m * k];
+        b = new float[k * n];
+        bTransposed = new float[n * k];
+        c = new float[m * n];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextFloat() - 0.5f;
+        }
+        for (int p = 0; p < k; p++) {
+            for (int j = 0; j < n; j++) {
+                b[p * n + j] = random.nextFloat() - 0.5f;
+                bTransposed[j * k + p] = b[p * n + j];
+            }
+        }
+
+        arena = Arena.ofShared();
+        segmentA = FloatSegmentKernels.allocate(arena, a.length).copyFrom(MemorySegment.ofArray(a));
+        segmentB = FloatSegmentKernels.allocate(arena, b.length).copyFrom(MemorySegment.ofArray(b));
+        segmentC = FloatSegmentKernels.allocate(arena, c.length);
+
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void release() {
+        arena.close();
+        pool.shutdown();
+    }
+
+    private void count(Flops flops) {
+        flops.gflops += 2.0 * m * n * k / 1e9;
+    }
+
+    @Benchmark
+    public float[] gemm_Naive(Flops flops) {
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                float sum = 0.0f;
+                for (int p = 0; p < k; p++) {
+                    sum += a[i * k + p] * b[p * n + j];
+                }
+                c[i * n + j] = sum;
+            }
+        }
+        count(flops);
+        return c;
+    }
+
+    @Benchmark
+    public float[] gemm_DotProduct(Flops flops) {
+        // Each C element is one FloatKernels.dot over a row of A and a row of B^T
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                c[i * n + j] = FloatKernels.dot(SPECIES, a, i * k, bTransposed, j * k, k);
+            }
+        }
+        count(flops);
+        return c;
+    }
+
+    @Benchmark
+    public float[] gemm_Blocked(Flops flops) {
+        GemmKernels.multiply(m, n, k, a, k, b, n, c, n);
+        count(flops);
+        return c;
+    }
+
+    @Benchmark
+    public float[] gemm_BlockedParallel(Flops flops) {
+        GemmKernels.multiply(pool, m, n, k, a, k, b, n, c, n);
+        count(flops);
+        return c;
+    }
+
+    @Benchmark
+    public MemorySegment gemm_BlockedSegment(Flops flops) {
+        GemmKernels.multiply(m, n, k, segmentA, k, segmentB, n, segmentC, n);
+        count(flops);
+        return segmentC;
+    }
+}
@@ -0,0 +1,79 @@
+package org.perujug.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.perujug.columnar.GroupAggregates;
+import org.perujug.columnar.GroupBy;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GROUP BY key} over uniformly distributed keys: a boxed {@code HashMap<Integer, Float>}
+ * sum against the {@link GroupBy} primitive accumulators, scalar, single-threaded (masked
+ * vector path up to {@link GroupBy#VECTOR_MAX_GROUPS} groups) and on the common pool
+ * (partitioned above it). The HashMap only computes SUM; every other variant computes
+ * SUM, MIN, MAX and COUNT.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector"
+})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class JmhGroupByBenchmarks {
+
+    @Param({"1048576", "16777216"})
+    public int arraySize;
+
+    @Param({"4", "16", "256", "65536", "1048576"})
+    public int groups;
+
+    private int[] keys;
+    private float[] values;
+    private GroupBy groupBy;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setupColumns() {
+        Random random = new Random(42);
+        keys = new int[arraySize];
+        values = new float[arraySize];
+
+        for (int i = 0; i < arraySize; i++) {
+            keys[i] = random.nextInt(groups);
+            values[i] = random.nextFloat() * 100;
+        }
+
+        groupBy = GroupBy.withGroups(groups);
+        pool = ForkJoinPool.commonPool();
+    }
+
+    @Benchmark
+    public Map<Integer, Float> groupBy_HashMap() {
+        Map<Integer, Float> sums = new HashMap<>();
+        for (int i = 0; i < arraySize; i++) {
+            sums.merge(keys[i], values[i], Float::sum);
+        }
+        return sums;
+    }
+
+    @Benchmark
+    public GroupAggregates groupBy_Scalar() {
+        return groupBy.aggregateScalar(keys, values, arraySize);
+    }
+
+    @Benchmark
+    public GroupAggregates groupBy_VectorAPI() {
+        return groupBy.aggregate(keys, values, arraySize);
+    }
+
+    @Benchmark
+    public GroupAggregates groupBy_Parallel() {
+        return groupBy.aggregate(pool, keys, values, arraySize);
+    }
+}
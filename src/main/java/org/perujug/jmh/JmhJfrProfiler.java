@@ -0,0 +1,98 @@
+package org.perujug.jmh;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.ExternalProfiler;
+import org.openjdk.jmh.profile.ProfilerException;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.TextResult;
+import org.perujug.profiling.FlightRecording;
+import org.perujug.profiling.JfrSummary;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Records every benchmark fork with JFR from JVM start, so that warmup compilations are
+ * included, and prints a {@link JfrSummary} of the {@code org.perujug} methods under the
+ * fork's results. JMH's own {@code -prof jfr} starts only at the first measurement iteration.
+ *
+ * <p>Usage: {@code -prof org.perujug.jmh.JmhJfrProfiler:dir=target/jfr}. Recordings are saved
+ * as {@code <benchmark>-<params>-<pid>.jfr} in that directory.
+ */
+public class JmhJfrProfiler implements ExternalProfiler {
+
+    private final Path directory;
+
+    public JmhJfrProfiler(String initLine) throws ProfilerException {
+        String dir = "target/jfr";
+        for (String option : initLine.split(";")) {
+            if (option.startsWith("dir=")) {
+                dir = option.substring("dir=".length());
+            } else if (!option.isBlank()) {
+                throw new ProfilerException("Unknown option: " + option + " (expected dir=<path>)");
+            }
+        }
+        this.directory = Path.of(dir).toAbsolutePath();
+    }
+
+    @Override
+    public List<String> addJVMInvokeOptions(BenchmarkParams params) {
+        return List.of();
+    }
+
+    @Override
+    public List<String> addJVMOptions(BenchmarkParams params) {
+        // JFR replaces %p with the fork's pid, which afterTrial receives
+        return List.of("-XX:StartFlightRecording=filename=" + directory.resolve(fileName(params, "%p"))
+                + "," + FlightRecording.FORK_OPTIONS);
+    }
+
+    @Override
+    public void beforeTrial(BenchmarkParams params) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create " + directory, e);
+        }
+    }
+
+    @Override
+    public List<? extends Result> afterTrial(BenchmarkResult result, long pid, File stdOut, File stdErr) {
+        Path file = directory.resolve(fileName(result.getParams(), Long.toString(pid)));
+        String output;
+        try {
+            output = String.join(System.lineSeparator(), JfrSummary.read(file, JfrSummary.DEFAULT_PREFIX).lines());
+        } catch (IOException e) {
+            output = "Cannot read " + file + ": " + e.getMessage();
+        }
+        return List.of(new TextResult(output, "jfr"));
+    }
+
+    @Override
+    public boolean allowPrintOut() {
+        return true;
+    }
+
+    @Override
+    public boolean allowPrintErr() {
+        return true;
+    }
+
+    @Override
+    public String getDescription() {
+        return "JFR recording of each fork from JVM start, summarized for org.perujug methods";
+    }
+
+    private static String fileName(BenchmarkParams params, String pid) {
+        var name = new StringBuilder(params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.') + 1));
+        for (String key : params.getParamsKeys()) {
+            name.append('-').append(key).append('=').append(params.getParam(key));
+        }
+        name.append('-').append(params.getMode().shortLabel());
+        return FlightRecording.fileName(name.toString()).replace(".jfr", "-" + pid + ".jfr");
+    }
+}
@@ -0,0 +1,138 @@
+package org.perujug.jmh;
+
+import jdk.incubator.vector.*;
+import org.openjdk.jmh.annotations.*;
+import org.perujug.kernels.FloatKernels;
+import org.perujug.kernels.ScanKernels;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of the {@code BenchmarkRunner} kernels, scalar and Vector API, in
+ * SampleTime mode: JMH times individual calls and reports percentiles (read p0.99 for p99,
+ * p0.999 for p99.9, p1.00 for max). Averages hide JIT, GC and page-fault outliers; the tail
+ * percentiles do not.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector"
+})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class JmhLatencyBenchmarks {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final float SCALAR = 2.5f;
+
+    @Param({"4096", "1048576", "16777216"})
+    public int arraySize;
+
+    private float[] arrayA;
+    private float[] arrayB;
+    private float[] result;
+
+    @Setup(Level.Trial)
+    public void setupArrays() {
+        Random random = new Random(42);
+        arrayA = new float[arraySize];
+        arrayB = new float[arraySize];
+        result = new float[arraySize];
+
+        for (int i = 0; i < arraySize; i++) {
+            arrayA[i] = random.nextFloat() * 100;
+            arrayB[i] = random.nextFloat() * 100;
+        }
+    }
+
+    // ==== ELEMENT-WISE ====
+
+    @Benchmark
+    public float[] vectorAddition_Array() {
+        for (int i = 0; i < arraySize; i++) {
+            result[i] = arrayA[i] + arrayB[i];
+        }
+        return result;
+    }
+
+    @Benchmark
+    public float[] vectorAddition_VectorAPI() {
+        FloatKernels.add(SPECIES, arrayA, 0, arrayB, 0, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] scalarMultiplication_Array() {
+        for (int i = 0; i < arraySize; i++) {
+            result[i] = arrayA[i] * SCALAR;
+        }
+        return result;
+    }
+
+    @Benchmark
+    public float[] scalarMultiplication_VectorAPI() {
+        FloatKernels.scale(SPECIES, arrayA, 0, SCALAR, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] fusedMultiplyAdd_Array() {
+        for (int i = 0; i < arraySize; i++) {
+            result[i] = arrayA[i] * arrayB[i] + SCALAR;
+        }
+        return result;
+    }
+
+    @Benchmark
+    public float[] fusedMultiplyAdd_VectorAPI() {
+        FloatKernels.fma(SPECIES, arrayA, 0, arrayB, 0, SCALAR, result, 0, arraySize);
+        return result;
+    }
+
+    @Benchmark
+    public float[] squareRoot_Array() {
+        for (int i = 0; i < arraySize; i++) {
+            result[i] = (float) Math.sqrt(Math.abs(arrayA[i]));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public float[] squareRoot_VectorAPI() {
+        FloatKernels.sqrtAbs(SPECIES, arrayA, 0, result, 0, arraySize);
+        return result;
+    }
+
+    // ==== REDUCTIONS AND SCANS ====
+
+    @Benchmark
+    public float dotProduct_Array() {
+        float sum = 0.0f;
+        for (int i = 0; i < arraySize; i++) {
+            sum += arrayA[i] * arrayB[i];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float dotProduct_VectorAPI() {
+        return FloatKernels.dot(SPECIES, arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    @Benchmark
+    public float prefixSum_Array() {
+        float sum = 0.0f;
+        for (int i = 0; i < arraySize; i++) {
+            sum += arrayA[i];
+            result[i] = sum;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float prefixSum_VectorAPI() {
+        return ScanKernels.prefixSum(SPECIES, arrayA, 0, 0.0f, result, 0, arraySize);
+    }
+}
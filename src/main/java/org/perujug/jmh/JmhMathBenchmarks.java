@@ -0,0 +1,156 @@
+package org.perujug.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.perujug.kernels.MathKernels;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * exp, log, tanh and sigmoid: scalar {@code Math.*} loops versus {@link MathKernels} through
+ * {@code lanewise} and through the fast and strict polynomials. Run {@code make math-accuracy}
+ * for the max ULP error of each variant.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector"
+})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class JmhMathBenchmarks {
+
+    @Param({"1024", "65536", "1048576"})
+    public int arraySize;
+
+    private float[] signedInput;
+    private float[] positiveInput;
+    private float[] result;
+
+    @Setup(Level.Trial)
+    public void setupArrays() {
+        Random random = new Random(42);
+        signedInput = new float[arraySize];
+        positiveInput = new float[arraySize];
+        result = new float[arraySize];
+
+        for (int i = 0; i < arraySize; i++) {
+            signedInput[i] = random.nextFloat() * 20 - 10;
+            positiveInput[i] = random.nextFloat() * 100 + Float.MIN_NORMAL;
+        }
+    }
+
+    // ==== EXP ====
+
+    @Benchmark
+    public void exp_Math(Blackhole bh) {
+        for (int i = 0; i < arraySize; i++) {
+            result[i] = (float) Math.exp(signedInput[i]);
+        }
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void exp_Lanewise(Blackhole bh) {
+        MathKernels.exp(signedInput, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void exp_PolyFast(Blackhole bh) {
+        MathKernels.expPoly(MathKernels.Mode.FAST, signedInput, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void exp_PolyStrict(Blackhole bh) {
+        MathKernels.expPoly(MathKernels.Mode.STRICT, signedInput, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    // ==== LOG ====
+
+    @Benchmark
+    public void log_Math(Blackhole bh) {
+        for (int i = 0; i < arraySize; i++) {
+            result[i] = (float) Math.log(positiveInput[i]);
+        }
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void log_Lanewise(Blackhole bh) {
+        MathKernels.log(positiveInput, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void log_PolyFast(Blackhole bh) {
+        MathKernels.logPoly(MathKernels.Mode.FAST, positiveInput, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void log_PolyStrict(Blackhole bh) {
+        MathKernels.logPoly(MathKernels.Mode.STRICT, positiveInput, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    // ==== TANH ====
+
+    @Benchmark
+    public void tanh_Math(Blackhole bh) {
+        for (int i = 0; i < arraySize; i++) {
+            result[i] = (float) Math.tanh(signedInput[i]);
+        }
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void tanh_Lanewise(Blackhole bh) {
+        MathKernels.tanh(signedInput, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void tanh_PolyFast(Blackhole bh) {
+        MathKernels.tanhPoly(MathKernels.Mode.FAST, signedInput, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void tanh_PolyStrict(Blackhole bh) {
+        MathKernels.tanhPoly(MathKernels.Mode.STRICT, signedInput, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    // ==== SIGMOID ====
+
+    @Benchmark
+    public void sigmoid_Math(Blackhole bh) {
+        for (int i = 0; i < arraySize; i++) {
+            result[i] = (float) (1.0 / (1.0 + Math.exp(-signedInput[i])));
+        }
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void sigmoid_Lanewise(Blackhole bh) {
+        MathKernels.sigmoid(signedInput, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void sigmoid_PolyFast(Blackhole bh) {
+        MathKernels.sigmoidPoly(MathKernels.Mode.FAST, signedInput, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void sigmoid_PolyStrict(Blackhole bh) {
+        MathKernels.sigmoidPoly(MathKernels.Mode.STRICT, signedInput, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+}
@@ -0,0 +1,145 @@
+package org.perujug.jmh;
+
+import jdk.incubator.vector.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.perujug.kernels.FloatKernels;
+import org.perujug.kernels.FloatSegmentKernels;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap {@code float[]} versus off-heap {@link MemorySegment} storage for the same kernels.
+ *
+ * <p>{@code OFF_HEAP_MISALIGNED} shifts every segment by one float so vector loads
+ * straddle cache lines, which isolates the alignment cost from the bounds-check cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector",
+    "-Xms14g", "-Xmx14g"
+})
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class JmhMemorySegmentBenchmarks {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    public enum Storage { HEAP, OFF_HEAP, OFF_HEAP_MISALIGNED }
+
+    @Param({"16777216", "134217728", "1073741824"})
+    public int arraySize;
+
+    @Param({"HEAP", "OFF_HEAP", "OFF_HEAP_MISALIGNED"})
+    public Storage storage;
+
+    private float[] arrayA;
+    private float[] arrayB;
+    private float[] result;
+
+    private Arena arena;
+    private MemorySegment segmentA;
+    private MemorySegment segmentB;
+    private MemorySegment segmentResult;
+
+    @Setup(Level.Trial)
+    public void setupStorage() {
+        Random random = new Random(42);
+
+        if (storage == Storage.HEAP) {
+            arrayA = new float[arraySize];
+            arrayB = new float[arraySize];
+            result = new float[arraySize];
+            for (int i = 0; i < arraySize; i++) {
+                arrayA[i] = random.nextFloat() * 100;
+                arrayB[i] = random.nextFloat() * 100;
+            }
+            return;
+        }
+
+        arena = Arena.ofShared();
+        segmentA = allocate();
+        segmentB = allocate();
+        segmentResult = allocate();
+        for (long i = 0; i < arraySize; i++) {
+            segmentA.setAtIndex(ValueLayout.JAVA_FLOAT, i, random.nextFloat() * 100);
+            segmentB.setAtIndex(ValueLayout.JAVA_FLOAT, i, random.nextFloat() * 100);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void releaseStorage() {
+        if (arena != null) {
+            arena.close();
+            arena = null;
+        }
+        arrayA = arrayB = result = null;
+    }
+
+    private MemorySegment allocate() {
+        if (storage == Storage.OFF_HEAP_MISALIGNED) {
+            return FloatSegmentKernels.allocate(arena, arraySize + 1L).asSlice(Float.BYTES);
+        }
+        return FloatSegmentKernels.allocate(arena, arraySize);
+    }
+
+    @Benchmark
+    public void vectorAddition(Blackhole bh) {
+        if (storage == Storage.HEAP) {
+            FloatKernels.add(SPECIES, arrayA, 0, arrayB, 0, result, 0, arraySize);
+            bh.consume(result);
+        } else {
+            FloatSegmentKernels.add(SPECIES, segmentA, 0, segmentB, 0, segmentResult, 0, arraySize);
+            bh.consume(segmentResult);
+        }
+    }
+
+    @Benchmark
+    public void scalarMultiplication(Blackhole bh) {
+        float scalar = 2.5f;
+        if (storage == Storage.HEAP) {
+            FloatKernels.scale(SPECIES, arrayA, 0, scalar, result, 0, arraySize);
+            bh.consume(result);
+        } else {
+            FloatSegmentKernels.scale(SPECIES, segmentA, 0, scalar, segmentResult, 0, arraySize);
+            bh.consume(segmentResult);
+        }
+    }
+
+    @Benchmark
+    public float dotProduct() {
+        if (storage == Storage.HEAP) {
+            return FloatKernels.dot(SPECIES, arrayA, 0, arrayB, 0, arraySize);
+        }
+        return FloatSegmentKernels.dot(SPECIES, segmentA, 0, segmentB, 0, arraySize);
+    }
+
+    @Benchmark
+    public void fusedMultiplyAdd(Blackhole bh) {
+        float scalar = 1.5f;
+        if (storage == Storage.HEAP) {
+            FloatKernels.fma(SPECIES, arrayA, 0, arrayB, 0, scalar, result, 0, arraySize);
+            bh.consume(result);
+        } else {
+            FloatSegmentKernels.fma(SPECIES, segmentA, 0, segmentB, 0, scalar, segmentResult, 0, arraySize);
+            bh.consume(segmentResult);
+        }
+    }
+
+    @Benchmark
+    public void mathFunctions(Blackhole bh) {
+        if (storage == Storage.HEAP) {
+            FloatKernels.sqrtAbs(SPECIES, arrayA, 0, result, 0, arraySize);
+            bh.consume(result);
+        } else {
+            FloatSegmentKernels.sqrtAbs(SPECIES, segmentA, 0, segmentResult, 0, arraySize);
+            bh.consume(segmentResult);
+        }
+    }
+}
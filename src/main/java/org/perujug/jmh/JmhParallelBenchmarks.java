@@ -0,0 +1,80 @@
+package org.perujug.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.perujug.kernels.ParallelKernels;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-scaling sweep for {@link ParallelKernels}. Compare the {@code threads} rows at
+ * each size to find where adding cores stops helping because memory bandwidth is saturated.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector",
+    "-Xms4g", "-Xmx4g"
+})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JmhParallelBenchmarks {
+
+    @Param({"262144", "2097152", "16777216", "134217728"})
+    public int arraySize;
+
+    @Param({"1", "2", "4", "8", "16", "32", "64"})
+    public int threads;
+
+    private float[] arrayA;
+    private float[] arrayB;
+    private float[] result;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setupArrays() {
+        Random random = new Random(42);
+        arrayA = new float[arraySize];
+        arrayB = new float[arraySize];
+        result = new float[arraySize];
+
+        for (int i = 0; i < arraySize; i++) {
+            arrayA[i] = random.nextFloat() * 100;
+            arrayB[i] = random.nextFloat() * 100;
+        }
+
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public void vectorAddition_Parallel(Blackhole bh) {
+        ParallelKernels.add(pool, arrayA, 0, arrayB, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public float dotProduct_Parallel() {
+        return ParallelKernels.dot(pool, arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    @Benchmark
+    public void fusedMultiplyAdd_Parallel(Blackhole bh) {
+        float scalar = 1.5f;
+        ParallelKernels.fma(pool, arrayA, 0, arrayB, 0, scalar, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void mathFunctions_Parallel(Blackhole bh) {
+        ParallelKernels.sqrtAbs(pool, arrayA, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+}
@@ -0,0 +1,100 @@
+package org.perujug.jmh;
+
+import jdk.incubator.vector.*;
+import org.openjdk.jmh.annotations.*;
+import org.perujug.kernels.FloatKernels;
+import org.perujug.quantization.Float16Vectors;
+import org.perujug.quantization.Int8Vectors;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Float versus int8 and float16 storage for the dot product. Each trial prints the
+ * relative error of every variant against a double-precision reference, next to the
+ * bytes each representation occupies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector"
+})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class JmhQuantizedBenchmarks {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Param({"768", "4096", "32768", "262144", "2097152", "16777216"})
+    public int arraySize;
+
+    private float[] arrayA;
+    private float[] arrayB;
+    private Int8Vectors int8;
+    private Float16Vectors float16;
+
+    @Setup(Level.Trial)
+    public void setupArrays() {
+        Random random = new Random(42);
+        arrayA = new float[arraySize];
+        arrayB = new float[arraySize];
+
+        for (int i = 0; i < arraySize; i++) {
+            arrayA[i] = random.nextFloat() * 100;
+            arrayB[i] = random.nextFloat() * 100;
+        }
+
+        // Row 0 holds A and row 1 holds B
+        int8 = new Int8Vectors(arraySize, 2);
+        int8.add(arrayA);
+        int8.add(arrayB);
+        float16 = new Float16Vectors(arraySize, 2);
+        float16.add(arrayA);
+        float16.add(arrayB);
+
+        reportAccuracy();
+    }
+
+    private void reportAccuracy() {
+        double reference = 0.0;
+        for (int i = 0; i < arraySize; i++) {
+            reference += (double) arrayA[i] * arrayB[i];
+        }
+
+        IO.println();
+        IO.println(String.format("Accuracy vs double reference (arraySize=%d):", arraySize));
+        IO.println(String.format("  float:         rel err %.3e, %,d bytes",
+                relativeError(dotProduct_VectorAPI(), reference), 2L * arraySize * Float.BYTES));
+        IO.println(String.format("  int8:          rel err %.3e, %,d bytes",
+                relativeError(dotProduct_Int8(), reference), int8.memoryBytes()));
+        IO.println(String.format("  float16:       rel err %.3e, %,d bytes",
+                relativeError(dotProduct_Float16(), reference), float16.memoryBytes()));
+        IO.println(String.format("  float16 x f32: rel err %.3e",
+                relativeError(dotProduct_Float16xFloat(), reference)));
+    }
+
+    private static double relativeError(float value, double reference) {
+        return Math.abs(value - reference) / Math.abs(reference);
+    }
+
+    @Benchmark
+    public float dotProduct_VectorAPI() {
+        return FloatKernels.dot(SPECIES, arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    @Benchmark
+    public float dotProduct_Int8() {
+        return int8.dot(0, int8, 1);
+    }
+
+    @Benchmark
+    public float dotProduct_Float16() {
+        return float16.dot(0, float16, 1);
+    }
+
+    @Benchmark
+    public float dotProduct_Float16xFloat() {
+        return float16.dot(0, arrayB);
+    }
+}
@@ -0,0 +1,86 @@
+package org.perujug.jmh;
+
+import jdk.incubator.vector.*;
+import org.openjdk.jmh.annotations.*;
+import org.perujug.kernels.ScanKernels;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inclusive scans: the sequential scalar loop, which SuperWord cannot vectorize because of its
+ * loop-carried dependency, against the in-register log-step {@link ScanKernels} and the
+ * two-pass parallel prefix sum on the common pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector"
+})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class JmhScanBenchmarks {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Param({"1024", "32768", "1048576", "16777216"})
+    public int arraySize;
+
+    private float[] arrayA;
+    private float[] result;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setupArrays() {
+        Random random = new Random(42);
+        arrayA = new float[arraySize];
+        result = new float[arraySize];
+
+        for (int i = 0; i < arraySize; i++) {
+            arrayA[i] = random.nextFloat() * 100;
+        }
+
+        pool = ForkJoinPool.commonPool();
+    }
+
+    // ==== PREFIX SUM ====
+
+    @Benchmark
+    public float prefixSum_Array() {
+        float sum = 0.0f;
+        for (int i = 0; i < arraySize; i++) {
+            sum += arrayA[i];
+            result[i] = sum;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float prefixSum_VectorAPI() {
+        return ScanKernels.prefixSum(SPECIES, arrayA, 0, 0.0f, result, 0, arraySize);
+    }
+
+    @Benchmark
+    public float prefixSum_Parallel() {
+        return ScanKernels.prefixSum(pool, arrayA, 0, 0.0f, result, 0, arraySize);
+    }
+
+    // ==== RUNNING MAX ====
+
+    @Benchmark
+    public float runningMax_Array() {
+        float max = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < arraySize; i++) {
+            max = Math.max(max, arrayA[i]);
+            result[i] = max;
+        }
+        return max;
+    }
+
+    @Benchmark
+    public float runningMax_VectorAPI() {
+        return ScanKernels.runningMax(SPECIES, arrayA, 0, Float.NEGATIVE_INFINITY, result, 0, arraySize);
+    }
+}
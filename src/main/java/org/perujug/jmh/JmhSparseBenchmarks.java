@@ -0,0 +1,90 @@
+package org.perujug.jmh;
+
+import jdk.incubator.vector.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.perujug.kernels.FloatKernels;
+import org.perujug.sparse.CsrMatrix;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sparse matrix x dense vector over {@link #TOTAL_ELEMENTS} matrix cells at several row
+ * lengths and densities: the scalar CSR loop, the gather kernel on every row, the gather
+ * kernel with the short-row scalar fallback, and the dense product of the same matrix with
+ * the {@code dotProduct_VectorAPI} kernel per row, which ignores sparsity altogether.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector"
+})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class JmhSparseBenchmarks {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    /** Matrix cells per trial; rows = TOTAL_ELEMENTS / columns. */
+    public static final int TOTAL_ELEMENTS = 8 * 1024 * 1024;
+
+    @Param({"64", "1024", "16384"})
+    public int columns;
+
+    @Param({"0.001", "0.01", "0.1", "0.5"})
+    public double density;
+
+    private int rows;
+    private float[] dense;
+    private CsrMatrix matrix;
+    private float[] x;
+    private float[] y;
+
+    @Setup(Level.Trial)
+    public void setupMatrix() {
+        Random random = new Random(42);
+        rows = TOTAL_ELEMENTS / columns;
+        dense = new float[rows * columns];
+        x = new float[columns];
+        y = new float[rows];
+
+        for (int i = 0; i < dense.length; i++) {
+            if (random.nextDouble() < density) {
+                dense[i] = random.nextFloat() * 100;
+            }
+        }
+        for (int c = 0; c < columns; c++) {
+            x[c] = random.nextFloat();
+        }
+
+        matrix = CsrMatrix.fromDense(dense, rows, columns);
+    }
+
+    @Benchmark
+    public void spmv_ScalarCsr(Blackhole bh) {
+        matrix.multiplyScalar(x, y);
+        bh.consume(y);
+    }
+
+    @Benchmark
+    public void spmv_GatherAlways(Blackhole bh) {
+        matrix.multiply(x, y, 0);
+        bh.consume(y);
+    }
+
+    @Benchmark
+    public void spmv_Gather(Blackhole bh) {
+        matrix.multiply(x, y);
+        bh.consume(y);
+    }
+
+    @Benchmark
+    public void spmv_DenseVectorAPI(Blackhole bh) {
+        for (int r = 0; r < rows; r++) {
+            y[r] = FloatKernels.dot(SPECIES, dense, r * columns, x, 0, columns);
+        }
+        bh.consume(y);
+    }
+}
@@ -0,0 +1,89 @@
+package org.perujug.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.perujug.tuning.DispatchTable;
+import org.perujug.tuning.TunedKernels;
+import org.perujug.tuning.VectorWidth;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TunedKernels} pinned to each fixed vector width, versus the table saved by
+ * {@code make tune-species} ({@code TUNED}). Widths wider than the hardware supports fail
+ * in setup instead of timing the Java fallback.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector"
+})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class JmhSpeciesBenchmarks {
+
+    @Param({"64", "512", "4096", "32768", "262144", "2097152"})
+    public int arraySize;
+
+    @Param({"BITS_128", "BITS_256", "BITS_512", "TUNED"})
+    public String width;
+
+    private float[] arrayA;
+    private float[] arrayB;
+    private float[] result;
+
+    @Setup(Level.Trial)
+    public void setupArrays() throws IOException {
+        Random random = new Random(42);
+        arrayA = new float[arraySize];
+        arrayB = new float[arraySize];
+        result = new float[arraySize];
+
+        for (int i = 0; i < arraySize; i++) {
+            arrayA[i] = random.nextFloat() * 100;
+            arrayB[i] = random.nextFloat() * 100;
+        }
+
+        if (width.equals("TUNED")) {
+            TunedKernels.install(DispatchTable.load(TunedKernels.tableFile()));
+        } else {
+            var fixed = VectorWidth.valueOf(width);
+            if (!VectorWidth.supported().contains(fixed)) {
+                throw new IllegalStateException(fixed + " is wider than this CPU's vectors");
+            }
+            TunedKernels.install(DispatchTable.uniform(fixed));
+        }
+    }
+
+    @Benchmark
+    public void vectorAddition(Blackhole bh) {
+        TunedKernels.add(arrayA, 0, arrayB, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void scalarMultiplication(Blackhole bh) {
+        TunedKernels.scale(arrayA, 0, 2.5f, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public float dotProduct() {
+        return TunedKernels.dot(arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    @Benchmark
+    public void fusedMultiplyAdd(Blackhole bh) {
+        TunedKernels.fma(arrayA, 0, arrayB, 0, 1.5f, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void mathFunctions(Blackhole bh) {
+        TunedKernels.sqrtAbs(arrayA, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+}
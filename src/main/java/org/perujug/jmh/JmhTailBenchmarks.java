@@ -0,0 +1,177 @@
+package org.perujug.jmh;
+
+import jdk.incubator.vector.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.perujug.kernels.FloatKernels;
+import org.perujug.kernels.TailKernels;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tail strategies on short, non-power-of-two vectors: the scalar remainder loop of
+ * {@link FloatKernels} versus the masked tail, fully masked loop and overlapping last
+ * vector of {@link TailKernels}. Sizes mix real embedding lengths (300, 768, 1000) with
+ * primes so the remainder differs for every species width.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector",
+    "-XX:+UnlockExperimentalVMOptions",
+    "-XX:-UseSuperWord"
+})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JmhTailBenchmarks {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Param({"7", "13", "31", "300", "509", "768", "1000", "1021", "4093"})
+    public int arraySize;
+
+    private float[] arrayA;
+    private float[] arrayB;
+    private float[] result;
+
+    @Setup(Level.Trial)
+    public void setupArrays() {
+        Random random = new Random(42);
+        arrayA = new float[arraySize];
+        arrayB = new float[arraySize];
+        result = new float[arraySize];
+
+        for (int i = 0; i < arraySize; i++) {
+            arrayA[i] = random.nextFloat() * 100;
+            arrayB[i] = random.nextFloat() * 100;
+        }
+    }
+
+    // ==== VECTOR ADDITION ====
+
+    @Benchmark
+    public void vectorAddition_ScalarTail(Blackhole bh) {
+        FloatKernels.add(SPECIES, arrayA, 0, arrayB, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void vectorAddition_MaskedTail(Blackhole bh) {
+        TailKernels.addMaskedTail(arrayA, 0, arrayB, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void vectorAddition_MaskedLoop(Blackhole bh) {
+        TailKernels.addMaskedLoop(arrayA, 0, arrayB, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void vectorAddition_Overlap(Blackhole bh) {
+        TailKernels.addOverlap(arrayA, 0, arrayB, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    // ==== SCALAR MULTIPLICATION ====
+
+    @Benchmark
+    public void scalarMultiplication_ScalarTail(Blackhole bh) {
+        FloatKernels.scale(SPECIES, arrayA, 0, 2.5f, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void scalarMultiplication_MaskedTail(Blackhole bh) {
+        TailKernels.scaleMaskedTail(arrayA, 0, 2.5f, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void scalarMultiplication_MaskedLoop(Blackhole bh) {
+        TailKernels.scaleMaskedLoop(arrayA, 0, 2.5f, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void scalarMultiplication_Overlap(Blackhole bh) {
+        TailKernels.scaleOverlap(arrayA, 0, 2.5f, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    // ==== DOT PRODUCT ====
+
+    @Benchmark
+    public float dotProduct_ScalarTail() {
+        return FloatKernels.dot(SPECIES, arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    @Benchmark
+    public float dotProduct_MaskedTail() {
+        return TailKernels.dotMaskedTail(arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    @Benchmark
+    public float dotProduct_MaskedLoop() {
+        return TailKernels.dotMaskedLoop(arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    @Benchmark
+    public float dotProduct_Overlap() {
+        return TailKernels.dotOverlap(arrayA, 0, arrayB, 0, arraySize);
+    }
+
+    // ==== FUSED MULTIPLY-ADD ====
+
+    @Benchmark
+    public void fusedMultiplyAdd_ScalarTail(Blackhole bh) {
+        FloatKernels.fma(SPECIES, arrayA, 0, arrayB, 0, 1.5f, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void fusedMultiplyAdd_MaskedTail(Blackhole bh) {
+        TailKernels.fmaMaskedTail(arrayA, 0, arrayB, 0, 1.5f, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void fusedMultiplyAdd_MaskedLoop(Blackhole bh) {
+        TailKernels.fmaMaskedLoop(arrayA, 0, arrayB, 0, 1.5f, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void fusedMultiplyAdd_Overlap(Blackhole bh) {
+        TailKernels.fmaOverlap(arrayA, 0, arrayB, 0, 1.5f, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    // ==== MATH FUNCTIONS ====
+
+    @Benchmark
+    public void mathFunctions_ScalarTail(Blackhole bh) {
+        FloatKernels.sqrtAbs(SPECIES, arrayA, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void mathFunctions_MaskedTail(Blackhole bh) {
+        TailKernels.sqrtAbsMaskedTail(arrayA, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void mathFunctions_MaskedLoop(Blackhole bh) {
+        TailKernels.sqrtAbsMaskedLoop(arrayA, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void mathFunctions_Overlap(Blackhole bh) {
+        TailKernels.sqrtAbsOverlap(arrayA, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+}
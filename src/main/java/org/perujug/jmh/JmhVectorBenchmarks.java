@@ -3,6 +3,10 @@ package org.perujug.jmh;
 import jdk.incubator.vector.*;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
+import org.perujug.kernels.DoubleKernels;
+import org.perujug.kernels.FloatKernels;
+import org.perujug.kernels.MixedPrecisionKernels;
+import org.perujug.kernels.ReductionKernels;
 
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
@@ -20,8 +24,9 @@ import java.util.concurrent.TimeUnit;
 public class JmhVectorBenchmarks {
     
     private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLE_SPECIES = DoubleVector.SPECIES_PREFERRED;
     
-    @Param({"64", "512", "4096", "32768", "262144", "2097152", "16777216"})
+    @Param({"64", "300", "512", "768", "1021", "4096", "32768", "262144", "2097152", "16777216"})
     public int arraySize;
     
     private float[] arrayA;
@@ -53,20 +58,7 @@ public class JmhVectorBenchmarks {
     
     @Benchmark
     public void vectorAddition_VectorAPI(Blackhole bh) {
-        int i = 0;
-        int upperBound = SPECIES.loopBound(arraySize);
-        
-        for (; i < upperBound; i += SPECIES.length()) {
-            var va = FloatVector.fromArray(SPECIES, arrayA, i);
-            var vb = FloatVector.fromArray(SPECIES, arrayB, i);
-            var vr = va.add(vb);
-            vr.intoArray(result, i);
-        }
-        
-        // Handle remaining elements
-        for (; i < arraySize; i++) {
-            result[i] = arrayA[i] + arrayB[i];
-        }
+        FloatKernels.add(SPECIES, arrayA, 0, arrayB, 0, result, 0, arraySize);
         bh.consume(result);
     }
     
@@ -84,18 +76,7 @@ public class JmhVectorBenchmarks {
     @Benchmark
     public void scalarMultiplication_VectorAPI(Blackhole bh) {
         float scalar = 2.5f;
-        int i = 0;
-        int upperBound = SPECIES.loopBound(arraySize);
-        
-        for (; i < upperBound; i += SPECIES.length()) {
-            var va = FloatVector.fromArray(SPECIES, arrayA, i);
-            var vr = va.mul(scalar);
-            vr.intoArray(result, i);
-        }
-        
-        for (; i < arraySize; i++) {
-            result[i] = arrayA[i] * scalar;
-        }
+        FloatKernels.scale(SPECIES, arrayA, 0, scalar, result, 0, arraySize);
         bh.consume(result);
     }
     
@@ -112,25 +93,7 @@ public class JmhVectorBenchmarks {
     
     @Benchmark
     public float dotProduct_VectorAPI() {
-        float sum = 0.0f;
-        int i = 0;
-        int upperBound = SPECIES.loopBound(arraySize);
-        var vsum = FloatVector.zero(SPECIES);
-        
-        for (; i < upperBound; i += SPECIES.length()) {
-            var va = FloatVector.fromArray(SPECIES, arrayA, i);
-            var vb = FloatVector.fromArray(SPECIES, arrayB, i);
-            vsum = va.fma(vb, vsum);
-        }
-        
-        sum += vsum.reduceLanes(VectorOperators.ADD);
-        
-        // Handle remaining elements
-        for (; i < arraySize; i++) {
-            sum += arrayA[i] * arrayB[i];
-        }
-        
-        return sum;
+        return FloatKernels.dot(SPECIES, arrayA, 0, arrayB, 0, arraySize);
     }
     
     // ==== FUSED MULTIPLY-ADD BENCHMARKS ====
@@ -147,20 +110,7 @@ public class JmhVectorBenchmarks {
     @Benchmark
     public void fusedMultiplyAdd_VectorAPI(Blackhole bh) {
         float scalar = 1.5f;
-        int i = 0;
-        int upperBound = SPECIES.loopBound(arraySize);
-        var vscalar = FloatVector.broadcast(SPECIES, scalar);
-        
-        for (; i < upperBound; i += SPECIES.length()) {
-            var va = FloatVector.fromArray(SPECIES, arrayA, i);
-            var vb = FloatVector.fromArray(SPECIES, arrayB, i);
-            var vr = va.fma(vb, vscalar);
-            vr.intoArray(result, i);
-        }
-        
-        for (; i < arraySize; i++) {
-            result[i] = arrayA[i] * arrayB[i] + scalar;
-        }
+        FloatKernels.fma(SPECIES, arrayA, 0, arrayB, 0, scalar, result, 0, arraySize);
         bh.consume(result);
     }
     
@@ -176,18 +126,206 @@ public class JmhVectorBenchmarks {
     
     @Benchmark
     public void mathFunctions_VectorAPI(Blackhole bh) {
-        int i = 0;
-        int upperBound = SPECIES.loopBound(arraySize);
-        
-        for (; i < upperBound; i += SPECIES.length()) {
-            var va = FloatVector.fromArray(SPECIES, arrayA, i);
-            var vr = va.abs().sqrt();
-            vr.intoArray(result, i);
+        FloatKernels.sqrtAbs(SPECIES, arrayA, 0, result, 0, arraySize);
+        bh.consume(result);
+    }
+    
+    // ==== REDUCTION BENCHMARKS ====
+    
+    @Benchmark
+    public float sum_Array() {
+        float sum = 0.0f;
+        for (int i = 0; i < arraySize; i++) {
+            sum += arrayA[i];
+        }
+        return sum;
+    }
+    
+    @Benchmark
+    public float sum_VectorAPI() {
+        return FloatKernels.sum(SPECIES, arrayA, 0, arraySize);
+    }
+    
+    @Benchmark
+    public float min_Array() {
+        float min = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < arraySize; i++) {
+            min = Math.min(min, arrayA[i]);
         }
+        return min;
+    }
+    
+    @Benchmark
+    public float min_VectorAPI() {
+        return ReductionKernels.min(SPECIES, arrayA, 0, arraySize);
+    }
+    
+    @Benchmark
+    public float max_Array() {
+        float max = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < arraySize; i++) {
+            max = Math.max(max, arrayA[i]);
+        }
+        return max;
+    }
+    
+    @Benchmark
+    public float max_VectorAPI() {
+        return ReductionKernels.max(SPECIES, arrayA, 0, arraySize);
+    }
+    
+    @Benchmark
+    public int argmin_Array() {
+        int index = 0;
+        for (int i = 1; i < arraySize; i++) {
+            if (arrayA[i] < arrayA[index]) {
+                index = i;
+            }
+        }
+        return index;
+    }
+    
+    @Benchmark
+    public int argmin_VectorAPI() {
+        return ReductionKernels.argmin(SPECIES, arrayA, 0, arraySize);
+    }
+    
+    @Benchmark
+    public int argmax_Array() {
+        int index = 0;
+        for (int i = 1; i < arraySize; i++) {
+            if (arrayA[i] > arrayA[index]) {
+                index = i;
+            }
+        }
+        return index;
+    }
+    
+    @Benchmark
+    public int argmax_VectorAPI() {
+        return ReductionKernels.argmax(SPECIES, arrayA, 0, arraySize);
+    }
+    
+    @Benchmark
+    public double meanVariance_Array() {
+        double mean = 0.0;
+        double m2 = 0.0;
+        for (int i = 0; i < arraySize; i++) {
+            double delta = arrayA[i] - mean;
+            mean += delta / (i + 1);
+            m2 += delta * (arrayA[i] - mean);
+        }
+        return m2 / arraySize;
+    }
+    
+    @Benchmark
+    public double meanVariance_VectorAPI() {
+        return ReductionKernels.meanVariance(SPECIES, arrayA, 0, arraySize).variance();
+    }
+    
+    // ==== PRECISION BENCHMARKS ====
+    
+    /** Element type and accumulator: MIXED stores float and accumulates sum and dot in double. */
+    public enum Precision {
+        FLOAT,
+        DOUBLE,
+        MIXED
+    }
+    
+    /**
+     * Copies of the input arrays in the element type under test. Only the {@code *_Precision}
+     * benchmarks use this state, so only they are multiplied by the precision param. MIXED
+     * differs from FLOAT only for sum and dot; the element-wise kernels have no accumulator.
+     */
+    @State(Scope.Benchmark)
+    public static class PrecisionState {
         
-        for (; i < arraySize; i++) {
-            result[i] = (float) Math.sqrt(Math.abs(arrayA[i]));
+        @Param({"FLOAT", "DOUBLE", "MIXED"})
+        public Precision precision;
+        
+        float[] floatA;
+        float[] floatB;
+        float[] floatResult;
+        double[] doubleA;
+        double[] doubleB;
+        double[] doubleResult;
+        
+        @Setup(Level.Trial)
+        public void setupArrays(JmhVectorBenchmarks benchmark) {
+            int size = benchmark.arraySize;
+            floatA = benchmark.arrayA;
+            floatB = benchmark.arrayB;
+            floatResult = benchmark.result;
+            doubleA = new double[size];
+            doubleB = new double[size];
+            doubleResult = new double[size];
+            
+            for (int i = 0; i < size; i++) {
+                doubleA[i] = floatA[i];
+                doubleB[i] = floatB[i];
+            }
         }
-        bh.consume(result);
+    }
+    
+    @Benchmark
+    public void vectorAddition_Precision(PrecisionState state, Blackhole bh) {
+        if (state.precision == Precision.DOUBLE) {
+            DoubleKernels.add(DOUBLE_SPECIES, state.doubleA, 0, state.doubleB, 0, state.doubleResult, 0, arraySize);
+            bh.consume(state.doubleResult);
+        } else {
+            FloatKernels.add(SPECIES, state.floatA, 0, state.floatB, 0, state.floatResult, 0, arraySize);
+            bh.consume(state.floatResult);
+        }
+    }
+    
+    @Benchmark
+    public void scalarMultiplication_Precision(PrecisionState state, Blackhole bh) {
+        if (state.precision == Precision.DOUBLE) {
+            DoubleKernels.scale(DOUBLE_SPECIES, state.doubleA, 0, 2.5, state.doubleResult, 0, arraySize);
+            bh.consume(state.doubleResult);
+        } else {
+            FloatKernels.scale(SPECIES, state.floatA, 0, 2.5f, state.floatResult, 0, arraySize);
+            bh.consume(state.floatResult);
+        }
+    }
+    
+    @Benchmark
+    public double dotProduct_Precision(PrecisionState state) {
+        return switch (state.precision) {
+            case FLOAT -> FloatKernels.dot(SPECIES, state.floatA, 0, state.floatB, 0, arraySize);
+            case DOUBLE -> DoubleKernels.dot(DOUBLE_SPECIES, state.doubleA, 0, state.doubleB, 0, arraySize);
+            case MIXED -> MixedPrecisionKernels.dot(SPECIES, state.floatA, 0, state.floatB, 0, arraySize);
+        };
+    }
+    
+    @Benchmark
+    public void fusedMultiplyAdd_Precision(PrecisionState state, Blackhole bh) {
+        if (state.precision == Precision.DOUBLE) {
+            DoubleKernels.fma(DOUBLE_SPECIES, state.doubleA, 0, state.doubleB, 0, 1.5, state.doubleResult, 0, arraySize);
+            bh.consume(state.doubleResult);
+        } else {
+            FloatKernels.fma(SPECIES, state.floatA, 0, state.floatB, 0, 1.5f, state.floatResult, 0, arraySize);
+            bh.consume(state.floatResult);
+        }
+    }
+    
+    @Benchmark
+    public void mathFunctions_Precision(PrecisionState state, Blackhole bh) {
+        if (state.precision == Precision.DOUBLE) {
+            DoubleKernels.sqrt(DOUBLE_SPECIES, state.doubleA, 0, state.doubleResult, 0, arraySize);
+            bh.consume(state.doubleResult);
+        } else {
+            FloatKernels.sqrt(SPECIES, state.floatA, 0, state.floatResult, 0, arraySize);
+            bh.consume(state.floatResult);
+        }
+    }
+    
+    @Benchmark
+    public double sum_Precision(PrecisionState state) {
+        return switch (state.precision) {
+            case FLOAT -> FloatKernels.sum(SPECIES, state.floatA, 0, arraySize);
+            case DOUBLE -> DoubleKernels.sum(DOUBLE_SPECIES, state.doubleA, 0, arraySize);
+            case MIXED -> MixedPrecisionKernels.sum(SPECIES, state.floatA, 0, arraySize);
+        };
     }
 }
@@ -0,0 +1,111 @@
+package org.perujug.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.perujug.search.EmbeddingStore;
+import org.perujug.search.Metric;
+import org.perujug.search.SearchResult;
+import org.perujug.search.VectorSearchEngine;
+
+import java.lang.foreign.Arena;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Brute-force top-k search over 1M x 768 embeddings. Throughput mode gives queries/sec;
+ * SampleTime mode gives the latency percentiles (read p0.99 for p99).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {
+    "--add-modules", "jdk.incubator.vector",
+    "-Xms8g", "-Xmx8g"
+})
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class JmhVectorSearchBenchmarks {
+
+    private static final int QUERIES = 64;
+    private static final int BATCH = 16;
+
+    @Param({"1000000"})
+    public int vectors;
+
+    @Param({"768"})
+    public int dimension;
+
+    @Param({"10"})
+    public int k;
+
+    @Param({"INNER_PRODUCT", "COSINE", "L2"})
+    public Metric metric;
+
+    @Param({"HEAP", "OFF_HEAP"})
+    public String storage;
+
+    private Arena arena;
+    private VectorSearchEngine engine;
+    private ForkJoinPool pool;
+    private float[][] queries;
+    private float[][] batch;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setupStore() {
+        Random random = new Random(42);
+        arena = Arena.ofShared();
+        var store = storage.equals("HEAP")
+                ? EmbeddingStore.onHeap(dimension, vectors)
+                : EmbeddingStore.offHeap(arena, dimension, vectors);
+
+        float[] row = new float[dimension];
+        for (int i = 0; i < vectors; i++) {
+            for (int j = 0; j < dimension; j++) {
+                row[j] = random.nextFloat() * 2 - 1;
+            }
+            store.add(row);
+        }
+
+        queries = new float[QUERIES][dimension];
+        for (float[] query : queries) {
+            for (int j = 0; j < dimension; j++) {
+                query[j] = random.nextFloat() * 2 - 1;
+            }
+        }
+        batch = new float[BATCH][];
+        for (int i = 0; i < BATCH; i++) {
+            batch[i] = queries[i];
+        }
+
+        engine = new VectorSearchEngine(store, metric);
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void release() {
+        pool.shutdown();
+        arena.close();
+    }
+
+    private float[] nextQuery() {
+        next = (next + 1) % QUERIES;
+        return queries[next];
+    }
+
+    @Benchmark
+    public SearchResult search_SingleThread() {
+        return engine.search(nextQuery(), k);
+    }
+
+    @Benchmark
+    public SearchResult search_Parallel() {
+        return engine.search(pool, nextQuery(), k);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public SearchResult[] searchBatch_Parallel() {
+        return engine.searchBatch(pool, batch, k);
+    }
+}
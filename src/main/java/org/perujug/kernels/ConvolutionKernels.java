@@ -0,0 +1,207 @@
+package org.perujug.kernels;
+
+import jdk.incubator.vector.*;
+
+/**
+ * Sliding-window kernels over heap {@code float[]} signals: FIR filters, moving averages and
+ * 3- and 5-point stencils.
+ *
+ * <p>All of them produce {@code length} outputs from {@code length + taps - 1} inputs, with no
+ * padding: {@code dst[i]} is computed from {@code src[i] .. src[i + taps - 1]}, so a centred
+ * stencil's output {@code i} belongs to input {@code i + taps / 2}. Neighbouring windows are
+ * read with unaligned loads at successive offsets rather than by shuffling lanes, since the
+ * overlapping loads hit L1.
+ */
+public final class ConvolutionKernels {
+
+    /** Outputs per moving-average block; each block starts from a freshly summed window. */
+    public static final int MOVING_AVERAGE_BLOCK = 4096;
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int VL = SPECIES.length();
+
+    private ConvolutionKernels() {
+    }
+
+    /**
+     * {@code dst[i] = sum(taps[k] * src[i + k])} for any number of taps.
+     *
+     * <p>Each tap is broadcast once per 4 output vectors, which also gives 4 independent FMA
+     * chains; every output is accumulated over the taps in order, as in the scalar loop. Species
+     * other than {@link FloatVector#SPECIES_PREFERRED} take one output vector at a time.
+     */
+    public static void fir(VectorSpecies<Float> species,
+                           float[] src, int srcOffset,
+                           float[] taps,
+                           float[] dst, int dstOffset,
+                           int length) {
+        int i = 0;
+        if (species == SPECIES) {
+            // The tap loops are compiled on their own, so they read the species from a constant
+            int upperBound4 = length - length % (4 * VL);
+            for (; i < upperBound4; i += 4 * VL) {
+                firBlock4(src, srcOffset + i, taps, dst, dstOffset + i);
+            }
+            for (; i < SPECIES.loopBound(length); i += VL) {
+                firBlock(src, srcOffset + i, taps, dst, dstOffset + i);
+            }
+        } else {
+            for (; i < species.loopBound(length); i += species.length()) {
+                var acc = FloatVector.zero(species);
+                for (int k = 0; k < taps.length; k++) {
+                    acc = FloatVector.fromArray(species, src, srcOffset + i + k).fma(acc.broadcast(taps[k]), acc);
+                }
+                acc.intoArray(dst, dstOffset + i);
+            }
+        }
+
+        for (; i < length; i++) {
+            float acc = 0.0f;
+            for (int k = 0; k < taps.length; k++) {
+                acc = Math.fma(src[srcOffset + i + k], taps[k], acc);
+            }
+            dst[dstOffset + i] = acc;
+        }
+    }
+
+    // dst[d .. d + 4 * VL) from src[s ..]
+    private static void firBlock4(float[] src, int s, float[] taps, float[] dst, int d) {
+        var acc0 = FloatVector.zero(SPECIES);
+        var acc1 = acc0;
+        var acc2 = acc0;
+        var acc3 = acc0;
+        for (int k = 0; k < taps.length; k++) {
+            var tap = FloatVector.broadcast(SPECIES, taps[k]);
+            int base = s + k;
+            acc0 = FloatVector.fromArray(SPECIES, src, base).fma(tap, acc0);
+            acc1 = FloatVector.fromArray(SPECIES, src, base + VL).fma(tap, acc1);
+            acc2 = FloatVector.fromArray(SPECIES, src, base + 2 * VL).fma(tap, acc2);
+            acc3 = FloatVector.fromArray(SPECIES, src, base + 3 * VL).fma(tap, acc3);
+        }
+        acc0.intoArray(dst, d);
+        acc1.intoArray(dst, d + VL);
+        acc2.intoArray(dst, d + 2 * VL);
+        acc3.intoArray(dst, d + 3 * VL);
+    }
+
+    // dst[d .. d + VL) from src[s ..]
+    private static void firBlock(float[] src, int s, float[] taps, float[] dst, int d) {
+        var acc = FloatVector.zero(SPECIES);
+        for (int k = 0; k < taps.length; k++) {
+            acc = FloatVector.fromArray(SPECIES, src, s + k).fma(acc.broadcast(taps[k]), acc);
+        }
+        acc.intoArray(dst, d);
+    }
+
+    /**
+     * {@code dst[i] = mean(src[i] .. src[i + window - 1])}.
+     *
+     * <p>Costs O(1) per output whatever the window: within each {@link #MOVING_AVERAGE_BLOCK},
+     * the window sums are the prefix sum of {@code src[i + window - 1] - src[i - 1]} from the
+     * block's first window, computed with {@link FloatKernels#sub} and
+     * {@link ScanKernels#prefixSum}. Re-summing the first window of every block bounds the
+     * rounding drift of the running sum.
+     */
+    public static void movingAverage(VectorSpecies<Float> species,
+                                     float[] src, int srcOffset,
+                                     int window,
+                                     float[] dst, int dstOffset,
+                                     int length) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        }
+        float inverse = 1.0f / window;
+
+        for (int start = 0; start < length; start += MOVING_AVERAGE_BLOCK) {
+            int n = Math.min(MOVING_AVERAGE_BLOCK, length - start);
+            int s = srcOffset + start;
+            int d = dstOffset + start;
+
+            // The block loop is compiled on its own, so the kernels inlined into it only see a
+            // constant species, and keep their vectors in registers, in the first branch
+            if (species == SPECIES) {
+                float first = FloatKernels.sum(SPECIES, src, s, window);
+                dst[d] = first;
+                FloatKernels.sub(SPECIES, src, s + window, src, s, dst, d + 1, n - 1);
+                ScanKernels.prefixSum(SPECIES, dst, d + 1, first, dst, d + 1, n - 1);
+                FloatKernels.scale(SPECIES, dst, d, inverse, dst, d, n);
+            } else {
+                float first = FloatKernels.sum(species, src, s, window);
+                dst[d] = first;
+                FloatKernels.sub(species, src, s + window, src, s, dst, d + 1, n - 1);
+                ScanKernels.prefixSum(species, dst, d + 1, first, dst, d + 1, n - 1);
+                FloatKernels.scale(species, dst, d, inverse, dst, d, n);
+            }
+        }
+    }
+
+    /**
+     * {@code dst[i] = c0 * src[i] + c1 * src[i + 1] + c2 * src[i + 2]}. Species other than
+     * {@link FloatVector#SPECIES_PREFERRED} take the scalar loop.
+     */
+    public static void stencil3(VectorSpecies<Float> species,
+                                float[] src, int srcOffset,
+                                float c0, float c1, float c2,
+                                float[] dst, int dstOffset,
+                                int length) {
+        int i = 0;
+        // The loop is compiled on its own, so it only runs on the constant species
+        int upperBound = species == SPECIES ? SPECIES.loopBound(length) : 0;
+        var vc0 = FloatVector.broadcast(SPECIES, c0);
+        var vc1 = FloatVector.broadcast(SPECIES, c1);
+        var vc2 = FloatVector.broadcast(SPECIES, c2);
+
+        for (; i < upperBound; i += VL) {
+            int base = srcOffset + i;
+            var acc = FloatVector.fromArray(SPECIES, src, base).mul(vc0);
+            acc = FloatVector.fromArray(SPECIES, src, base + 1).fma(vc1, acc);
+            acc = FloatVector.fromArray(SPECIES, src, base + 2).fma(vc2, acc);
+            acc.intoArray(dst, dstOffset + i);
+        }
+
+        for (; i < length; i++) {
+            int base = srcOffset + i;
+            float acc = src[base] * c0;
+            acc = Math.fma(src[base + 1], c1, acc);
+            dst[dstOffset + i] = Math.fma(src[base + 2], c2, acc);
+        }
+    }
+
+    /**
+     * {@code dst[i] = c0 * src[i] + c1 * src[i + 1] + ... + c4 * src[i + 4]}. Species other
+     * than {@link FloatVector#SPECIES_PREFERRED} take the scalar loop.
+     */
+    public static void stencil5(VectorSpecies<Float> species,
+                                float[] src, int srcOffset,
+                                float c0, float c1, float c2, float c3, float c4,
+                                float[] dst, int dstOffset,
+                                int length) {
+        int i = 0;
+        // The loop is compiled on its own, so it only runs on the constant species
+        int upperBound = species == SPECIES ? SPECIES.loopBound(length) : 0;
+        var vc0 = FloatVector.broadcast(SPECIES, c0);
+        var vc1 = FloatVector.broadcast(SPECIES, c1);
+        var vc2 = FloatVector.broadcast(SPECIES, c2);
+        var vc3 = FloatVector.broadcast(SPECIES, c3);
+        var vc4 = FloatVector.broadcast(SPECIES, c4);
+
+        for (; i < upperBound; i += VL) {
+            int base = srcOffset + i;
+            var acc = FloatVector.fromArray(SPECIES, src, base).mul(vc0);
+            acc = FloatVector.fromArray(SPECIES, src, base + 1).fma(vc1, acc);
+            acc = FloatVector.fromArray(SPECIES, src, base + 2).fma(vc2, acc);
+            acc = FloatVector.fromArray(SPECIES, src, base + 3).fma(vc3, acc);
+            acc = FloatVector.fromArray(SPECIES, src, base + 4).fma(vc4, acc);
+            acc.intoArray(dst, dstOffset + i);
+        }
+
+        for (; i < length; i++) {
+            int base = srcOffset + i;
+            float acc = src[base] * c0;
+            acc = Math.fma(src[base + 1], c1, acc);
+            acc = Math.fma(src[base + 2], c2, acc);
+            acc = Math.fma(src[base + 3], c3, acc);
+            dst[dstOffset + i] = Math.fma(src[base + 4], c4, acc);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.perujug.kernels;
+
+import jdk.incubator.vector.*;
+
+/**
+ * Double-precision counterparts of the {@link FloatKernels} over heap {@code double[]} ranges.
+ *
+ * <p>A {@link DoubleVector} of the same shape holds half as many lanes, so each of these
+ * moves the same number of bytes per instruction as its float twin but does half the
+ * arithmetic; memory-bound loops cost about twice the time per element, compute-bound ones
+ * about twice the instructions. Pass a {@code static final} species, as for {@link FloatKernels}.
+ */
+public final class DoubleKernels {
+
+    private DoubleKernels() {
+    }
+
+    /** {@code dst[i] = a[i] + b[i]} */
+    public static void add(VectorSpecies<Double> species,
+                           double[] a, int aOffset,
+                           double[] b, int bOffset,
+                           double[] dst, int dstOffset,
+                           int length) {
+        int i = 0;
+        int upperBound = species.loopBound(length);
+
+        for (; i < upperBound; i += species.length()) {
+            var va = DoubleVector.fromArray(species, a, aOffset + i);
+            var vb = DoubleVector.fromArray(species, b, bOffset + i);
+            va.add(vb).intoArray(dst, dstOffset + i);
+        }
+
+        // Handle remaining elements
+        for (; i < length; i++) {
+            dst[dstOffset + i] = a[aOffset + i] + b[bOffset + i];
+        }
+    }
+
+    /** {@code dst[i] = src[i] * factor} */
+    public static void scale(VectorSpecies<Double> species,
+                             double[] src, int srcOffset,
+                             double factor,
+                             double[] dst, int dstOffset,
+                             int length) {
+        int i = 0;
+        int upperBound = species.loopBound(length);
+
+        for (; i < upperBound; i += species.length()) {
+            var va = DoubleVector.fromArray(species, src, srcOffset + i);
+            va.mul(factor).intoArray(dst, dstOffset + i);
+        }
+
+        for (; i < length; i++) {
+            dst[dstOffset + i] = src[srcOffset + i] * factor;
+        }
+    }
+
+    /** Returns {@code sum(a[i] * b[i])}. */
+    public static double dot(VectorSpecies<Double> species,
+                             double[] a, int aOffset,
+                             double[] b, int bOffset,
+                             int length) {
+        double sum = 0.0;
+        int i = 0;
+        int upperBound = species.loopBound(length);
+        var vsum = DoubleVector.zero(species);
+
+        for (; i < upperBound; i += species.length()) {
+            var va = DoubleVector.fromArray(species, a, aOffset + i);
+            var vb = DoubleVector.fromArray(species, b, bOffset + i);
+            vsum = va.fma(vb, vsum);
+        }
+
+        sum += vsum.reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+
+        return sum;
+    }
+
+    /** Returns {@code sum(src[i])}. */
+    public static double sum(VectorSpecies<Double> species,
+                             double[] src, int srcOffset,
+                             int length) {
+        double sum = 0.0;
+        int i = 0;
+        int upperBound = species.loopBound(length);
+        var vsum = DoubleVector.zero(species);
+
+        for (; i < upperBound; i += species.length()) {
+            vsum = vsum.add(DoubleVector.fromArray(species, src, srcOffset + i));
+        }
+
+        sum += vsum.reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            sum += src[srcOffset + i];
+        }
+
+        return sum;
+    }
+
+    /** {@code dst[i] = a[i] * b[i] + addend} */
+    public static void fma(VectorSpecies<Double> species,
+                           double[] a, int aOffset,
+                           double[] b, int bOffset,
+                           double addend,
+                           double[] dst, int dstOffset,
+                           int length) {
+        int i = 0;
+        int upperBound = species.loopBound(length);
+        var vaddend = DoubleVector.broadcast(species, addend);
+
+        for (; i < upperBound; i += species.length()) {
+            var va = DoubleVector.fromArray(species, a, aOffset + i);
+            var vb = DoubleVector.fromArray(species, b, bOffset + i);
+            va.fma(vb, vaddend).intoArray(dst, dstOffset + i);
+        }
+
+        for (; i < length; i++) {
+            dst[dstOffset + i] = a[aOffset + i] * b[bOffset + i] + addend;
+        }
+    }
+
+    /** {@code dst[i] = sqrt(src[i])} */
+    public static void sqrt(VectorSpecies<Double> species,
+                            double[] src, int srcOffset,
+                            double[] dst, int dstOffset,
+                            int length) {
+        int i = 0;
+        int upperBound = species.loopBound(length);
+
+        for (; i < upperBound; i += species.length()) {
+            var va = DoubleVector.fromArray(species, src, srcOffset + i);
+            va.sqrt().intoArray(dst, dstOffset + i);
+        }
+
+        for (; i < length; i++) {
+            dst[dstOffset + i] = Math.sqrt(src[srcOffset + i]);
+        }
+    }
+
+    /** {@code dst[i] = sqrt(abs(src[i]))} */
+    public static void sqrtAbs(VectorSpecies<Double> species,
+                               double[] src, int srcOffset,
+                               double[] dst, int dstOffset,
+                               int length) {
+        int i = 0;
+        int upperBound = species.loopBound(length);
+
+        for (; i < upperBound; i += species.length()) {
+            var va = DoubleVector.fromArray(species, src, srcOffset + i);
+            va.abs().sqrt().intoArray(dst, dstOffset + i);
+        }
+
+        for (; i < length; i++) {
+            dst[dstOffset + i] = Math.sqrt(Math.abs(src[srcOffset + i]));
+        }
+    }
+}
@@ -0,0 +1,511 @@
+package org.perujug.kernels;
+
+import jdk.incubator.vector.*;
+
+/**
+ * Allocation-free SIMD kernels over heap {@code float[]} ranges.
+ *
+ * <p>Every kernel takes the species to run with as its first argument. Pass a
+ * {@code static final} species (for example {@link FloatVector#SPECIES_PREFERRED})
+ * so that C2 sees a constant after inlining and keeps the vectors in registers.
+ *
+ * <p>The unrolled reductions ({@code dot2..8}, {@code sum2..8}) run enough iterations per
+ * call that C2 compiles them on their own before their callers, where the species is a
+ * plain argument and every accumulator is boxed; that compiled code is then too big to
+ * inline. They therefore unroll with {@link FloatVector#SPECIES_PREFERRED} read from a
+ * constant and hand any other species to the one-accumulator kernel.
+ */
+public final class FloatKernels {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private FloatKernels() {
+    }
+
+    /** {@code dst[i] = a[i] + b[i]} */
+    public static void add(VectorSpecies<Float> species,
+                           float[] a, int aOffset,
+                           float[] b, int bOffset,
+                           float[] dst, int dstOffset,
+                           int length) {
+        int i = 0;
+        int upperBound = species.loopBound(length);
+
+        for (; i < upperBound; i += species.length()) {
+            var va = FloatVector.fromArray(species, a, aOffset + i);
+            var vb = FloatVector.fromArray(species, b, bOffset + i);
+            va.add(vb).intoArray(dst, dstOffset + i);
+        }
+
+        // Handle remaining elements
+        for (; i < length; i++) {
+            dst[dstOffset + i] = a[aOffset + i] + b[bOffset + i];
+        }
+    }
+
+    /** {@code dst[i] = a[i] - b[i]} */
+    public static void sub(VectorSpecies<Float> species,
+                           float[] a, int aOffset,
+                           float[] b, int bOffset,
+                           float[] dst, int dstOffset,
+                           int length) {
+        int i = 0;
+        int upperBound = species.loopBound(length);
+
+        for (; i < upperBound; i += species.length()) {
+            var va = FloatVector.fromArray(species, a, aOffset + i);
+            var vb = FloatVector.fromArray(species, b, bOffset + i);
+            va.sub(vb).intoArray(dst, dstOffset + i);
+        }
+
+        for (; i < length; i++) {
+            dst[dstOffset + i] = a[aOffset + i] - b[bOffset + i];
+        }
+    }
+
+    /** {@code dst[i] = src[i] * factor} */
+    public static void scale(VectorSpecies<Float> species,
+                             float[] src, int srcOffset,
+                             float factor,
+                             float[] dst, int dstOffset,
+                             int length) {
+        int i = 0;
+        int upperBound = species.loopBound(length);
+
+        for (; i < upperBound; i += species.length()) {
+            var va = FloatVector.fromArray(species, src, srcOffset + i);
+            va.mul(factor).intoArray(dst, dstOffset + i);
+        }
+
+        for (; i < length; i++) {
+            dst[dstOffset + i] = src[srcOffset + i] * factor;
+        }
+    }
+
+    /** {@code dst[i] = a[i] * b[i]} */
+    public static void mul(VectorSpecies<Float> species,
+                           float[] a, int aOffset,
+                           float[] b, int bOffset,
+                           float[] dst, int dstOffset,
+                           int length) {
+        int i = 0;
+        int upperBound = species.loopBound(length);
+
+        for (; i < upperBound; i += species.length()) {
+            var va = FloatVector.fromArray(species, a, aOffset + i);
+            var vb = FloatVector.fromArray(species, b, bOffset + i);
+            va.mul(vb).intoArray(dst, dstOffset + i);
+        }
+
+        for (; i < length; i++) {
+            dst[dstOffset + i] = a[aOffset + i] * b[bOffset + i];
+        }
+    }
+
+    /** Returns {@code sum(a[i] * b[i])}. */
+    public static float dot(VectorSpecies<Float> species,
+                            float[] a, int aOffset,
+                            float[] b, int bOffset,
+                            int length) {
+        float sum = 0.0f;
+        int i = 0;
+        int upperBound = species.loopBound(length);
+        var vsum = FloatVector.zero(species);
+
+        for (; i < upperBound; i += species.length()) {
+            var va = FloatVector.fromArray(species, a, aOffset + i);
+            var vb = FloatVector.fromArray(species, b, bOffset + i);
+            vsum = va.fma(vb, vsum);
+        }
+
+        sum += vsum.reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+
+        return sum;
+    }
+
+    /** {@link #dot} with 2 independent accumulators to hide FMA latency; see the class comment on species. */
+    public static float dot2(VectorSpecies<Float> species,
+                             float[] a, int aOffset,
+                             float[] b, int bOffset,
+                             int length) {
+        if (species != SPECIES) {
+            return dot(species, a, aOffset, b, bOffset, length);
+        }
+
+        int stride = 2 * SPECIES.length();
+        int i = 0;
+        int unrolledBound = length - length % stride;
+        var vsum0 = FloatVector.zero(SPECIES);
+        var vsum1 = vsum0;
+
+        for (; i < unrolledBound; i += stride) {
+            int ai = aOffset + i;
+            int bi = bOffset + i;
+            vsum0 = fmaAt(a, ai, b, bi, 0, vsum0);
+            vsum1 = fmaAt(a, ai, b, bi, 1, vsum1);
+        }
+
+        vsum0 = vsum0.add(vsum1);
+        float sum = vsum0.reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+
+        return sum;
+    }
+
+    /** {@link #dot} with 4 independent accumulators to hide FMA latency; see the class comment on species. */
+    public static float dot4(VectorSpecies<Float> species,
+                             float[] a, int aOffset,
+                             float[] b, int bOffset,
+                             int length) {
+        if (species != SPECIES) {
+            return dot(species, a, aOffset, b, bOffset, length);
+        }
+
+        int stride = 4 * SPECIES.length();
+        int i = 0;
+        int unrolledBound = length - length % stride;
+        var vsum0 = FloatVector.zero(SPECIES);
+        var vsum1 = vsum0;
+        var vsum2 = vsum0;
+        var vsum3 = vsum0;
+
+        for (; i < unrolledBound; i += stride) {
+            int ai = aOffset + i;
+            int bi = bOffset + i;
+            vsum0 = fmaAt(a, ai, b, bi, 0, vsum0);
+            vsum1 = fmaAt(a, ai, b, bi, 1, vsum1);
+            vsum2 = fmaAt(a, ai, b, bi, 2, vsum2);
+            vsum3 = fmaAt(a, ai, b, bi, 3, vsum3);
+        }
+
+        vsum0 = vsum0.add(vsum1).add(vsum2.add(vsum3));
+        float sum = vsum0.reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+
+        return sum;
+    }
+
+    /** {@link #dot} with 8 independent accumulators to hide FMA latency; see the class comment on species. */
+    public static float dot8(VectorSpecies<Float> species,
+                             float[] a, int aOffset,
+                             float[] b, int bOffset,
+                             int length) {
+        if (species != SPECIES) {
+            return dot(species, a, aOffset, b, bOffset, length);
+        }
+
+        int stride = 4 * SPECIES.length();
+        int i = 0;
+        int unrolledBound = length - length % stride;
+        var vsum0 = FloatVector.zero(SPECIES);
+        var vsum1 = vsum0;
+        var vsum2 = vsum0;
+        var vsum3 = vsum0;
+        var vsum4 = vsum0;
+        var vsum5 = vsum0;
+        var vsum6 = vsum0;
+        var vsum7 = vsum0;
+
+        // Four vectors per iteration into one bank, then the banks swap: each accumulator is
+        // updated every other iteration. Eight loads per iteration instead of sixteen keep the
+        // body inside C2's inlining node budget once the caller's loop is compiled around it.
+        for (; i < unrolledBound; i += stride) {
+            int ai = aOffset + i;
+            int bi = bOffset + i;
+            var next0 = fmaAt(a, ai, b, bi, 0, vsum4);
+            var next1 = fmaAt(a, ai, b, bi, 1, vsum5);
+            var next2 = fmaAt(a, ai, b, bi, 2, vsum6);
+            var next3 = fmaAt(a, ai, b, bi, 3, vsum7);
+            vsum4 = vsum0;
+            vsum5 = vsum1;
+            vsum6 = vsum2;
+            vsum7 = vsum3;
+            vsum0 = next0;
+            vsum1 = next1;
+            vsum2 = next2;
+            vsum3 = next3;
+        }
+
+        vsum0 = vsum0.add(vsum1).add(vsum2.add(vsum3)).add(vsum4.add(vsum5).add(vsum6.add(vsum7)));
+        float sum = vsum0.reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+
+        return sum;
+    }
+
+    /** Returns {@code sum(src[i])}. */
+    public static float sum(VectorSpecies<Float> species,
+                            float[] src, int srcOffset,
+                            int length) {
+        float sum = 0.0f;
+        int i = 0;
+        int upperBound = species.loopBound(length);
+        var vsum = FloatVector.zero(species);
+
+        for (; i < upperBound; i += species.length()) {
+            vsum = vsum.add(FloatVector.fromArray(species, src, srcOffset + i));
+        }
+
+        sum += vsum.reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            sum += src[srcOffset + i];
+        }
+
+        return sum;
+    }
+
+    /** {@link #sum} with 2 independent accumulators to hide add latency; see the class comment on species. */
+    public static float sum2(VectorSpecies<Float> species,
+                             float[] src, int srcOffset,
+                             int length) {
+        if (species != SPECIES) {
+            return sum(species, src, srcOffset, length);
+        }
+
+        int stride = 2 * SPECIES.length();
+        int i = 0;
+        int unrolledBound = length - length % stride;
+        var vsum0 = FloatVector.zero(SPECIES);
+        var vsum1 = vsum0;
+
+        for (; i < unrolledBound; i += stride) {
+            int si = srcOffset + i;
+            vsum0 = addAt(src, si, 0, vsum0);
+            vsum1 = addAt(src, si, 1, vsum1);
+        }
+
+        vsum0 = vsum0.add(vsum1);
+        float sum = vsum0.reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            sum += src[srcOffset + i];
+        }
+
+        return sum;
+    }
+
+    /** {@link #sum} with 4 independent accumulators to hide add latency; see the class comment on species. */
+    public static float sum4(VectorSpecies<Float> species,
+                             float[] src, int srcOffset,
+                             int length) {
+        if (species != SPECIES) {
+            return sum(species, src, srcOffset, length);
+        }
+
+        int stride = 4 * SPECIES.length();
+        int i = 0;
+        int unrolledBound = length - length % stride;
+        var vsum0 = FloatVector.zero(SPECIES);
+        var vsum1 = vsum0;
+        var vsum2 = vsum0;
+        var vsum3 = vsum0;
+
+        for (; i < unrolledBound; i += stride) {
+            int si = srcOffset + i;
+            vsum0 = addAt(src, si, 0, vsum0);
+            vsum1 = addAt(src, si, 1, vsum1);
+            vsum2 = addAt(src, si, 2, vsum2);
+            vsum3 = addAt(src, si, 3, vsum3);
+        }
+
+        vsum0 = vsum0.add(vsum1).add(vsum2.add(vsum3));
+        float sum = vsum0.reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            sum += src[srcOffset + i];
+        }
+
+        return sum;
+    }
+
+    /** {@link #sum} with 8 independent accumulators to hide add latency; see the class comment on species. */
+    public static float sum8(VectorSpecies<Float> species,
+                             float[] src, int srcOffset,
+                             int length) {
+        if (species != SPECIES) {
+            return sum(species, src, srcOffset, length);
+        }
+
+        int stride = 8 * SPECIES.length();
+        int i = 0;
+        int unrolledBound = length - length % stride;
+        var vsum0 = FloatVector.zero(SPECIES);
+        var vsum1 = vsum0;
+        var vsum2 = vsum0;
+        var vsum3 = vsum0;
+        var vsum4 = vsum0;
+        var vsum5 = vsum0;
+        var vsum6 = vsum0;
+        var vsum7 = vsum0;
+
+        for (; i < unrolledBound; i += stride) {
+            int si = srcOffset + i;
+            vsum0 = addAt(src, si, 0, vsum0);
+            vsum1 = addAt(src, si, 1, vsum1);
+            vsum2 = addAt(src, si, 2, vsum2);
+            vsum3 = addAt(src, si, 3, vsum3);
+            vsum4 = addAt(src, si, 4, vsum4);
+            vsum5 = addAt(src, si, 5, vsum5);
+            vsum6 = addAt(src, si, 6, vsum6);
+            vsum7 = addAt(src, si, 7, vsum7);
+        }
+
+        vsum0 = vsum0.add(vsum1).add(vsum2.add(vsum3)).add(vsum4.add(vsum5).add(vsum6.add(vsum7)));
+        float sum = vsum0.reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            sum += src[srcOffset + i];
+        }
+
+        return sum;
+    }
+
+    /** Returns {@code sum((a[i] - b[i])^2)}. */
+    public static float squaredDistance(VectorSpecies<Float> species,
+                                        float[] a, int aOffset,
+                                        float[] b, int bOffset,
+                                        int length) {
+        float sum = 0.0f;
+        int i = 0;
+        int upperBound = species.loopBound(length);
+        var vsum = FloatVector.zero(species);
+
+        for (; i < upperBound; i += species.length()) {
+            var va = FloatVector.fromArray(species, a, aOffset + i);
+            var vb = FloatVector.fromArray(species, b, bOffset + i);
+            var diff = va.sub(vb);
+            vsum = diff.fma(diff, vsum);
+        }
+
+        sum += vsum.reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            float diff = a[aOffset + i] - b[bOffset + i];
+            sum += diff * diff;
+        }
+
+        return sum;
+    }
+
+    /** {@code dst[i] = a[i] * b[i] + addend} */
+    public static void fma(VectorSpecies<Float> species,
+                           float[] a, int aOffset,
+                           float[] b, int bOffset,
+                           float addend,
+                           float[] dst, int dstOffset,
+                           int length) {
+        int i = 0;
+        int upperBound = species.loopBound(length);
+        var vaddend = FloatVector.broadcast(species, addend);
+
+        for (; i < upperBound; i += species.length()) {
+            var va = FloatVector.fromArray(species, a, aOffset + i);
+            var vb = FloatVector.fromArray(species, b, bOffset + i);
+            va.fma(vb, vaddend).intoArray(dst, dstOffset + i);
+        }
+
+        for (; i < length; i++) {
+            dst[dstOffset + i] = a[aOffset + i] * b[bOffset + i] + addend;
+        }
+    }
+
+    /** {@code dst[i] = a[i] * b[i] + c[i]} */
+    public static void fma(VectorSpecies<Float> species,
+                           float[] a, int aOffset,
+                           float[] b, int bOffset,
+                           float[] c, int cOffset,
+                           float[] dst, int dstOffset,
+                           int length) {
+        int i = 0;
+        int upperBound = species.loopBound(length);
+
+        for (; i < upperBound; i += species.length()) {
+            var va = FloatVector.fromArray(species, a, aOffset + i);
+            var vb = FloatVector.fromArray(species, b, bOffset + i);
+            var vc = FloatVector.fromArray(species, c, cOffset + i);
+            va.fma(vb, vc).intoArray(dst, dstOffset + i);
+        }
+
+        for (; i < length; i++) {
+            dst[dstOffset + i] = Math.fma(a[aOffset + i], b[bOffset + i], c[cOffset + i]);
+        }
+    }
+
+    /** {@code dst[i] = abs(src[i])} */
+    public static void abs(VectorSpecies<Float> species,
+                           float[] src, int srcOffset,
+                           float[] dst, int dstOffset,
+                           int length) {
+        int i = 0;
+        int upperBound = species.loopBound(length);
+
+        for (; i < upperBound; i += species.length()) {
+            FloatVector.fromArray(species, src, srcOffset + i).abs().intoArray(dst, dstOffset + i);
+        }
+
+        for (; i < length; i++) {
+            dst[dstOffset + i] = Math.abs(src[srcOffset + i]);
+        }
+    }
+
+    /** {@code dst[i] = sqrt(src[i])} */
+    public static void sqrt(VectorSpecies<Float> species,
+                            float[] src, int srcOffset,
+                            float[] dst, int dstOffset,
+                            int length) {
+        int i = 0;
+        int upperBound = species.loopBound(length);
+
+        for (; i < upperBound; i += species.length()) {
+            var va = FloatVector.fromArray(species, src, srcOffset + i);
+            va.sqrt().intoArray(dst, dstOffset + i);
+        }
+
+        for (; i < length; i++) {
+            dst[dstOffset + i] = (float) Math.sqrt(src[srcOffset + i]);
+        }
+    }
+
+    /** {@code dst[i] = sqrt(abs(src[i]))} */
+    public static void sqrtAbs(VectorSpecies<Float> species,
+                               float[] src, int srcOffset,
+                               float[] dst, int dstOffset,
+                               int length) {
+        int i = 0;
+        int upperBound = species.loopBound(length);
+
+        for (; i < upperBound; i += species.length()) {
+            var va = FloatVector.fromArray(species, src, srcOffset + i);
+            va.abs().sqrt().intoArray(dst, dstOffset + i);
+        }
+
+        for (; i < length; i++) {
+            dst[dstOffset + i] = (float) Math.sqrt(Math.abs(src[srcOffset + i]));
+        }
+    }
+
+    // acc + the k-th vectors from ai and bi multiplied: one short call per accumulator keeps
+    // the unrolled bodies under C2's hot inlining limit (-XX:FreqInlineSize, 325 bytes)
+    private static FloatVector fmaAt(float[] a, int ai, float[] b, int bi, int k, FloatVector acc) {
+        int offset = k * SPECIES.length();
+        return FloatVector.fromArray(SPECIES, a, ai + offset).fma(FloatVector.fromArray(SPECIES, b, bi + offset), acc);
+    }
+
+    private static FloatVector addAt(float[] src, int si, int k, FloatVector acc) {
+        return acc.add(FloatVector.fromArray(SPECIES, src, si + k * SPECIES.length()));
+    }
+}
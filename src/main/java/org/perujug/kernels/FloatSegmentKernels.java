@@ -0,0 +1,201 @@
+package org.perujug.kernels;
+
+import jdk.incubator.vector.*;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+/**
+ * {@link MemorySegment} counterparts of {@link FloatKernels}.
+ *
+ * <p>Offsets and lengths are counted in floats, not bytes, and are {@code long}
+ * so a single segment can hold more than {@code Integer.MAX_VALUE} elements.
+ * Segments are read and written in native byte order.
+ *
+ * <p>{@link #dot}, {@link #squaredDistance} and {@link #fma} keep a vector live across the
+ * loop, which C2 compiles on its own before any caller; with the species as a plain argument
+ * there, that vector is boxed on every iteration. They therefore vectorize only on
+ * {@link FloatVector#SPECIES_PREFERRED}, read from a {@code static final}, and run the scalar
+ * loop for the whole range on any other species.
+ */
+public final class FloatSegmentKernels {
+
+    /** Alignment used by {@link #allocate}: one cache line, which also covers 512-bit vectors. */
+    public static final long ALIGNMENT = 64;
+
+    private static final ValueLayout.OfFloat FLOAT = ValueLayout.JAVA_FLOAT;
+    private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private FloatSegmentKernels() {
+    }
+
+    /** Allocates {@code count} floats in {@code arena}, aligned to {@link #ALIGNMENT} bytes. */
+    public static MemorySegment allocate(Arena arena, long count) {
+        return arena.allocate(count * Float.BYTES, ALIGNMENT);
+    }
+
+    /** {@code dst[i] = a[i] + b[i]} */
+    public static void add(VectorSpecies<Float> species,
+                           MemorySegment a, long aOffset,
+                           MemorySegment b, long bOffset,
+                           MemorySegment dst, long dstOffset,
+                           long length) {
+        long i = 0;
+        long upperBound = loopBound(species, length);
+        long step = species.length();
+
+        for (; i < upperBound; i += step) {
+            var va = FloatVector.fromMemorySegment(species, a, (aOffset + i) * Float.BYTES, ORDER);
+            var vb = FloatVector.fromMemorySegment(species, b, (bOffset + i) * Float.BYTES, ORDER);
+            va.add(vb).intoMemorySegment(dst, (dstOffset + i) * Float.BYTES, ORDER);
+        }
+
+        // Handle remaining elements
+        for (; i < length; i++) {
+            dst.setAtIndex(FLOAT, dstOffset + i, a.getAtIndex(FLOAT, aOffset + i) + b.getAtIndex(FLOAT, bOffset + i));
+        }
+    }
+
+    /** {@code dst[i] = src[i] * factor} */
+    public static void scale(VectorSpecies<Float> species,
+                             MemorySegment src, long srcOffset,
+                             float factor,
+                             MemorySegment dst, long dstOffset,
+                             long length) {
+        long i = 0;
+        long upperBound = loopBound(species, length);
+        long step = species.length();
+
+        for (; i < upperBound; i += step) {
+            var va = FloatVector.fromMemorySegment(species, src, (srcOffset + i) * Float.BYTES, ORDER);
+            va.mul(factor).intoMemorySegment(dst, (dstOffset + i) * Float.BYTES, ORDER);
+        }
+
+        for (; i < length; i++) {
+            dst.setAtIndex(FLOAT, dstOffset + i, src.getAtIndex(FLOAT, srcOffset + i) * factor);
+        }
+    }
+
+    /** Returns {@code sum(a[i] * b[i])}. */
+    public static float dot(VectorSpecies<Float> species,
+                            MemorySegment a, long aOffset,
+                            MemorySegment b, long bOffset,
+                            long length) {
+        float sum = 0.0f;
+        long i = 0;
+        long upperBound = species == SPECIES ? loopBound(SPECIES, length) : 0;
+        long step = SPECIES.length();
+        var vsum = FloatVector.zero(SPECIES);
+
+        for (; i < upperBound; i += step) {
+            var va = FloatVector.fromMemorySegment(SPECIES, a, (aOffset + i) * Float.BYTES, ORDER);
+            var vb = FloatVector.fromMemorySegment(SPECIES, b, (bOffset + i) * Float.BYTES, ORDER);
+            vsum = va.fma(vb, vsum);
+        }
+
+        sum += vsum.reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            sum += a.getAtIndex(FLOAT, aOffset + i) * b.getAtIndex(FLOAT, bOffset + i);
+        }
+
+        return sum;
+    }
+
+    /** Returns {@code sum((a[i] - b[i])^2)}. */
+    public static float squaredDistance(VectorSpecies<Float> species,
+                                        MemorySegment a, long aOffset,
+                                        MemorySegment b, long bOffset,
+                                        long length) {
+        float sum = 0.0f;
+        long i = 0;
+        long upperBound = species == SPECIES ? loopBound(SPECIES, length) : 0;
+        long step = SPECIES.length();
+        var vsum = FloatVector.zero(SPECIES);
+
+        for (; i < upperBound; i += step) {
+            var va = FloatVector.fromMemorySegment(SPECIES, a, (aOffset + i) * Float.BYTES, ORDER);
+            var vb = FloatVector.fromMemorySegment(SPECIES, b, (bOffset + i) * Float.BYTES, ORDER);
+            var diff = va.sub(vb);
+            vsum = diff.fma(diff, vsum);
+        }
+
+        sum += vsum.reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            float diff = a.getAtIndex(FLOAT, aOffset + i) - b.getAtIndex(FLOAT, bOffset + i);
+            sum += diff * diff;
+        }
+
+        return sum;
+    }
+
+    /** {@code dst[i] = a[i] * b[i] + addend} */
+    public static void fma(VectorSpecies<Float> species,
+                           MemorySegment a, long aOffset,
+                           MemorySegment b, long bOffset,
+                           float addend,
+                           MemorySegment dst, long dstOffset,
+                           long length) {
+        long i = 0;
+        long upperBound = species == SPECIES ? loopBound(SPECIES, length) : 0;
+        long step = SPECIES.length();
+        var vaddend = FloatVector.broadcast(SPECIES, addend);
+
+        for (; i < upperBound; i += step) {
+            var va = FloatVector.fromMemorySegment(SPECIES, a, (aOffset + i) * Float.BYTES, ORDER);
+            var vb = FloatVector.fromMemorySegment(SPECIES, b, (bOffset + i) * Float.BYTES, ORDER);
+            va.fma(vb, vaddend).intoMemorySegment(dst, (dstOffset + i) * Float.BYTES, ORDER);
+        }
+
+        for (; i < length; i++) {
+            dst.setAtIndex(FLOAT, dstOffset + i, a.getAtIndex(FLOAT, aOffset + i) * b.getAtIndex(FLOAT, bOffset + i) + addend);
+        }
+    }
+
+    /** {@code dst[i] = sqrt(src[i])} */
+    public static void sqrt(VectorSpecies<Float> species,
+                            MemorySegment src, long srcOffset,
+                            MemorySegment dst, long dstOffset,
+                            long length) {
+        long i = 0;
+        long upperBound = loopBound(species, length);
+        long step = species.length();
+
+        for (; i < upperBound; i += step) {
+            var va = FloatVector.fromMemorySegment(species, src, (srcOffset + i) * Float.BYTES, ORDER);
+            va.sqrt().intoMemorySegment(dst, (dstOffset + i) * Float.BYTES, ORDER);
+        }
+
+        for (; i < length; i++) {
+            dst.setAtIndex(FLOAT, dstOffset + i, (float) Math.sqrt(src.getAtIndex(FLOAT, srcOffset + i)));
+        }
+    }
+
+    /** {@code dst[i] = sqrt(abs(src[i]))} */
+    public static void sqrtAbs(VectorSpecies<Float> species,
+                               MemorySegment src, long srcOffset,
+                               MemorySegment dst, long dstOffset,
+                               long length) {
+        long i = 0;
+        long upperBound = loopBound(species, length);
+        long step = species.length();
+
+        for (; i < upperBound; i += step) {
+            var va = FloatVector.fromMemorySegment(species, src, (srcOffset + i) * Float.BYTES, ORDER);
+            va.abs().sqrt().intoMemorySegment(dst, (dstOffset + i) * Float.BYTES, ORDER);
+        }
+
+        for (; i < length; i++) {
+            dst.setAtIndex(FLOAT, dstOffset + i, (float) Math.sqrt(Math.abs(src.getAtIndex(FLOAT, srcOffset + i))));
+        }
+    }
+
+    private static long loopBound(VectorSpecies<Float> species, long length) {
+        // Species lengths are powers of two
+        return length & -species.length();
+    }
+}
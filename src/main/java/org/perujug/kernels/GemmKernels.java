@@ -0,0 +1,295 @@
+package org.perujug.kernels;
+
+import jdk.incubator.vector.*;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Single-precision matrix multiplication {@code C = A * B} over row-major storage.
+ *
+ * <p>{@code A} is {@code m x k}, {@code B} is {@code k x n} and {@code C} is {@code m x n};
+ * {@code lda}, {@code ldb} and {@code ldc} are row strides in floats. The loops are blocked
+ * so a {@link #KC} x {@link #NC} panel of {@code B} stays in L2 while a {@link #MC}-row band
+ * of {@code A} streams through L1, and the innermost tile keeps {@link #MR} x 2 vectors of
+ * {@code C} in registers: one {@code B} row slice is loaded per step of {@code p} and reused
+ * against {@link #MR} broadcast elements of {@code A}.
+ *
+ * <p>Every loop here runs with {@link FloatVector#SPECIES_PREFERRED} read from a constant.
+ * The blocking loops are hot enough that C2 compiles them on their own rather than inlined
+ * into a caller, and with the species as an argument that code boxes every accumulator.
+ */
+public final class GemmKernels {
+
+    /** Rows of C held in registers by the micro-kernel. */
+    public static final int MR = 4;
+    /** Rows of A per L1 band. */
+    public static final int MC = 64;
+    /** Depth of the shared dimension per L2 panel. */
+    public static final int KC = 256;
+    /** Columns of B per L2 panel. */
+    public static final int NC = 1024;
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int VL = SPECIES.length();
+
+    private static final ValueLayout.OfFloat FLOAT = ValueLayout.JAVA_FLOAT;
+    private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+
+    private GemmKernels() {
+    }
+
+    public static void multiply(int m, int n, int k,
+                                float[] a, int lda,
+                                float[] b, int ldb,
+                                float[] c, int ldc) {
+        multiplyRows(0, m, n, k, a, lda, b, ldb, c, ldc);
+    }
+
+    /** Same as {@link #multiply}, with row bands of C computed in parallel on {@code pool}. */
+    public static void multiply(ForkJoinPool pool, int m, int n, int k,
+                                float[] a, int lda,
+                                float[] b, int ldb,
+                                float[] c, int ldc) {
+        pool.invoke(new BandTask(0, m, (from, to) -> multiplyRows(from, to, n, k, a, lda, b, ldb, c, ldc)));
+    }
+
+    public static void multiply(int m, int n, int k,
+                                MemorySegment a, long lda,
+                                MemorySegment b, long ldb,
+                                MemorySegment c, long ldc) {
+        multiplyRows(0, m, n, k, a, lda, b, ldb, c, ldc);
+    }
+
+    /** Same as {@link #multiply}, with row bands of C computed in parallel on {@code pool}. */
+    public static void multiply(ForkJoinPool pool, int m, int n, int k,
+                                MemorySegment a, long lda,
+                                MemorySegment b, long ldb,
+                                MemorySegment c, long ldc) {
+        pool.invoke(new BandTask(0, m, (from, to) -> multiplyRows(from, to, n, k, a, lda, b, ldb, c, ldc)));
+    }
+
+    // ==== float[] ====
+
+    private static void multiplyRows(int rowFrom, int rowTo, int n, int k,
+                                     float[] a, int lda, float[] b, int ldb, float[] c, int ldc) {
+        for (int i = rowFrom; i < rowTo; i++) {
+            Arrays.fill(c, i * ldc, i * ldc + n, 0.0f);
+        }
+
+        int nr = 2 * VL;
+        for (int jc = 0; jc < n; jc += NC) {
+            int jcEnd = Math.min(jc + NC, n);
+            for (int pc = 0; pc < k; pc += KC) {
+                int pcEnd = Math.min(pc + KC, k);
+                for (int ic = rowFrom; ic < rowTo; ic += MC) {
+                    int icEnd = Math.min(ic + MC, rowTo);
+                    for (int jr = jc; jr < jcEnd; jr += nr) {
+                        int width = Math.min(nr, jcEnd - jr);
+                        int ir = ic;
+                        if (width == nr) {
+                            for (; ir + MR <= icEnd; ir += MR) {
+                                microKernel(ir, jr, pc, pcEnd, a, lda, b, ldb, c, ldc);
+                            }
+                        }
+                        for (; ir < icEnd; ir++) {
+                            edgeKernel(ir, jr, width, pc, pcEnd, a, lda, b, ldb, c, ldc);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void microKernel(int i, int j, int pFrom, int pTo,
+                                    float[] a, int lda, float[] b, int ldb, float[] c, int ldc) {
+        int c0 = i * ldc + j;
+        int c1 = c0 + ldc;
+        int c2 = c1 + ldc;
+        int c3 = c2 + ldc;
+
+        var acc00 = FloatVector.fromArray(SPECIES, c, c0);
+        var acc01 = FloatVector.fromArray(SPECIES, c, c0 + VL);
+        var acc10 = FloatVector.fromArray(SPECIES, c, c1);
+        var acc11 = FloatVector.fromArray(SPECIES, c, c1 + VL);
+        var acc20 = FloatVector.fromArray(SPECIES, c, c2);
+        var acc21 = FloatVector.fromArray(SPECIES, c, c2 + VL);
+        var acc30 = FloatVector.fromArray(SPECIES, c, c3);
+        var acc31 = FloatVector.fromArray(SPECIES, c, c3 + VL);
+
+        int a0 = i * lda;
+        for (int p = pFrom; p < pTo; p++) {
+            int bRow = p * ldb + j;
+            var b0 = FloatVector.fromArray(SPECIES, b, bRow);
+            var b1 = FloatVector.fromArray(SPECIES, b, bRow + VL);
+
+            var va = FloatVector.broadcast(SPECIES, a[a0 + p]);
+            acc00 = b0.fma(va, acc00);
+            acc01 = b1.fma(va, acc01);
+            va = FloatVector.broadcast(SPECIES, a[a0 + lda + p]);
+            acc10 = b0.fma(va, acc10);
+            acc11 = b1.fma(va, acc11);
+            va = FloatVector.broadcast(SPECIES, a[a0 + 2 * lda + p]);
+            acc20 = b0.fma(va, acc20);
+            acc21 = b1.fma(va, acc21);
+            va = FloatVector.broadcast(SPECIES, a[a0 + 3 * lda + p]);
+            acc30 = b0.fma(va, acc30);
+            acc31 = b1.fma(va, acc31);
+        }
+
+        acc00.intoArray(c, c0);
+        acc01.intoArray(c, c0 + VL);
+        acc10.intoArray(c, c1);
+        acc11.intoArray(c, c1 + VL);
+        acc20.intoArray(c, c2);
+        acc21.intoArray(c, c2 + VL);
+        acc30.intoArray(c, c3);
+        acc31.intoArray(c, c3 + VL);
+    }
+
+    // One row of C, up to two vectors wide; the last vector is masked when width is ragged
+    private static void edgeKernel(int i, int j, int width, int pFrom, int pTo,
+                                   float[] a, int lda, float[] b, int ldb, float[] c, int ldc) {
+        int cRow = i * ldc;
+        int aRow = i * lda;
+        for (int jj = j; jj < j + width; jj += VL) {
+            var mask = SPECIES.indexInRange(jj, j + width);
+            var acc = FloatVector.fromArray(SPECIES, c, cRow + jj, mask);
+            for (int p = pFrom; p < pTo; p++) {
+                var vb = FloatVector.fromArray(SPECIES, b, p * ldb + jj, mask);
+                acc = vb.fma(FloatVector.broadcast(SPECIES, a[aRow + p]), acc);
+            }
+            acc.intoArray(c, cRow + jj, mask);
+        }
+    }
+
+    // ==== MemorySegment ====
+
+    private static void multiplyRows(int rowFrom, int rowTo, int n, int k,
+                                     MemorySegment a, long lda, MemorySegment b, long ldb, MemorySegment c, long ldc) {
+        for (int i = rowFrom; i < rowTo; i++) {
+            c.asSlice(i * ldc * Float.BYTES, (long) n * Float.BYTES).fill((byte) 0);
+        }
+
+        int nr = 2 * VL;
+        for (int jc = 0; jc < n; jc += NC) {
+            int jcEnd = Math.min(jc + NC, n);
+            for (int pc = 0; pc < k; pc += KC) {
+                int pcEnd = Math.min(pc + KC, k);
+                for (int ic = rowFrom; ic < rowTo; ic += MC) {
+                    int icEnd = Math.min(ic + MC, rowTo);
+                    for (int jr = jc; jr < jcEnd; jr += nr) {
+                        int width = Math.min(nr, jcEnd - jr);
+                        int ir = ic;
+                        if (width == nr) {
+                            for (; ir + MR <= icEnd; ir += MR) {
+                                microKernel(ir, jr, pc, pcEnd, a, lda, b, ldb, c, ldc);
+                            }
+                        }
+                        for (; ir < icEnd; ir++) {
+                            edgeKernel(ir, jr, width, pc, pcEnd, a, lda, b, ldb, c, ldc);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void microKernel(int i, int j, int pFrom, int pTo,
+                                    MemorySegment a, long lda, MemorySegment b, long ldb, MemorySegment c, long ldc) {
+        long vb = (long) VL * Float.BYTES;
+        long c0 = (i * ldc + j) * Float.BYTES;
+        long c1 = c0 + ldc * Float.BYTES;
+        long c2 = c1 + ldc * Float.BYTES;
+        long c3 = c2 + ldc * Float.BYTES;
+
+        var acc00 = FloatVector.fromMemorySegment(SPECIES, c, c0, ORDER);
+        var acc01 = FloatVector.fromMemorySegment(SPECIES, c, c0 + vb, ORDER);
+        var acc10 = FloatVector.fromMemorySegment(SPECIES, c, c1, ORDER);
+        var acc11 = FloatVector.fromMemorySegment(SPECIES, c, c1 + vb, ORDER);
+        var acc20 = FloatVector.fromMemorySegment(SPECIES, c, c2, ORDER);
+        var acc21 = FloatVector.fromMemorySegment(SPECIES, c, c2 + vb, ORDER);
+        var acc30 = FloatVector.fromMemorySegment(SPECIES, c, c3, ORDER);
+        var acc31 = FloatVector.fromMemorySegment(SPECIES, c, c3 + vb, ORDER);
+
+        long a0 = i * lda;
+        for (int p = pFrom; p < pTo; p++) {
+            long bRow = (p * ldb + j) * Float.BYTES;
+            var b0 = FloatVector.fromMemorySegment(SPECIES, b, bRow, ORDER);
+            var b1 = FloatVector.fromMemorySegment(SPECIES, b, bRow + vb, ORDER);
+
+            var va = FloatVector.broadcast(SPECIES, a.getAtIndex(FLOAT, a0 + p));
+            acc00 = b0.fma(va, acc00);
+            acc01 = b1.fma(va, acc01);
+            va = FloatVector.broadcast(SPECIES, a.getAtIndex(FLOAT, a0 + lda + p));
+            acc10 = b0.fma(va, acc10);
+            acc11 = b1.fma(va, acc11);
+            va = FloatVector.broadcast(SPECIES, a.getAtIndex(FLOAT, a0 + 2 * lda + p));
+            acc20 = b0.fma(va, acc20);
+            acc21 = b1.fma(va, acc21);
+            va = FloatVector.broadcast(SPECIES, a.getAtIndex(FLOAT, a0 + 3 * lda + p));
+            acc30 = b0.fma(va, acc30);
+            acc31 = b1.fma(va, acc31);
+        }
+
+        acc00.intoMemorySegment(c, c0, ORDER);
+        acc01.intoMemorySegment(c, c0 + vb, ORDER);
+        acc10.intoMemorySegment(c, c1, ORDER);
+        acc11.intoMemorySegment(c, c1 + vb, ORDER);
+        acc20.intoMemorySegment(c, c2, ORDER);
+        acc21.intoMemorySegment(c, c2 + vb, ORDER);
+        acc30.intoMemorySegment(c, c3, ORDER);
+        acc31.intoMemorySegment(c, c3 + vb, ORDER);
+    }
+
+
+    private static void edgeKernel(int i, int j, int width, int pFrom, int pTo,
+                                   MemorySegment a, long lda, MemorySegment b, long ldb, MemorySegment c, long ldc) {
+        long cRow = i * ldc;
+        long aRow = i * lda;
+        for (int jj = j; jj < j + width; jj += VL) {
+            var mask = SPECIES.indexInRange(jj, j + width);
+            var acc = FloatVector.fromMemorySegment(SPECIES, c, (cRow + jj) * Float.BYTES, ORDER, mask);
+            for (int p = pFrom; p < pTo; p++) {
+                var vb = FloatVector.fromMemorySegment(SPECIES, b, (p * ldb + jj) * Float.BYTES, ORDER, mask);
+                acc = vb.fma(FloatVector.broadcast(SPECIES, a.getAtIndex(FLOAT, aRow + p)), acc);
+            }
+            acc.intoMemorySegment(c, (cRow + jj) * Float.BYTES, ORDER, mask);
+        }
+    }
+
+    // ==== Parallel outer loop ====
+
+    @FunctionalInterface
+    private interface RowBand {
+        void run(int from, int to);
+    }
+
+    private static final class BandTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final RowBand band;
+
+        BandTask(int from, int to, RowBand band) {
+            this.from = from;
+            this.to = to;
+            this.band = band;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MC) {
+                band.run(from, to);
+                return;
+            }
+            // Split on an MC boundary so only the last band has a ragged row count
+            int bands = (to - from + MC - 1) / MC;
+            int mid = from + (bands / 2) * MC;
+            invokeAll(new BandTask(from, mid, band), new BandTask(mid, to, band));
+        }
+    }
+}
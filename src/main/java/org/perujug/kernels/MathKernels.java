@@ -0,0 +1,359 @@
+package org.perujug.kernels;
+
+import jdk.incubator.vector.*;
+
+/**
+ * Vectorized {@code exp}, {@code log}, {@code tanh} and {@code sigmoid} over {@code float[]}.
+ *
+ * <p>Each function comes in two flavours. The plain methods call
+ * {@link FloatVector#lanewise} with {@link VectorOperators#EXP} and friends, which C2 maps to
+ * the platform's vector math library when one is available. The {@code *Poly} methods use
+ * range reduction plus a polynomial written with the Vector API itself, in one of two modes:
+ * <ul>
+ *   <li>{@link Mode#STRICT} - Cephes coefficients, two-constant reduction, subnormal inputs
+ *       and results, and IEEE special values (NaN, infinities, zero, negative log arguments).
+ *       About 1-3 ULP.</li>
+ *   <li>{@link Mode#FAST} - lower-degree Taylor polynomials and one-constant reduction.
+ *       Inputs are assumed finite: {@code exp} clamps its argument to [-87.3, 88.3] and
+ *       {@code log} is only defined for positive normal floats. Tens of ULP.</li>
+ * </ul>
+ * {@code MathAccuracyReport} measures the actual max ULP error of every variant. Tails are
+ * handled with a masked final iteration so every element goes through the same code path.
+ *
+ * <p>The array methods run on {@link FloatVector#SPECIES_PREFERRED} held in a
+ * {@code static final}: their loops are usually compiled on their own before any caller, and
+ * only a constant species lets C2 keep the vectors in registers there. The {@link FloatVector}
+ * overloads take whatever species their argument has.
+ *
+ * <p>The polynomial steps call the Vector API directly rather than through small private
+ * helpers: to C2 such a helper is an ordinary call, and one left out of line once the inlining
+ * node budget is spent boxes every vector passed through it.
+ */
+public final class MathKernels {
+
+    /** Accuracy/speed trade-off of the polynomial kernels. */
+    public enum Mode {
+        FAST,
+        STRICT
+    }
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int VL = SPECIES.length();
+
+    private static final float LOG2E = 1.44269504088896341f;
+    private static final float LN2 = 0.693147180559945309f;
+    // ln 2 split so that n * LN2_HI is exact for the exponent range of float
+    private static final float LN2_HI = 0.693359375f;
+    private static final float LN2_LO = -2.12194440e-4f;
+    private static final float SQRT_HALF = 0.707106781186547524f;
+    // Adding 1.5 * 2^23 rounds to the nearest integer and leaves it in the low mantissa bits
+    private static final float ROUND_MAGIC = 0x1.8p23f;
+    private static final int ROUND_MAGIC_BITS = 0x4b400000;
+
+    private static final float EXP_MIN_STRICT = -104.0f;
+    private static final float EXP_MAX_STRICT = 88.8f;
+    private static final float EXP_MIN_FAST = -87.3f;
+    private static final float EXP_MAX_FAST = 88.3f;
+    private static final float TANH_SMALL = 0.625f;
+
+    private MathKernels() {
+    }
+
+    // ==== LANEWISE ====
+
+    // Each function has its own loop: the operator must be a constant at the lanewise call
+    // for C2 to use its vector math stubs
+
+    /** {@code dst[i] = exp(src[i])} via {@link VectorOperators#EXP}. */
+    public static void exp(float[] src, int srcOffset,
+                           float[] dst, int dstOffset,
+                           int length) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += VL) {
+            FloatVector.fromArray(SPECIES, src, srcOffset + i).lanewise(VectorOperators.EXP).intoArray(dst, dstOffset + i);
+        }
+
+        if (i < length) {
+            var m = SPECIES.indexInRange(i, length);
+            FloatVector.fromArray(SPECIES, src, srcOffset + i, m).lanewise(VectorOperators.EXP).intoArray(dst, dstOffset + i, m);
+        }
+    }
+
+    /** {@code dst[i] = log(src[i])} via {@link VectorOperators#LOG}. */
+    public static void log(float[] src, int srcOffset,
+                           float[] dst, int dstOffset,
+                           int length) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += VL) {
+            FloatVector.fromArray(SPECIES, src, srcOffset + i).lanewise(VectorOperators.LOG).intoArray(dst, dstOffset + i);
+        }
+
+        if (i < length) {
+            var m = SPECIES.indexInRange(i, length);
+            FloatVector.fromArray(SPECIES, src, srcOffset + i, m).lanewise(VectorOperators.LOG).intoArray(dst, dstOffset + i, m);
+        }
+    }
+
+    /** {@code dst[i] = tanh(src[i])} via {@link VectorOperators#TANH}. */
+    public static void tanh(float[] src, int srcOffset,
+                            float[] dst, int dstOffset,
+                            int length) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += VL) {
+            FloatVector.fromArray(SPECIES, src, srcOffset + i).lanewise(VectorOperators.TANH).intoArray(dst, dstOffset + i);
+        }
+
+        if (i < length) {
+            var m = SPECIES.indexInRange(i, length);
+            FloatVector.fromArray(SPECIES, src, srcOffset + i, m).lanewise(VectorOperators.TANH).intoArray(dst, dstOffset + i, m);
+        }
+    }
+
+    /** {@code dst[i] = 1 / (1 + exp(-src[i]))} via {@link VectorOperators#EXP}. */
+    public static void sigmoid(float[] src, int srcOffset,
+                               float[] dst, int dstOffset,
+                               int length) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += VL) {
+            var va = FloatVector.fromArray(SPECIES, src, srcOffset + i);
+            var denominator = va.neg().lanewise(VectorOperators.EXP).add(1.0f);
+            denominator.broadcast(1.0f).div(denominator).intoArray(dst, dstOffset + i);
+        }
+
+        if (i < length) {
+            var m = SPECIES.indexInRange(i, length);
+            var va = FloatVector.fromArray(SPECIES, src, srcOffset + i, m);
+            var denominator = va.neg().lanewise(VectorOperators.EXP).add(1.0f);
+            denominator.broadcast(1.0f).div(denominator).intoArray(dst, dstOffset + i, m);
+        }
+    }
+
+    // ==== POLYNOMIAL ====
+
+    /** {@code dst[i] = exp(src[i])} by range reduction and polynomial. */
+    public static void expPoly(Mode mode,
+                               float[] src, int srcOffset,
+                               float[] dst, int dstOffset,
+                               int length) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += VL) {
+            expPoly(FloatVector.fromArray(SPECIES, src, srcOffset + i), mode).intoArray(dst, dstOffset + i);
+        }
+
+        if (i < length) {
+            var m = SPECIES.indexInRange(i, length);
+            expPoly(FloatVector.fromArray(SPECIES, src, srcOffset + i, m), mode).intoArray(dst, dstOffset + i, m);
+        }
+    }
+
+    /** {@code dst[i] = log(src[i])} by range reduction and polynomial. */
+    public static void logPoly(Mode mode,
+                               float[] src, int srcOffset,
+                               float[] dst, int dstOffset,
+                               int length) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += VL) {
+            logPoly(FloatVector.fromArray(SPECIES, src, srcOffset + i), mode).intoArray(dst, dstOffset + i);
+        }
+
+        if (i < length) {
+            // Masked-off lanes load as zero; log(0) is harmless since they are not stored
+            var m = SPECIES.indexInRange(i, length);
+            logPoly(FloatVector.fromArray(SPECIES, src, srcOffset + i, m), mode).intoArray(dst, dstOffset + i, m);
+        }
+    }
+
+    /** {@code dst[i] = tanh(src[i])} by polynomial near zero and {@link #expPoly} elsewhere. */
+    public static void tanhPoly(Mode mode,
+                                float[] src, int srcOffset,
+                                float[] dst, int dstOffset,
+                                int length) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += VL) {
+            tanhPoly(FloatVector.fromArray(SPECIES, src, srcOffset + i), mode).intoArray(dst, dstOffset + i);
+        }
+
+        if (i < length) {
+            var m = SPECIES.indexInRange(i, length);
+            tanhPoly(FloatVector.fromArray(SPECIES, src, srcOffset + i, m), mode).intoArray(dst, dstOffset + i, m);
+        }
+    }
+
+    /** {@code dst[i] = 1 / (1 + exp(-src[i]))} using {@link #expPoly}. */
+    public static void sigmoidPoly(Mode mode,
+                                   float[] src, int srcOffset,
+                                   float[] dst, int dstOffset,
+                                   int length) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += VL) {
+            sigmoidPoly(FloatVector.fromArray(SPECIES, src, srcOffset + i), mode).intoArray(dst, dstOffset + i);
+        }
+
+        if (i < length) {
+            var m = SPECIES.indexInRange(i, length);
+            sigmoidPoly(FloatVector.fromArray(SPECIES, src, srcOffset + i, m), mode).intoArray(dst, dstOffset + i, m);
+        }
+    }
+
+    /**
+     * {@code exp(x)}: {@code x = n ln2 + r} with {@code |r| <= ln2 / 2}, a polynomial for
+     * {@code exp(r)}, then a scale by {@code 2^n} built directly in the exponent bits.
+     * Strict mode scales in two halves so that results in the subnormal range come out right.
+     */
+    public static FloatVector expPoly(FloatVector x, Mode mode) {
+        // Each mode is its own method so that both stay under C2's inlining limit
+        return mode == Mode.STRICT ? expPolyStrict(x) : expPolyFast(x);
+    }
+
+    private static FloatVector expPolyStrict(FloatVector x) {
+        var t = x.max(EXP_MIN_STRICT).min(EXP_MAX_STRICT);
+
+        var shifted = t.fma(LOG2E, ROUND_MAGIC);
+        var n = shifted.sub(ROUND_MAGIC);
+        var ni = shifted.reinterpretAsInts().sub(ROUND_MAGIC_BITS);
+
+        var r = n.lanewise(VectorOperators.FMA, -LN2_HI, t);
+        r = n.lanewise(VectorOperators.FMA, -LN2_LO, r);
+        var p = r.fma(1.9875691500e-4f, 1.3981999507e-3f);
+        p = p.lanewise(VectorOperators.FMA, r, 8.3334519073e-3f);
+        p = p.lanewise(VectorOperators.FMA, r, 4.1665795894e-2f);
+        p = p.lanewise(VectorOperators.FMA, r, 1.6666665459e-1f);
+        p = p.lanewise(VectorOperators.FMA, r, 5.0000001201e-1f);
+        p = p.fma(r.mul(r), r).add(1.0f);
+
+        // 2^n for n in [-126, 127], assembled in the exponent field, in two halves
+        var half = ni.lanewise(VectorOperators.ASHR, 1);
+        var low = half.add(127).lanewise(VectorOperators.LSHL, 23).reinterpretAsFloats();
+        var high = ni.sub(half).add(127).lanewise(VectorOperators.LSHL, 23).reinterpretAsFloats();
+        return p.mul(low).mul(high);
+    }
+
+    private static FloatVector expPolyFast(FloatVector x) {
+        var t = x.max(EXP_MIN_FAST).min(EXP_MAX_FAST);
+
+        var shifted = t.fma(LOG2E, ROUND_MAGIC);
+        var n = shifted.sub(ROUND_MAGIC);
+        var ni = shifted.reinterpretAsInts().sub(ROUND_MAGIC_BITS);
+
+        var r = n.lanewise(VectorOperators.FMA, -LN2, t);
+        var p = r.fma(1.0f / 120, 1.0f / 24);
+        p = p.lanewise(VectorOperators.FMA, r, 1.0f / 6);
+        p = p.lanewise(VectorOperators.FMA, r, 0.5f);
+        p = p.lanewise(VectorOperators.FMA, r, 1.0f);
+        p = p.lanewise(VectorOperators.FMA, r, 1.0f);
+
+        // 2^n for n in [-126, 127], assembled in the exponent field
+        return p.mul(ni.add(127).lanewise(VectorOperators.LSHL, 23).reinterpretAsFloats());
+    }
+
+    /**
+     * {@code log(x)}: {@code x = m 2^e} with {@code m} in [sqrt(1/2), sqrt(2)), then
+     * {@code log(x) = e ln2 + log(m)}. Strict mode uses the Cephes {@code logf} polynomial
+     * in {@code f = m - 1}; fast mode uses three terms of {@code 2 atanh((m - 1) / (m + 1))}.
+     */
+    public static FloatVector logPoly(FloatVector x, Mode mode) {
+        // Each mode is its own method, and strict special values are patched here, so that
+        // everything stays under C2's inlining limit
+        if (mode == Mode.FAST) {
+            return logPolyFast(x);
+        }
+        var result = logPolyStrict(x);
+        result = result.blend(Float.NEGATIVE_INFINITY, x.compare(VectorOperators.EQ, 0.0f));
+        result = result.blend(Float.POSITIVE_INFINITY, x.compare(VectorOperators.EQ, Float.POSITIVE_INFINITY));
+        return result.blend(Float.NaN, x.compare(VectorOperators.LT, 0.0f).or(x.test(VectorOperators.IS_NAN)));
+    }
+
+    private static FloatVector logPolyStrict(FloatVector x) {
+        // Bring subnormals into the normal range; their exponent is corrected below
+        var subnormal = x.compare(VectorOperators.LT, Float.MIN_NORMAL);
+        var bits = x.mul(0x1p23f, subnormal).reinterpretAsInts();
+        var exponent = (FloatVector) bits.lanewise(VectorOperators.LSHR, 23).sub(126)
+                .convert(VectorOperators.I2F, 0);
+        var m = bits.and(0x007fffff).or(0x3f000000).reinterpretAsFloats();
+
+        // m is in [1/2, 1); move the lower part up to [sqrt(1/2), 1) by doubling
+        var small = m.compare(VectorOperators.LT, SQRT_HALF);
+        exponent = exponent.sub(1.0f, small).sub(23.0f, subnormal);
+        var f = m.add(m, small).sub(1.0f);
+
+        var z = f.mul(f);
+        var y = f.fma(7.0376836292e-2f, -1.1514610310e-1f);
+        y = y.lanewise(VectorOperators.FMA, f, 1.1676998740e-1f);
+        y = y.lanewise(VectorOperators.FMA, f, -1.2420140846e-1f);
+        y = y.lanewise(VectorOperators.FMA, f, 1.4249322787e-1f);
+        y = y.lanewise(VectorOperators.FMA, f, -1.6668057665e-1f);
+        y = y.lanewise(VectorOperators.FMA, f, 2.0000714765e-1f);
+        y = y.lanewise(VectorOperators.FMA, f, -2.4999993993e-1f);
+        y = y.lanewise(VectorOperators.FMA, f, 3.3333331174e-1f);
+        y = y.mul(f).mul(z);
+        y = exponent.lanewise(VectorOperators.FMA, LN2_LO, y);
+        y = z.lanewise(VectorOperators.FMA, -0.5f, y);
+        return exponent.lanewise(VectorOperators.FMA, LN2_HI, f.add(y));
+    }
+
+    private static FloatVector logPolyFast(FloatVector x) {
+        var bits = x.reinterpretAsInts();
+        var exponent = (FloatVector) bits.lanewise(VectorOperators.LSHR, 23).sub(126)
+                .convert(VectorOperators.I2F, 0);
+        var m = bits.and(0x007fffff).or(0x3f000000).reinterpretAsFloats();
+
+        var small = m.compare(VectorOperators.LT, SQRT_HALF);
+        exponent = exponent.sub(1.0f, small);
+        var f = m.add(m, small).sub(1.0f);
+
+        var s = f.div(f.add(2.0f));
+        var s2 = s.mul(s);
+        var atanh = s2.fma(1.0f / 5, 1.0f / 3).lanewise(VectorOperators.FMA, s2, 1.0f).mul(s);
+        return exponent.lanewise(VectorOperators.FMA, LN2, atanh.add(atanh));
+    }
+
+    /**
+     * {@code tanh(x)}: the Cephes {@code tanhf} odd polynomial below |x| = 0.625, and
+     * {@code 1 - 2 / (exp(2|x|) + 1)} with the sign of {@code x} above it.
+     */
+    public static FloatVector tanhPoly(FloatVector x, Mode mode) {
+        var ax = x.abs();
+
+        var s = x.mul(x);
+        var near = s.fma(-5.70498872745e-3f, 2.06390887954e-2f);
+        near = near.lanewise(VectorOperators.FMA, s, -5.37397155531e-2f);
+        near = near.lanewise(VectorOperators.FMA, s, 1.33314422036e-1f);
+        near = near.lanewise(VectorOperators.FMA, s, -3.33332819422e-1f);
+        near = near.mul(s).fma(x, x);
+
+        var e = expPoly(ax.add(ax), mode);
+        var far = e.broadcast(-2.0f).div(e.add(1.0f)).add(1.0f);
+        var sign = x.reinterpretAsInts().and(0x80000000);
+        far = far.reinterpretAsInts().or(sign).reinterpretAsFloats();
+
+        return far.blend(near, ax.compare(VectorOperators.LT, TANH_SMALL));
+    }
+
+    /**
+     * {@code sigmoid(x)} as {@code 1 / (1 + t)} for {@code x >= 0} and {@code t / (1 + t)}
+     * otherwise, with {@code t = exp(-|x|)}, so large negative inputs keep their relative
+     * precision instead of cancelling.
+     */
+    public static FloatVector sigmoidPoly(FloatVector x, Mode mode) {
+        var t = expPoly(x.abs().neg(), mode);
+        var denominator = t.add(1.0f);
+        var s = denominator.broadcast(1.0f).div(denominator);
+        return s.blend(t.mul(s), x.compare(VectorOperators.LT, 0.0f));
+    }
+}
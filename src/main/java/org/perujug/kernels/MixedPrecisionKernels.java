@@ -0,0 +1,81 @@
+package org.perujug.kernels;
+
+import jdk.incubator.vector.*;
+
+/**
+ * Reductions over {@code float[]} storage with double-precision accumulation.
+ *
+ * <p>Each float vector is widened with {@code convertShape(F2D, ...)} into the low and high
+ * halves of a same-shape {@link DoubleVector}, and each half feeds its own double accumulator.
+ * Storage and memory traffic stay those of float, while the error of a long sum grows with
+ * the double epsilon instead of the float one. The product of two floats is exact in
+ * double, so the dot product multiplies after widening.
+ *
+ * <p>The loops are compiled on their own before any caller, so they only run on
+ * {@link FloatVector#SPECIES_PREFERRED} and the double species derived from it, both
+ * {@code static final}; any other species takes the scalar loop for the whole range.
+ */
+public final class MixedPrecisionKernels {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> WIDE_SPECIES = SPECIES.withLanes(double.class);
+
+    private MixedPrecisionKernels() {
+    }
+
+    /** Returns {@code sum(a[i] * b[i])}, accumulated in double. */
+    public static double dot(VectorSpecies<Float> species,
+                             float[] a, int aOffset,
+                             float[] b, int bOffset,
+                             int length) {
+        double sum = 0.0;
+        int i = 0;
+        int upperBound = species == SPECIES ? SPECIES.loopBound(length) : 0;
+        var vsumLow = DoubleVector.zero(WIDE_SPECIES);
+        var vsumHigh = DoubleVector.zero(WIDE_SPECIES);
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + i);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + i);
+            var aLow = (DoubleVector) va.convertShape(VectorOperators.F2D, WIDE_SPECIES, 0);
+            var bLow = vb.convertShape(VectorOperators.F2D, WIDE_SPECIES, 0);
+            var aHigh = (DoubleVector) va.convertShape(VectorOperators.F2D, WIDE_SPECIES, 1);
+            var bHigh = vb.convertShape(VectorOperators.F2D, WIDE_SPECIES, 1);
+            vsumLow = aLow.fma(bLow, vsumLow);
+            vsumHigh = aHigh.fma(bHigh, vsumHigh);
+        }
+
+        sum += vsumLow.add(vsumHigh).reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            sum += (double) a[aOffset + i] * b[bOffset + i];
+        }
+
+        return sum;
+    }
+
+    /** Returns {@code sum(src[i])}, accumulated in double. */
+    public static double sum(VectorSpecies<Float> species,
+                             float[] src, int srcOffset,
+                             int length) {
+        double sum = 0.0;
+        int i = 0;
+        int upperBound = species == SPECIES ? SPECIES.loopBound(length) : 0;
+        var vsumLow = DoubleVector.zero(WIDE_SPECIES);
+        var vsumHigh = DoubleVector.zero(WIDE_SPECIES);
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            var v = FloatVector.fromArray(SPECIES, src, srcOffset + i);
+            vsumLow = vsumLow.add(v.convertShape(VectorOperators.F2D, WIDE_SPECIES, 0));
+            vsumHigh = vsumHigh.add(v.convertShape(VectorOperators.F2D, WIDE_SPECIES, 1));
+        }
+
+        sum += vsumLow.add(vsumHigh).reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            sum += src[srcOffset + i];
+        }
+
+        return sum;
+    }
+}
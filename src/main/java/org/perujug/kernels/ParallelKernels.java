@@ -0,0 +1,163 @@
+package org.perujug.kernels;
+
+import jdk.incubator.vector.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Multi-core versions of the {@link FloatKernels} on a {@link ForkJoinPool}.
+ *
+ * <p>Ranges are split in halves until a piece is at most {@link #CHUNK_SIZE} floats;
+ * each leaf then runs the single-threaded SIMD kernel. Dot product partial sums are
+ * combined pairwise on the way back up the same split tree.
+ *
+ * <p>The leaves run with {@link FloatVector#SPECIES_PREFERRED} read from a constant. A
+ * species held in a task field or captured by a lambda is not a constant to the compiled
+ * leaf, and the kernel inlined there boxes every vector.
+ */
+public final class ParallelKernels {
+
+    /** Floats per leaf: three 64 KiB streams, which stays inside a typical per-core L2. */
+    public static final int CHUNK_SIZE = 16 * 1024;
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private ParallelKernels() {
+    }
+
+    /** {@code dst[i] = a[i] + b[i]} */
+    public static void add(ForkJoinPool pool,
+                           float[] a, int aOffset,
+                           float[] b, int bOffset,
+                           float[] dst, int dstOffset,
+                           int length) {
+        pool.invoke(new RangeTask(0, length, (from, n) ->
+                FloatKernels.add(SPECIES, a, aOffset + from, b, bOffset + from, dst, dstOffset + from, n)));
+    }
+
+    /** {@code dst[i] = a[i] * b[i] + addend} */
+    public static void fma(ForkJoinPool pool,
+                           float[] a, int aOffset,
+                           float[] b, int bOffset,
+                           float addend,
+                           float[] dst, int dstOffset,
+                           int length) {
+        pool.invoke(new RangeTask(0, length, (from, n) ->
+                FloatKernels.fma(SPECIES, a, aOffset + from, b, bOffset + from, addend, dst, dstOffset + from, n)));
+    }
+
+    /** {@code dst[i] = sqrt(src[i])} */
+    public static void sqrt(ForkJoinPool pool,
+                            float[] src, int srcOffset,
+                            float[] dst, int dstOffset,
+                            int length) {
+        pool.invoke(new RangeTask(0, length, (from, n) ->
+                FloatKernels.sqrt(SPECIES, src, srcOffset + from, dst, dstOffset + from, n)));
+    }
+
+    /** {@code dst[i] = sqrt(abs(src[i]))} */
+    public static void sqrtAbs(ForkJoinPool pool,
+                               float[] src, int srcOffset,
+                               float[] dst, int dstOffset,
+                               int length) {
+        pool.invoke(new RangeTask(0, length, (from, n) ->
+                FloatKernels.sqrtAbs(SPECIES, src, srcOffset + from, dst, dstOffset + from, n)));
+    }
+
+    /** {@code dst[i] = sum(taps[k] * src[i + k])}; see {@link ConvolutionKernels#fir}. */
+    public static void fir(ForkJoinPool pool,
+                           float[] src, int srcOffset,
+                           float[] taps,
+                           float[] dst, int dstOffset,
+                           int length) {
+        pool.invoke(new RangeTask(0, length, (from, n) ->
+                ConvolutionKernels.fir(SPECIES, src, srcOffset + from, taps, dst, dstOffset + from, n)));
+    }
+
+    /**
+     * {@code dst[i] = mean(src[i] .. src[i + window - 1])}; see {@link ConvolutionKernels#movingAverage}.
+     * {@link #CHUNK_SIZE} is a multiple of its block, so the result matches the single-threaded one.
+     */
+    public static void movingAverage(ForkJoinPool pool,
+                                     float[] src, int srcOffset,
+                                     int window,
+                                     float[] dst, int dstOffset,
+                                     int length) {
+        pool.invoke(new RangeTask(0, length, (from, n) ->
+                ConvolutionKernels.movingAverage(SPECIES, src, srcOffset + from, window, dst, dstOffset + from, n)));
+    }
+
+    /** Returns {@code sum(a[i] * b[i])}. */
+    public static float dot(ForkJoinPool pool,
+                            float[] a, int aOffset,
+                            float[] b, int bOffset,
+                            int length) {
+        return pool.invoke(new DotTask(a, aOffset, b, bOffset, 0, length));
+    }
+
+    @FunctionalInterface
+    private interface RangeOp {
+        void run(int from, int length);
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final RangeOp op;
+
+        RangeTask(int from, int to, RangeOp op) {
+            this.from = from;
+            this.to = to;
+            this.op = op;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                op.run(from, to - from);
+                return;
+            }
+            int mid = split(from, to);
+            invokeAll(new RangeTask(from, mid, op), new RangeTask(mid, to, op));
+        }
+    }
+
+    private static final class DotTask extends RecursiveTask<Float> {
+        private final float[] a;
+        private final int aOffset;
+        private final float[] b;
+        private final int bOffset;
+        private final int from;
+        private final int to;
+
+        DotTask(float[] a, int aOffset, float[] b, int bOffset, int from, int to) {
+            this.a = a;
+            this.aOffset = aOffset;
+            this.b = b;
+            this.bOffset = bOffset;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Float compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return FloatKernels.dot(SPECIES, a, aOffset + from, b, bOffset + from, to - from);
+            }
+            int mid = split(from, to);
+            var left = new DotTask(a, aOffset, b, bOffset, from, mid);
+            var right = new DotTask(a, aOffset, b, bOffset, mid, to);
+            left.fork();
+            float rightSum = right.compute();
+            return left.join() + rightSum;
+        }
+    }
+
+    // Split on a CHUNK_SIZE boundary so every leaf but the last runs without a scalar tail
+    private static int split(int from, int to) {
+        int chunks = Math.ceilDiv(to - from, CHUNK_SIZE);
+        return from + (chunks / 2) * CHUNK_SIZE;
+    }
+}
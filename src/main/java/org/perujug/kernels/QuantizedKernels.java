@@ -0,0 +1,186 @@
+package org.perujug.kernels;
+
+import jdk.incubator.vector.*;
+
+/**
+ * Dot products over 8-bit integer codes and IEEE 754 half-precision floats.
+ *
+ * <p>Narrow lanes are loaded at full vector width and widened in registers: each
+ * {@code ByteVector} is split into four {@code IntVector} parts and each {@code ShortVector}
+ * of halves into two {@code FloatVector} parts, so memory traffic is a quarter or a half
+ * of the {@code float} kernels. The half-by-half dot product loads half a vector of each
+ * operand instead, so that each converts to exactly one {@code FloatVector}.
+ *
+ * <p>The loops are compiled on their own before any caller, so they run on the preferred
+ * byte and short species held in {@code static final} fields, from which the widened int and
+ * float species are derived as constants too. Any other species takes the scalar loop for the
+ * whole range.
+ *
+ * <p>The vector conversion only handles finite halves; a vector holding an infinity or NaN goes
+ * through {@link Float#float16ToFloat} lane by lane instead, so special values come out exactly
+ * as in the scalar loop.
+ */
+public final class QuantizedKernels {
+
+    /** Elements per block before spilling to {@code long}: even 128 * 128 * 32768 fits in an int lane. */
+    private static final int INT8_BLOCK = 32 * 1024;
+
+    private static final VectorSpecies<Byte> BYTE_SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> BYTE_INT_SPECIES = BYTE_SPECIES.withLanes(int.class);
+    private static final VectorSpecies<Short> SHORT_SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> SHORT_INT_SPECIES = SHORT_SPECIES.withLanes(int.class);
+    private static final VectorSpecies<Float> FLOAT_SPECIES = SHORT_SPECIES.withLanes(float.class);
+    // As many halves as FLOAT_SPECIES has lanes, in half its width
+    private static final VectorSpecies<Short> HALF_SHORT_SPECIES =
+            VectorSpecies.of(short.class, VectorShape.forBitSize(FLOAT_SPECIES.vectorBitSize() / 2));
+    // A half with all exponent bits set is an infinity or a NaN
+    private static final short HALF_EXPONENT = 0x7c00;
+
+    private QuantizedKernels() {
+    }
+
+    /** Returns {@code sum(a[i] * b[i])} over signed 8-bit codes. */
+    public static long dotInt8(VectorSpecies<Byte> species,
+                               byte[] a, int aOffset,
+                               byte[] b, int bOffset,
+                               int length) {
+        long sum = 0;
+        int i = 0;
+        int upperBound = species == BYTE_SPECIES ? BYTE_SPECIES.loopBound(length) : 0;
+
+        while (i < upperBound) {
+            int blockEnd = Math.min(upperBound, i + INT8_BLOCK);
+            var acc0 = IntVector.zero(BYTE_INT_SPECIES);
+            var acc1 = acc0;
+            var acc2 = acc0;
+            var acc3 = acc0;
+
+            for (; i < blockEnd; i += BYTE_SPECIES.length()) {
+                var va = ByteVector.fromArray(BYTE_SPECIES, a, aOffset + i);
+                var vb = ByteVector.fromArray(BYTE_SPECIES, b, bOffset + i);
+                acc0 = acc0.add(widen(va, 0).mul(widen(vb, 0)));
+                acc1 = acc1.add(widen(va, 1).mul(widen(vb, 1)));
+                acc2 = acc2.add(widen(va, 2).mul(widen(vb, 2)));
+                acc3 = acc3.add(widen(va, 3).mul(widen(vb, 3)));
+            }
+
+            sum += acc0.add(acc1).add(acc2.add(acc3)).reduceLanesToLong(VectorOperators.ADD);
+        }
+
+        // Handle remaining elements
+        for (; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+
+        return sum;
+    }
+
+    /** Returns {@code sum(a[i] * b[i])} over half-precision bit patterns. */
+    public static float dotFloat16(VectorSpecies<Short> species,
+                                   short[] a, int aOffset,
+                                   short[] b, int bOffset,
+                                   int length) {
+        float sum = 0.0f;
+        int i = 0;
+        int upperBound = species == SHORT_SPECIES ? HALF_SHORT_SPECIES.loopBound(length) : 0;
+        var acc = FloatVector.zero(FLOAT_SPECIES);
+
+        // Two conversions per iteration: with four, the loop reaches C2's inlining node budget
+        // before the last one and boxes its operands
+        for (; i < upperBound; i += HALF_SHORT_SPECIES.length()) {
+            var va = ShortVector.fromArray(HALF_SHORT_SPECIES, a, aOffset + i);
+            var vb = ShortVector.fromArray(HALF_SHORT_SPECIES, b, bOffset + i);
+            var exponents = va.and(HALF_EXPONENT).max(vb.and(HALF_EXPONENT));
+            if (exponents.compare(VectorOperators.EQ, HALF_EXPONENT).anyTrue()) {
+                for (int j = i; j < i + HALF_SHORT_SPECIES.length(); j++) {
+                    sum += Float.float16ToFloat(a[aOffset + j]) * Float.float16ToFloat(b[bOffset + j]);
+                }
+                continue;
+            }
+            acc = halfToFloat(va, 0).fma(halfToFloat(vb, 0), acc);
+        }
+
+        sum += acc.reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            sum += Float.float16ToFloat(a[aOffset + i]) * Float.float16ToFloat(b[bOffset + i]);
+        }
+
+        return sum;
+    }
+
+    /** Returns {@code sum(a[i] * b[i])} with {@code a} in half precision and {@code b} in float. */
+    public static float dotFloat16(VectorSpecies<Short> species,
+                                   short[] a, int aOffset,
+                                   float[] b, int bOffset,
+                                   int length) {
+        int half = FLOAT_SPECIES.length();
+        float sum = 0.0f;
+        int i = 0;
+        int upperBound = species == SHORT_SPECIES ? SHORT_SPECIES.loopBound(length) : 0;
+        var acc0 = FloatVector.zero(FLOAT_SPECIES);
+        var acc1 = acc0;
+
+        for (; i < upperBound; i += SHORT_SPECIES.length()) {
+            var va = ShortVector.fromArray(SHORT_SPECIES, a, aOffset + i);
+            if (va.and(HALF_EXPONENT).compare(VectorOperators.EQ, HALF_EXPONENT).anyTrue()) {
+                for (int j = i; j < i + SHORT_SPECIES.length(); j++) {
+                    sum += Float.float16ToFloat(a[aOffset + j]) * b[bOffset + j];
+                }
+                continue;
+            }
+            acc0 = halfToFloat(va, 0).fma(FloatVector.fromArray(FLOAT_SPECIES, b, bOffset + i), acc0);
+            acc1 = halfToFloat(va, 1).fma(FloatVector.fromArray(FLOAT_SPECIES, b, bOffset + i + half), acc1);
+        }
+
+        sum += acc0.add(acc1).reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; i++) {
+            sum += Float.float16ToFloat(a[aOffset + i]) * b[bOffset + i];
+        }
+
+        return sum;
+    }
+
+    /** {@code dst[i] = (float) src[i]} for half-precision bit patterns. */
+    public static void decodeFloat16(VectorSpecies<Short> species,
+                                     short[] src, int srcOffset,
+                                     float[] dst, int dstOffset,
+                                     int length) {
+        int half = FLOAT_SPECIES.length();
+        int i = 0;
+        int upperBound = species == SHORT_SPECIES ? SHORT_SPECIES.loopBound(length) : 0;
+
+        for (; i < upperBound; i += SHORT_SPECIES.length()) {
+            var va = ShortVector.fromArray(SHORT_SPECIES, src, srcOffset + i);
+            if (va.and(HALF_EXPONENT).compare(VectorOperators.EQ, HALF_EXPONENT).anyTrue()) {
+                for (int j = i; j < i + SHORT_SPECIES.length(); j++) {
+                    dst[dstOffset + j] = Float.float16ToFloat(src[srcOffset + j]);
+                }
+                continue;
+            }
+            halfToFloat(va, 0).intoArray(dst, dstOffset + i);
+            halfToFloat(va, 1).intoArray(dst, dstOffset + i + half);
+        }
+
+        for (; i < length; i++) {
+            dst[dstOffset + i] = Float.float16ToFloat(src[srcOffset + i]);
+        }
+    }
+
+    private static IntVector widen(ByteVector v, int part) {
+        return (IntVector) v.convertShape(VectorOperators.B2I, BYTE_INT_SPECIES, part);
+    }
+
+    /**
+     * Converts one half of a vector of finite binary16 bit patterns to floats with integer ops:
+     * sign extension and a shift put sign, exponent and mantissa into float position, and
+     * scaling by 2^112 rebiases the exponent, exactly for normals and subnormals. Infinities
+     * and NaNs come out as finite values of at least 2^16, so callers route them elsewhere.
+     */
+    private static FloatVector halfToFloat(ShortVector v, int part) {
+        var bits = (IntVector) v.convertShape(VectorOperators.S2I, SHORT_INT_SPECIES, part);
+        var shifted = bits.lanewise(VectorOperators.LSHL, 13).and(0x8fffe000);
+        return shifted.reinterpretAsFloats().mul(0x1p112f);
+    }
+}
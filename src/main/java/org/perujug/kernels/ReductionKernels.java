@@ -0,0 +1,226 @@
+package org.perujug.kernels;
+
+import jdk.incubator.vector.*;
+
+/**
+ * Single-pass reductions over heap {@code float[]} ranges beyond the sums in {@link FloatKernels}.
+ *
+ * <p>Each kernel keeps lane-wise accumulators across the loop and reduces across lanes only
+ * once, after the last full vector; the scalar tail then continues from the reduced value.
+ * Indices returned by {@link #argmin} and {@link #argmax} are relative to the offset, and ties
+ * resolve to the first occurrence. Min and max propagate NaN like {@link Math#min}; argmin and
+ * argmax skip NaN, and take the scalar loop for the whole range on any species other than
+ * {@link FloatVector#SPECIES_PREFERRED}.
+ */
+public final class ReductionKernels {
+
+    /** Vectors per float Welford block in {@link #meanVariance}. */
+    public static final int WELFORD_BLOCK = 1024;
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int VL = SPECIES.length();
+    private static final VectorSpecies<Integer> INT_SPECIES = SPECIES.withLanes(int.class);
+
+    private ReductionKernels() {
+    }
+
+    /** Count, mean and sum of squared deviations from the mean, as accumulated by Welford's method. */
+    public record MeanVariance(long count, double mean, double m2) {
+
+        /** Population variance, {@code m2 / count}. */
+        public double variance() {
+            return count == 0 ? Double.NaN : m2 / count;
+        }
+
+        /** Sample variance, {@code m2 / (count - 1)}. */
+        public double sampleVariance() {
+            return count < 2 ? Double.NaN : m2 / (count - 1);
+        }
+    }
+
+    /** Returns {@code min(src[i])}, or {@code +Infinity} for an empty range. */
+    public static float min(VectorSpecies<Float> species,
+                            float[] src, int srcOffset,
+                            int length) {
+        int i = 0;
+        int upperBound = species.loopBound(length);
+        var vmin = FloatVector.broadcast(species, Float.POSITIVE_INFINITY);
+
+        for (; i < upperBound; i += species.length()) {
+            vmin = vmin.min(FloatVector.fromArray(species, src, srcOffset + i));
+        }
+
+        float min = vmin.reduceLanes(VectorOperators.MIN);
+
+        for (; i < length; i++) {
+            min = Math.min(min, src[srcOffset + i]);
+        }
+
+        return min;
+    }
+
+    /** Returns {@code max(src[i])}, or {@code -Infinity} for an empty range. */
+    public static float max(VectorSpecies<Float> species,
+                            float[] src, int srcOffset,
+                            int length) {
+        int i = 0;
+        int upperBound = species.loopBound(length);
+        var vmax = FloatVector.broadcast(species, Float.NEGATIVE_INFINITY);
+
+        for (; i < upperBound; i += species.length()) {
+            vmax = vmax.max(FloatVector.fromArray(species, src, srcOffset + i));
+        }
+
+        float max = vmax.reduceLanes(VectorOperators.MAX);
+
+        for (; i < length; i++) {
+            max = Math.max(max, src[srcOffset + i]);
+        }
+
+        return max;
+    }
+
+    /** Returns the index of the smallest {@code src[i]}, or -1 if there is none. */
+    public static int argmin(VectorSpecies<Float> species,
+                             float[] src, int srcOffset,
+                             int length) {
+        int i = 0;
+        // The loop is compiled on its own, so it only runs on the constant species
+        int upperBound = species == SPECIES ? SPECIES.loopBound(length) : 0;
+        var vmin = FloatVector.broadcast(SPECIES, Float.NaN);
+        var vindex = IntVector.broadcast(INT_SPECIES, -1);
+        var lanes = IntVector.zero(INT_SPECIES).addIndex(1);
+
+        // Each lane keeps its first strictly smaller value and where it was seen; a lane that
+        // holds NaN (nothing seen yet, or only NaN) takes whatever comes next
+        for (; i < upperBound; i += VL) {
+            var v = FloatVector.fromArray(SPECIES, src, srcOffset + i);
+            var m = v.compare(VectorOperators.LT, vmin).or(vmin.test(VectorOperators.IS_NAN));
+            vmin = vmin.blend(v, m);
+            vindex = vindex.blend(lanes.add(i), m.cast(INT_SPECIES));
+        }
+
+        var seen = vmin.test(VectorOperators.IS_NAN).not();
+        float min = vmin.reduceLanes(VectorOperators.MIN, seen);
+        int index = firstIndex(vmin, vindex, seen, min);
+
+        for (; i < length; i++) {
+            float x = src[srcOffset + i];
+            if (x < min || index < 0 && !Float.isNaN(x)) {
+                min = x;
+                index = i;
+            }
+        }
+
+        return index;
+    }
+
+    /** Returns the index of the largest {@code src[i]}, or -1 if there is none. */
+    public static int argmax(VectorSpecies<Float> species,
+                             float[] src, int srcOffset,
+                             int length) {
+        int i = 0;
+        // The loop is compiled on its own, so it only runs on the constant species
+        int upperBound = species == SPECIES ? SPECIES.loopBound(length) : 0;
+        var vmax = FloatVector.broadcast(SPECIES, Float.NaN);
+        var vindex = IntVector.broadcast(INT_SPECIES, -1);
+        var lanes = IntVector.zero(INT_SPECIES).addIndex(1);
+
+        for (; i < upperBound; i += VL) {
+            var v = FloatVector.fromArray(SPECIES, src, srcOffset + i);
+            var m = v.compare(VectorOperators.GT, vmax).or(vmax.test(VectorOperators.IS_NAN));
+            vmax = vmax.blend(v, m);
+            vindex = vindex.blend(lanes.add(i), m.cast(INT_SPECIES));
+        }
+
+        var seen = vmax.test(VectorOperators.IS_NAN).not();
+        float max = vmax.reduceLanes(VectorOperators.MAX, seen);
+        int index = firstIndex(vmax, vindex, seen, max);
+
+        for (; i < length; i++) {
+            float x = src[srcOffset + i];
+            if (x > max || index < 0 && !Float.isNaN(x)) {
+                max = x;
+                index = i;
+            }
+        }
+
+        return index;
+    }
+
+    // Smallest index among the seen lanes that hold the extreme value, or -1 if none was seen
+    private static int firstIndex(FloatVector values, IntVector indices, VectorMask<Float> seen, float extreme) {
+        var m = values.compare(VectorOperators.EQ, extreme).and(seen);
+        if (!m.anyTrue()) {
+            return -1;
+        }
+        return indices.reduceLanes(VectorOperators.MIN, m.cast(INT_SPECIES));
+    }
+
+    /**
+     * Mean and variance of {@code src[i]} in one pass.
+     *
+     * <p>Every lane runs Welford's update over its own stride of the range, so all lanes share
+     * the same count and one reciprocal per vector serves them all. Every
+     * {@link #WELFORD_BLOCK} vectors the lanes are merged into double-precision totals with
+     * Chan's formula, which bounds the float drift, and the tail continues Welford's update
+     * from there. Unlike {@code sum(x^2) - sum(x)^2 / n}, this does not cancel catastrophically
+     * when the mean is large relative to the spread. Species other than
+     * {@link FloatVector#SPECIES_PREFERRED} take the scalar update for the whole range.
+     */
+    public static MeanVariance meanVariance(VectorSpecies<Float> species,
+                                            float[] src, int srcOffset,
+                                            int length) {
+        int lanes = VL;
+        int i = 0;
+        // The block loop is compiled on its own, so it only runs on the constant species
+        int upperBound = species == SPECIES ? length - length % lanes : 0;
+        long count = 0;
+        double mean = 0.0;
+        double m2 = 0.0;
+
+        while (i < upperBound) {
+            int blockEnd = Math.min(upperBound, i + WELFORD_BLOCK * lanes);
+            var vmean = FloatVector.zero(SPECIES);
+            var vm2 = vmean;
+            int perLane = 0;
+
+            for (; i < blockEnd; i += lanes) {
+                var v = FloatVector.fromArray(SPECIES, src, srcOffset + i);
+                perLane++;
+                var delta = v.sub(vmean);
+                vmean = delta.fma(vmean.broadcast(1.0f / perLane), vmean);
+                vm2 = delta.fma(v.sub(vmean), vm2);
+            }
+
+            // Chan: merge the block's lanes, then the block into the totals
+            double blockMean = vmean.reduceLanes(VectorOperators.ADD) / (double) lanes;
+            var spread = vmean.sub((float) blockMean);
+            double blockM2 = spread.mul((float) perLane).fma(spread, vm2).reduceLanes(VectorOperators.ADD);
+            long blockCount = (long) perLane * lanes;
+            m2 = mergedM2(count, mean, m2, blockCount, blockMean, blockM2);
+            mean = mergedMean(count, mean, blockCount, blockMean);
+            count += blockCount;
+        }
+
+        for (; i < length; i++) {
+            count++;
+            double delta = src[srcOffset + i] - mean;
+            mean += delta / count;
+            m2 += delta * (src[srcOffset + i] - mean);
+        }
+
+        return new MeanVariance(count, mean, m2);
+    }
+
+    // Mean of two disjoint sets of counts a and b
+    private static double mergedMean(long a, double meanA, long b, double meanB) {
+        return meanA + (meanB - meanA) * b / (a + b);
+    }
+
+    // Sum of squared deviations of two disjoint sets of counts a and b, after Chan et al.
+    private static double mergedM2(long a, double meanA, double m2A, long b, double meanB, double m2B) {
+        double d = meanB - meanA;
+        return m2A + m2B + d * d * a * b / (a + b);
+    }
+}
@@ -0,0 +1,228 @@
+package org.perujug.kernels;
+
+import jdk.incubator.vector.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Inclusive scans (prefix sum, running min and max) over heap {@code float[]} ranges.
+ *
+ * <p>A scalar scan carries a dependency from every element to the next, so SuperWord leaves
+ * it alone. Here each vector is scanned in registers in {@code log2(lanes)} steps: the vector
+ * is shifted up by 1, 2, 4, ... lanes with {@code slice} (the identity fills the vacated low
+ * lanes, as {@code unslice} fills them with zero) and combined with itself. Only the final
+ * combine with the carry, the last lane of the previous result broadcast by a
+ * {@code rearrange}, depends on the previous vector. Every kernel takes the carry to start
+ * from and returns the carry to continue with, so a long column can be scanned piecewise.
+ *
+ * <p>The tree order within a vector rounds differently from a sequential float sum, so the
+ * prefix sums agree with the scalar loop to rounding, not bit for bit.
+ *
+ * <p>Each scan has its own loop on {@link FloatVector#SPECIES_PREFERRED} read from a constant.
+ * The loops are compiled on their own, and a species or operator passed in as an argument is
+ * not a constant there: the lanewise calls would neither be intrinsified nor stay unboxed.
+ * Other species take the scalar scan. The shift steps are written out up to the widest vector
+ * rather than looped over for the same reason: the parallel scan inlines these loops into its
+ * task, and there a {@code slice} by a loop counter is not intrinsified and allocates.
+ */
+public final class ScanKernels {
+
+    /** Floats per chunk of the parallel scan. */
+    public static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int VL = SPECIES.length();
+    // Broadcasts the last lane to all of them
+    private static final VectorShuffle<Float> LAST_LANE = SPECIES.iotaShuffle(VL - 1, 0, false);
+
+    private ScanKernels() {
+    }
+
+    /** {@code dst[i] = initial + src[0] + ... + src[i]}; returns the last sum, or {@code initial} if empty. */
+    public static float prefixSum(VectorSpecies<Float> species,
+                                  float[] src, int srcOffset,
+                                  float initial,
+                                  float[] dst, int dstOffset,
+                                  int length) {
+        int i = 0;
+        int upperBound = species == SPECIES ? SPECIES.loopBound(length) : 0;
+        var zero = FloatVector.zero(SPECIES);
+        var carry = FloatVector.broadcast(SPECIES, initial);
+
+        for (; i < upperBound; i += VL) {
+            var v = FloatVector.fromArray(SPECIES, src, srcOffset + i);
+            v = v.add(zero.slice(VL - 1, v));
+            if (VL > 2) {
+                v = v.add(zero.slice(VL - 2, v));
+            }
+            if (VL > 4) {
+                v = v.add(zero.slice(VL - 4, v));
+            }
+            if (VL > 8) {
+                v = v.add(zero.slice(VL - 8, v));
+            }
+            if (VL > 16) {
+                v = v.add(zero.slice(VL - 16, v));
+            }
+            if (VL > 32) {
+                v = v.add(zero.slice(VL - 32, v));
+            }
+            v = v.add(carry);
+            v.intoArray(dst, dstOffset + i);
+            carry = v.rearrange(LAST_LANE);
+        }
+
+        float running = carry.lane(0);
+        for (; i < length; i++) {
+            running += src[srcOffset + i];
+            dst[dstOffset + i] = running;
+        }
+        return running;
+    }
+
+    /** {@code dst[i] = max(initial, src[0], ..., src[i])}; returns the last maximum. */
+    public static float runningMax(VectorSpecies<Float> species,
+                                   float[] src, int srcOffset,
+                                   float initial,
+                                   float[] dst, int dstOffset,
+                                   int length) {
+        int i = 0;
+        int upperBound = species == SPECIES ? SPECIES.loopBound(length) : 0;
+        var identities = FloatVector.broadcast(SPECIES, Float.NEGATIVE_INFINITY);
+        var carry = FloatVector.broadcast(SPECIES, initial);
+
+        for (; i < upperBound; i += VL) {
+            var v = FloatVector.fromArray(SPECIES, src, srcOffset + i);
+            v = v.max(identities.slice(VL - 1, v));
+            if (VL > 2) {
+                v = v.max(identities.slice(VL - 2, v));
+            }
+            if (VL > 4) {
+                v = v.max(identities.slice(VL - 4, v));
+            }
+            if (VL > 8) {
+                v = v.max(identities.slice(VL - 8, v));
+            }
+            if (VL > 16) {
+                v = v.max(identities.slice(VL - 16, v));
+            }
+            if (VL > 32) {
+                v = v.max(identities.slice(VL - 32, v));
+            }
+            v = v.max(carry);
+            v.intoArray(dst, dstOffset + i);
+            carry = v.rearrange(LAST_LANE);
+        }
+
+        float running = carry.lane(0);
+        for (; i < length; i++) {
+            running = Math.max(running, src[srcOffset + i]);
+            dst[dstOffset + i] = running;
+        }
+        return running;
+    }
+
+    /** {@code dst[i] = min(initial, src[0], ..., src[i])}; returns the last minimum. */
+    public static float runningMin(VectorSpecies<Float> species,
+                                   float[] src, int srcOffset,
+                                   float initial,
+                                   float[] dst, int dstOffset,
+                                   int length) {
+        int i = 0;
+        int upperBound = species == SPECIES ? SPECIES.loopBound(length) : 0;
+        var identities = FloatVector.broadcast(SPECIES, Float.POSITIVE_INFINITY);
+        var carry = FloatVector.broadcast(SPECIES, initial);
+
+        for (; i < upperBound; i += VL) {
+            var v = FloatVector.fromArray(SPECIES, src, srcOffset + i);
+            v = v.min(identities.slice(VL - 1, v));
+            if (VL > 2) {
+                v = v.min(identities.slice(VL - 2, v));
+            }
+            if (VL > 4) {
+                v = v.min(identities.slice(VL - 4, v));
+            }
+            if (VL > 8) {
+                v = v.min(identities.slice(VL - 8, v));
+            }
+            if (VL > 16) {
+                v = v.min(identities.slice(VL - 16, v));
+            }
+            if (VL > 32) {
+                v = v.min(identities.slice(VL - 32, v));
+            }
+            v = v.min(carry);
+            v.intoArray(dst, dstOffset + i);
+            carry = v.rearrange(LAST_LANE);
+        }
+
+        float running = carry.lane(0);
+        for (; i < length; i++) {
+            running = Math.min(running, src[srcOffset + i]);
+            dst[dstOffset + i] = running;
+        }
+        return running;
+    }
+
+    /**
+     * {@link #prefixSum} on a {@link ForkJoinPool}, in two passes over {@link #CHUNK_SIZE} chunks.
+     *
+     * <p>The first pass sums every chunk in parallel; a sequential scan over those few sums gives
+     * each chunk its starting carry; the second pass scans every chunk in parallel from its carry.
+     * The source is read twice and the destination written once.
+     */
+    public static float prefixSum(ForkJoinPool pool,
+                                  float[] src, int srcOffset,
+                                  float initial,
+                                  float[] dst, int dstOffset,
+                                  int length) {
+        int chunks = Math.ceilDiv(length, CHUNK_SIZE);
+        if (chunks <= 1) {
+            return prefixSum(SPECIES, src, srcOffset, initial, dst, dstOffset, length);
+        }
+
+        float[] carries = new float[chunks];
+        pool.invoke(new ChunkTask(0, chunks, c ->
+                carries[c] = FloatKernels.sum(SPECIES, src, srcOffset + c * CHUNK_SIZE, chunkLength(c, length))));
+
+        float carry = initial;
+        for (int c = 0; c < chunks; c++) {
+            float chunkSum = carries[c];
+            carries[c] = carry;
+            carry += chunkSum;
+        }
+
+        pool.invoke(new ChunkTask(0, chunks, c ->
+                prefixSum(SPECIES, src, srcOffset + c * CHUNK_SIZE, carries[c],
+                        dst, dstOffset + c * CHUNK_SIZE, chunkLength(c, length))));
+        return dst[dstOffset + length - 1];
+    }
+
+    private static int chunkLength(int chunk, int length) {
+        return Math.min(CHUNK_SIZE, length - chunk * CHUNK_SIZE);
+    }
+
+    private static final class ChunkTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final IntConsumer op;
+
+        ChunkTask(int from, int to, IntConsumer op) {
+            this.from = from;
+            this.to = to;
+            this.op = op;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                op.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask(from, mid, op), new ChunkTask(mid, to, op));
+        }
+    }
+}
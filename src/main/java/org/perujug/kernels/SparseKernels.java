@@ -0,0 +1,59 @@
+package org.perujug.kernels;
+
+import jdk.incubator.vector.*;
+
+/**
+ * Sparse-times-dense dot products: {@code sum(values[k] * x[indices[k]])}.
+ *
+ * <p>The vector kernel loads a run of nonzeros contiguously and gathers the matching dense
+ * elements with {@code FloatVector.fromArray(SPECIES, x, offset, indexMap, mapOffset)}. A
+ * gather costs roughly one load per lane plus the reduction at the end, so for short runs of
+ * nonzeros the scalar loop is faster; callers pick between the two by run length.
+ * {@link #dotGather} only vectorizes on {@link FloatVector#SPECIES_PREFERRED}, held in a
+ * {@code static final} so that its loop, compiled on its own, still sees a constant.
+ */
+public final class SparseKernels {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private SparseKernels() {
+    }
+
+    /** Returns {@code sum(values[valuesOffset + k] * x[xOffset + indices[indexOffset + k]])} for {@code k < nnz}. */
+    public static float dotGather(VectorSpecies<Float> species,
+                                  float[] values, int valuesOffset,
+                                  int[] indices, int indexOffset,
+                                  int nnz,
+                                  float[] x, int xOffset) {
+        float sum = 0.0f;
+        int k = 0;
+        int upperBound = species == SPECIES ? SPECIES.loopBound(nnz) : 0;
+        var vsum = FloatVector.zero(SPECIES);
+
+        for (; k < upperBound; k += SPECIES.length()) {
+            var vv = FloatVector.fromArray(SPECIES, values, valuesOffset + k);
+            var vx = FloatVector.fromArray(SPECIES, x, xOffset, indices, indexOffset + k);
+            vsum = vv.fma(vx, vsum);
+        }
+
+        sum += vsum.reduceLanes(VectorOperators.ADD);
+
+        for (; k < nnz; k++) {
+            sum += values[valuesOffset + k] * x[xOffset + indices[indexOffset + k]];
+        }
+
+        return sum;
+    }
+
+    /** {@link #dotGather} one nonzero at a time. */
+    public static float dotScalar(float[] values, int valuesOffset,
+                                  int[] indices, int indexOffset,
+                                  int nnz,
+                                  float[] x, int xOffset) {
+        float sum = 0.0f;
+        for (int k = 0; k < nnz; k++) {
+            sum += values[valuesOffset + k] * x[xOffset + indices[indexOffset + k]];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,341 @@
+package org.perujug.kernels;
+
+import jdk.incubator.vector.*;
+
+/**
+ * {@link FloatKernels} variants that finish without a scalar remainder loop.
+ *
+ * <p>Three ways to handle the {@code length % VL} elements past the last full vector, where
+ * {@code VL} is the lane count of {@link FloatVector#SPECIES_PREFERRED}:
+ * <ul>
+ *   <li><b>masked tail</b> - the unmasked main loop, then one iteration with an
+ *       {@code indexInRange} mask;</li>
+ *   <li><b>masked loop</b> - every iteration uses an {@code indexInRange} mask, giving a
+ *       single loop whose mask is all-true until the end;</li>
+ *   <li><b>overlap</b> - one extra full vector ending at {@code length}. Elementwise
+ *       kernels recompute a few elements, so {@code dst} must not alias an input;
+ *       reductions mask out the lanes already summed. Lengths below one vector fall
+ *       back to the masked loop.</li>
+ * </ul>
+ *
+ * <p>Like the {@link MathKernels} array methods these run on a {@code static final} species
+ * rather than taking one: their loops are compiled on their own before any caller, and only a
+ * constant species keeps the accumulators and broadcast operands out of the heap there.
+ */
+public final class TailKernels {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int VL = SPECIES.length();
+
+    private TailKernels() {
+    }
+
+    // ==== MASKED TAIL ====
+
+    /** {@code dst[i] = a[i] + b[i]} */
+    public static void addMaskedTail(float[] a, int aOffset,
+                                     float[] b, int bOffset,
+                                     float[] dst, int dstOffset,
+                                     int length) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += VL) {
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + i);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + i);
+            va.add(vb).intoArray(dst, dstOffset + i);
+        }
+
+        if (i < length) {
+            var m = SPECIES.indexInRange(i, length);
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + i, m);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + i, m);
+            va.add(vb).intoArray(dst, dstOffset + i, m);
+        }
+    }
+
+    /** {@code dst[i] = src[i] * factor} */
+    public static void scaleMaskedTail(float[] src, int srcOffset,
+                                       float factor,
+                                       float[] dst, int dstOffset,
+                                       int length) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += VL) {
+            FloatVector.fromArray(SPECIES, src, srcOffset + i).mul(factor).intoArray(dst, dstOffset + i);
+        }
+
+        if (i < length) {
+            var m = SPECIES.indexInRange(i, length);
+            FloatVector.fromArray(SPECIES, src, srcOffset + i, m).mul(factor).intoArray(dst, dstOffset + i, m);
+        }
+    }
+
+    /** Returns {@code sum(a[i] * b[i])}. */
+    public static float dotMaskedTail(float[] a, int aOffset,
+                                      float[] b, int bOffset,
+                                      int length) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+        var vsum = FloatVector.zero(SPECIES);
+
+        for (; i < upperBound; i += VL) {
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + i);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + i);
+            vsum = va.fma(vb, vsum);
+        }
+
+        if (i < length) {
+            // Masked-off lanes load as zero, so they add nothing
+            var m = SPECIES.indexInRange(i, length);
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + i, m);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + i, m);
+            vsum = va.fma(vb, vsum);
+        }
+
+        return vsum.reduceLanes(VectorOperators.ADD);
+    }
+
+    /** {@code dst[i] = a[i] * b[i] + addend} */
+    public static void fmaMaskedTail(float[] a, int aOffset,
+                                     float[] b, int bOffset,
+                                     float addend,
+                                     float[] dst, int dstOffset,
+                                     int length) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+        var vaddend = FloatVector.broadcast(SPECIES, addend);
+
+        for (; i < upperBound; i += VL) {
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + i);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + i);
+            va.fma(vb, vaddend).intoArray(dst, dstOffset + i);
+        }
+
+        if (i < length) {
+            var m = SPECIES.indexInRange(i, length);
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + i, m);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + i, m);
+            va.fma(vb, vaddend).intoArray(dst, dstOffset + i, m);
+        }
+    }
+
+    /** {@code dst[i] = sqrt(abs(src[i]))} */
+    public static void sqrtAbsMaskedTail(float[] src, int srcOffset,
+                                         float[] dst, int dstOffset,
+                                         int length) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += VL) {
+            FloatVector.fromArray(SPECIES, src, srcOffset + i).abs().sqrt().intoArray(dst, dstOffset + i);
+        }
+
+        if (i < length) {
+            var m = SPECIES.indexInRange(i, length);
+            FloatVector.fromArray(SPECIES, src, srcOffset + i, m).abs().sqrt().intoArray(dst, dstOffset + i, m);
+        }
+    }
+
+    // ==== MASKED LOOP ====
+
+    /** {@code dst[i] = a[i] + b[i]} */
+    public static void addMaskedLoop(float[] a, int aOffset,
+                                     float[] b, int bOffset,
+                                     float[] dst, int dstOffset,
+                                     int length) {
+        for (int i = 0; i < length; i += VL) {
+            var m = SPECIES.indexInRange(i, length);
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + i, m);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + i, m);
+            va.add(vb).intoArray(dst, dstOffset + i, m);
+        }
+    }
+
+    /** {@code dst[i] = src[i] * factor} */
+    public static void scaleMaskedLoop(float[] src, int srcOffset,
+                                       float factor,
+                                       float[] dst, int dstOffset,
+                                       int length) {
+        for (int i = 0; i < length; i += VL) {
+            var m = SPECIES.indexInRange(i, length);
+            FloatVector.fromArray(SPECIES, src, srcOffset + i, m).mul(factor).intoArray(dst, dstOffset + i, m);
+        }
+    }
+
+    /** Returns {@code sum(a[i] * b[i])}. */
+    public static float dotMaskedLoop(float[] a, int aOffset,
+                                      float[] b, int bOffset,
+                                      int length) {
+        var vsum = FloatVector.zero(SPECIES);
+
+        for (int i = 0; i < length; i += VL) {
+            var m = SPECIES.indexInRange(i, length);
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + i, m);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + i, m);
+            vsum = va.fma(vb, vsum);
+        }
+
+        return vsum.reduceLanes(VectorOperators.ADD);
+    }
+
+    /** {@code dst[i] = a[i] * b[i] + addend} */
+    public static void fmaMaskedLoop(float[] a, int aOffset,
+                                     float[] b, int bOffset,
+                                     float addend,
+                                     float[] dst, int dstOffset,
+                                     int length) {
+        var vaddend = FloatVector.broadcast(SPECIES, addend);
+
+        for (int i = 0; i < length; i += VL) {
+            var m = SPECIES.indexInRange(i, length);
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + i, m);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + i, m);
+            va.fma(vb, vaddend).intoArray(dst, dstOffset + i, m);
+        }
+    }
+
+    /** {@code dst[i] = sqrt(abs(src[i]))} */
+    public static void sqrtAbsMaskedLoop(float[] src, int srcOffset,
+                                         float[] dst, int dstOffset,
+                                         int length) {
+        for (int i = 0; i < length; i += VL) {
+            var m = SPECIES.indexInRange(i, length);
+            FloatVector.fromArray(SPECIES, src, srcOffset + i, m).abs().sqrt().intoArray(dst, dstOffset + i, m);
+        }
+    }
+
+    // ==== OVERLAP ====
+
+    /** {@code dst[i] = a[i] + b[i]}; {@code dst} must not alias {@code a} or {@code b}. */
+    public static void addOverlap(float[] a, int aOffset,
+                                  float[] b, int bOffset,
+                                  float[] dst, int dstOffset,
+                                  int length) {
+        if (length < VL) {
+            addMaskedLoop(a, aOffset, b, bOffset, dst, dstOffset, length);
+            return;
+        }
+
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += VL) {
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + i);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + i);
+            va.add(vb).intoArray(dst, dstOffset + i);
+        }
+
+        if (i < length) {
+            int last = length - VL;
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + last);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + last);
+            va.add(vb).intoArray(dst, dstOffset + last);
+        }
+    }
+
+    /** {@code dst[i] = src[i] * factor}; {@code dst} must not alias {@code src}. */
+    public static void scaleOverlap(float[] src, int srcOffset,
+                                    float factor,
+                                    float[] dst, int dstOffset,
+                                    int length) {
+        if (length < VL) {
+            scaleMaskedLoop(src, srcOffset, factor, dst, dstOffset, length);
+            return;
+        }
+
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += VL) {
+            FloatVector.fromArray(SPECIES, src, srcOffset + i).mul(factor).intoArray(dst, dstOffset + i);
+        }
+
+        if (i < length) {
+            int last = length - VL;
+            FloatVector.fromArray(SPECIES, src, srcOffset + last).mul(factor).intoArray(dst, dstOffset + last);
+        }
+    }
+
+    /** Returns {@code sum(a[i] * b[i])}. */
+    public static float dotOverlap(float[] a, int aOffset,
+                                   float[] b, int bOffset,
+                                   int length) {
+        if (length < VL) {
+            return dotMaskedLoop(a, aOffset, b, bOffset, length);
+        }
+
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+        var vsum = FloatVector.zero(SPECIES);
+
+        for (; i < upperBound; i += VL) {
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + i);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + i);
+            vsum = va.fma(vb, vsum);
+        }
+
+        if (i < length) {
+            // Only lanes at or past upperBound are new; the loads themselves stay unmasked
+            int last = length - VL;
+            var fresh = SPECIES.indexInRange(last - upperBound, VL);
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + last);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + last);
+            vsum = vsum.add(va.mul(vb), fresh);
+        }
+
+        return vsum.reduceLanes(VectorOperators.ADD);
+    }
+
+    /** {@code dst[i] = a[i] * b[i] + addend}; {@code dst} must not alias {@code a} or {@code b}. */
+    public static void fmaOverlap(float[] a, int aOffset,
+                                  float[] b, int bOffset,
+                                  float addend,
+                                  float[] dst, int dstOffset,
+                                  int length) {
+        if (length < VL) {
+            fmaMaskedLoop(a, aOffset, b, bOffset, addend, dst, dstOffset, length);
+            return;
+        }
+
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+        var vaddend = FloatVector.broadcast(SPECIES, addend);
+
+        for (; i < upperBound; i += VL) {
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + i);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + i);
+            va.fma(vb, vaddend).intoArray(dst, dstOffset + i);
+        }
+
+        if (i < length) {
+            int last = length - VL;
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + last);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + last);
+            va.fma(vb, vaddend).intoArray(dst, dstOffset + last);
+        }
+    }
+
+    /** {@code dst[i] = sqrt(abs(src[i]))}; {@code dst} must not alias {@code src}. */
+    public static void sqrtAbsOverlap(float[] src, int srcOffset,
+                                      float[] dst, int dstOffset,
+                                      int length) {
+        if (length < VL) {
+            sqrtAbsMaskedLoop(src, srcOffset, dst, dstOffset, length);
+            return;
+        }
+
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += VL) {
+            FloatVector.fromArray(SPECIES, src, srcOffset + i).abs().sqrt().intoArray(dst, dstOffset + i);
+        }
+
+        if (i < length) {
+            int last = length - VL;
+            FloatVector.fromArray(SPECIES, src, srcOffset + last).abs().sqrt().intoArray(dst, dstOffset + last);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.perujug.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * An in-process JFR recording around a block of code, dumped to a file and summarized.
+ *
+ * <p>Starts from the {@code profile} settings, with every compilation recorded (the default
+ * threshold drops those under 100 ms, which is nearly all of them) and deoptimizations on.
+ * {@link #FORK_OPTIONS} carries the same settings for {@code -XX:StartFlightRecording}.
+ */
+public final class FlightRecording implements AutoCloseable {
+
+    /** System property naming the directory to save recordings into; recording is off when unset. */
+    public static final String DIRECTORY_PROPERTY = "benchmark.jfr";
+
+    /** {@code -XX:StartFlightRecording} options equivalent to {@link #start}, without the file name. */
+    public static final String FORK_OPTIONS =
+            "settings=profile,dumponexit=true,jdk.Compilation#threshold=0ms,jdk.Deoptimization#enabled=true";
+
+    private final Recording recording;
+    private final Path file;
+
+    private FlightRecording(Recording recording, Path file) {
+        this.recording = recording;
+        this.file = file;
+    }
+
+    /** The directory from {@value #DIRECTORY_PROPERTY}, or null if recording is off. */
+    public static Path directory() {
+        String dir = System.getProperty(DIRECTORY_PROPERTY);
+        return dir == null || dir.isBlank() ? null : Path.of(dir);
+    }
+
+    /** Starts recording; {@link #stop} will save it to {@code file}. */
+    public static FlightRecording start(Path file) throws IOException {
+        Configuration profile;
+        try {
+            profile = Configuration.getConfiguration("profile");
+        } catch (ParseException e) {
+            throw new IOException("Cannot read the JFR profile settings", e);
+        }
+
+        var recording = new Recording(profile);
+        recording.setName(file.getFileName().toString());
+        recording.enable("jdk.Compilation").withThreshold(Duration.ZERO);
+        recording.enable("jdk.Deoptimization");
+        recording.start();
+        return new FlightRecording(recording, file);
+    }
+
+    /** Stops recording, saves the file and summarizes the classes under {@link JfrSummary#DEFAULT_PREFIX}. */
+    public JfrSummary stop() throws IOException {
+        recording.stop();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        recording.dump(file);
+        recording.close();
+        return JfrSummary.read(file, JfrSummary.DEFAULT_PREFIX);
+    }
+
+    @Override
+    public void close() {
+        recording.close();
+    }
+
+    /** A file name made of the letters and digits of {@code name}, for one recording per benchmark. */
+    public static String fileName(String name) {
+        return name.replaceAll("[^A-Za-z0-9.-]+", "-").replaceAll("^-|-$", "") + ".jfr";
+    }
+}
@@ -0,0 +1,173 @@
+package org.perujug.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * What the JIT, the GC and the allocator did during a recording, restricted to methods of the
+ * classes under a package prefix: every compilation (tier, OSR, time since the recording
+ * started), every deoptimization (reason and action), GC pause totals, and the sampled bytes
+ * allocated with one of those methods on the stack.
+ *
+ * <p>Allocation figures come from {@code jdk.ObjectAllocationSample}, whose weights estimate the
+ * bytes allocated between samples, so they are approximate; any non-zero figure under a kernel
+ * still means vectors or arrays escaped to the heap.
+ */
+public record JfrSummary(Path file,
+                         List<Compilation> compilations,
+                         Map<String, Integer> deoptimizations,
+                         int gcCount,
+                         Duration gcPauseTotal,
+                         Duration gcPauseMax,
+                         long allocatedBytes,
+                         long kernelAllocatedBytes,
+                         Map<String, Long> kernelAllocationsByClass) {
+
+    /** Classes whose methods are reported. */
+    public static final String DEFAULT_PREFIX = "org.perujug.";
+
+    /** One finished compilation of a matched method; {@code at} is relative to the first event. */
+    public record Compilation(String method, int level, boolean osr, Duration at, Duration duration, Instant startTime) {
+
+        /** When the compiled code was installed and could start running. */
+        public Instant installed() {
+            return startTime.plus(duration);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("C%s%s at %d ms (%.1f ms)", level < 4 ? "1/L" + level : "2",
+                    osr ? " OSR" : "", at.toMillis(), duration.toNanos() / 1e6);
+        }
+    }
+
+    /** Summarizes every event in {@code file} for the classes under {@code prefix}. */
+    public static JfrSummary read(Path file, String prefix) throws IOException {
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Instant start = events.stream()
+                .map(RecordedEvent::getStartTime)
+                .min(Comparator.naturalOrder())
+                .orElse(Instant.EPOCH);
+
+        var compilations = new ArrayList<Compilation>();
+        var deoptimizations = new TreeMap<String, Integer>();
+        var kernelAllocations = new TreeMap<String, Long>();
+        int gcCount = 0;
+        Duration gcPauseTotal = Duration.ZERO;
+        Duration gcPauseMax = Duration.ZERO;
+        long allocated = 0;
+        long kernelAllocated = 0;
+
+        for (RecordedEvent event : events) {
+            switch (event.getEventType().getName()) {
+                case "jdk.Compilation" -> {
+                    String method = methodName(event.getValue("method"));
+                    if (method.startsWith(prefix) && event.getBoolean("succeded")) {
+                        compilations.add(new Compilation(method, event.getInt("compileLevel"),
+                                event.getBoolean("isOsr"), Duration.between(start, event.getStartTime()),
+                                event.getDuration(), event.getStartTime()));
+                    }
+                }
+                case "jdk.Deoptimization" -> {
+                    String method = methodName(event.getValue("method"));
+                    if (method.startsWith(prefix)) {
+                        String key = method + " (" + event.getString("reason") + ", " + event.getString("action") + ")";
+                        deoptimizations.merge(key, 1, Integer::sum);
+                    }
+                }
+                case "jdk.GarbageCollection" -> {
+                    gcCount++;
+                    gcPauseTotal = gcPauseTotal.plus(event.getDuration("sumOfPauses"));
+                    Duration longest = event.getDuration("longestPause");
+                    gcPauseMax = longest.compareTo(gcPauseMax) > 0 ? longest : gcPauseMax;
+                }
+                case "jdk.ObjectAllocationSample" -> {
+                    long weight = event.getLong("weight");
+                    allocated += weight;
+                    if (onStack(event, prefix)) {
+                        kernelAllocated += weight;
+                        kernelAllocations.merge(event.getClass("objectClass").getName(), weight, Long::sum);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        compilations.sort(Comparator.comparing(Compilation::at));
+        return new JfrSummary(file, compilations, deoptimizations, gcCount, gcPauseTotal, gcPauseMax,
+                allocated, kernelAllocated, kernelAllocations);
+    }
+
+    /** Compilations grouped by method, in the order each method was first compiled. */
+    public Map<String, List<Compilation>> compilationsByMethod() {
+        var byMethod = new LinkedHashMap<String, List<Compilation>>();
+        for (Compilation compilation : compilations) {
+            byMethod.computeIfAbsent(compilation.method(), m -> new ArrayList<>()).add(compilation);
+        }
+        return byMethod;
+    }
+
+    /** The summary as indented report lines. */
+    public List<String> lines() {
+        var lines = new ArrayList<String>();
+        lines.add("Compilations:");
+        compilationsByMethod().forEach((method, list) ->
+                lines.add("  " + method + ": " + String.join(", ", list.stream().map(Compilation::toString).toList())));
+        if (compilations.isEmpty()) {
+            lines.add("  (none)");
+        }
+
+        lines.add("Deoptimizations:");
+        deoptimizations.forEach((key, count) -> lines.add("  " + count + "x " + key));
+        if (deoptimizations.isEmpty()) {
+            lines.add("  (none)");
+        }
+
+        lines.add(String.format("GC: %d collections, %.2f ms paused in total, %.2f ms longest pause",
+                gcCount, gcPauseTotal.toNanos() / 1e6, gcPauseMax.toNanos() / 1e6));
+        lines.add(String.format("Allocation (sampled): %,d bytes in total, %,d bytes under benchmark or kernel frames",
+                allocatedBytes, kernelAllocatedBytes));
+        kernelAllocationsByClass.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(5)
+                .forEach(entry -> lines.add(String.format("  %,d bytes of %s", entry.getValue(), entry.getKey())));
+        lines.add("Recording: " + file);
+        return lines;
+    }
+
+    public void print() {
+        lines().forEach(IO::println);
+        IO.println();
+    }
+
+    private static String methodName(RecordedMethod method) {
+        return method == null ? "" : method.getType().getName() + "." + method.getName();
+    }
+
+    private static boolean onStack(RecordedEvent event, String prefix) {
+        var stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return false;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (methodName(frame.getMethod()).startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
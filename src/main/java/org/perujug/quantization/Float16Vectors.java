@@ -0,0 +1,77 @@
+package org.perujug.quantization;
+
+import jdk.incubator.vector.*;
+import org.perujug.kernels.QuantizedKernels;
+
+/**
+ * Fixed-capacity table of {@code dimension}-long vectors stored as IEEE 754 half-precision
+ * bit patterns, two bytes per element. Values are rounded to nearest on insertion;
+ * magnitudes above 65504 become infinite and below about 6e-8 become zero.
+ */
+public final class Float16Vectors {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    private final int dimension;
+    private final int capacity;
+    private final short[] halves;
+    private int count;
+
+    public Float16Vectors(int dimension, int capacity) {
+        long elements = (long) dimension * capacity;
+        if (elements > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(capacity + " x " + dimension + " does not fit in a short[]");
+        }
+        this.dimension = dimension;
+        this.capacity = capacity;
+        this.halves = new short[(int) elements];
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /** Converts and appends {@code vector}, returning its row id. */
+    public int add(float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected dimension " + dimension + " but got " + vector.length);
+        }
+        if (count == capacity) {
+            throw new IllegalStateException("Store is full (" + capacity + " rows)");
+        }
+
+        int id = count++;
+        int base = id * dimension;
+        for (int i = 0; i < dimension; i++) {
+            halves[base + i] = Float.floatToFloat16(vector[i]);
+        }
+        return id;
+    }
+
+    /** Dot product of row {@code row} with row {@code otherRow} of {@code other}. */
+    public float dot(int row, Float16Vectors other, int otherRow) {
+        if (other.dimension != dimension) {
+            throw new IllegalArgumentException("Dimension mismatch: " + dimension + " vs " + other.dimension);
+        }
+        return QuantizedKernels.dotFloat16(SPECIES, halves, row * dimension,
+                other.halves, otherRow * other.dimension, dimension);
+    }
+
+    /** Dot product of row {@code row} with a full-precision {@code query}. */
+    public float dot(int row, float[] query) {
+        return QuantizedKernels.dotFloat16(SPECIES, halves, row * dimension, query, 0, dimension);
+    }
+
+    /** Widens row {@code row} into {@code dst}. */
+    public void decode(int row, float[] dst) {
+        QuantizedKernels.decodeFloat16(SPECIES, halves, row * dimension, dst, 0, dimension);
+    }
+
+    public long memoryBytes() {
+        return (long) halves.length * Short.BYTES;
+    }
+}
@@ -0,0 +1,113 @@
+package org.perujug.quantization;
+
+import jdk.incubator.vector.*;
+import org.perujug.kernels.QuantizedKernels;
+
+/**
+ * Fixed-capacity table of {@code dimension}-long vectors scalar-quantized to signed bytes.
+ *
+ * <p>Each row gets its own affine mapping {@code x ~= scale * q + offset} spanning the
+ * row's min..max over the 256 codes, so one byte per element replaces four. The sum of
+ * each row's codes is cached, which lets {@link #dot} expand
+ * {@code sum((sa*qa + oa) * (sb*qb + ob))} around a single integer dot product.
+ */
+public final class Int8Vectors {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    private final int dimension;
+    private final int capacity;
+    private final byte[] codes;
+    private final float[] scales;
+    private final float[] offsets;
+    private final long[] codeSums;
+    private int count;
+
+    public Int8Vectors(int dimension, int capacity) {
+        long bytes = (long) dimension * capacity;
+        if (bytes > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(capacity + " x " + dimension + " does not fit in a byte[]");
+        }
+        this.dimension = dimension;
+        this.capacity = capacity;
+        this.codes = new byte[(int) bytes];
+        this.scales = new float[capacity];
+        this.offsets = new float[capacity];
+        this.codeSums = new long[capacity];
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /** Quantizes and appends {@code vector}, returning its row id. */
+    public int add(float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected dimension " + dimension + " but got " + vector.length);
+        }
+        if (count == capacity) {
+            throw new IllegalStateException("Store is full (" + capacity + " rows)");
+        }
+
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (float v : vector) {
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        float scale = max > min ? (max - min) / 255.0f : 1.0f;
+        float inverseScale = 1.0f / scale;
+
+        int id = count++;
+        int base = id * dimension;
+        long codeSum = 0;
+        for (int i = 0; i < dimension; i++) {
+            int q = Math.round((vector[i] - min) * inverseScale) - 128;
+            q = Math.max(-128, Math.min(127, q));
+            codes[base + i] = (byte) q;
+            codeSum += q;
+        }
+
+        scales[id] = scale;
+        offsets[id] = min + 128 * scale;
+        codeSums[id] = codeSum;
+        return id;
+    }
+
+    /** Approximate dot product of row {@code row} with row {@code otherRow} of {@code other}. */
+    public float dot(int row, Int8Vectors other, int otherRow) {
+        if (other.dimension != dimension) {
+            throw new IllegalArgumentException("Dimension mismatch: " + dimension + " vs " + other.dimension);
+        }
+
+        long codeDot = QuantizedKernels.dotInt8(SPECIES, codes, row * dimension,
+                other.codes, otherRow * other.dimension, dimension);
+        double sa = scales[row];
+        double oa = offsets[row];
+        double sb = other.scales[otherRow];
+        double ob = other.offsets[otherRow];
+        return (float) (sa * sb * codeDot
+                + sa * ob * codeSums[row]
+                + oa * sb * other.codeSums[otherRow]
+                + dimension * oa * ob);
+    }
+
+    /** Reconstructs row {@code row} into {@code dst}. */
+    public void decode(int row, float[] dst) {
+        int base = row * dimension;
+        float scale = scales[row];
+        float offset = offsets[row];
+        for (int i = 0; i < dimension; i++) {
+            dst[i] = scale * codes[base + i] + offset;
+        }
+    }
+
+    /** Bytes used by the codes and the per-row parameters. */
+    public long memoryBytes() {
+        return codes.length + (long) capacity * (2 * Float.BYTES + Long.BYTES);
+    }
+}
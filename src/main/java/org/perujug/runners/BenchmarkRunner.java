@@ -2,31 +2,49 @@ package org.perujug.runners;
 
 import jdk.incubator.vector.*;
 import org.perujug.base.BenchmarkBase;
+import org.perujug.base.LatencyHistogram;
 import org.perujug.benchmarks.*;
+import org.perujug.profiling.FlightRecording;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.function.IntFunction;
 
 public class BenchmarkRunner {
 
+    /** Every benchmark, constructed for a given array size. */
+    public static final List<IntFunction<BenchmarkBase>> BENCHMARKS = List.of(
+            VectorAdditionBenchmark::new,
+            ScalarMultiplicationBenchmark::new,
+            DotProductBenchmark::new,
+            FusedMultiplyAddBenchmark::new,
+            MathFunctionsBenchmark::new,
+            PrefixSumBenchmark::new
+    );
+
     private final List<BenchmarkBase> benchmarks;
 
     public BenchmarkRunner() {
-        this.benchmarks = List.of(
-                new VectorAdditionBenchmark(),
-                new ScalarMultiplicationBenchmark(),
-                new DotProductBenchmark(),
-                new FusedMultiplyAddBenchmark(),
-                new MathFunctionsBenchmark()
-        );
+        this.benchmarks = BENCHMARKS.stream()
+                .map(factory -> factory.apply(BenchmarkBase.ARRAY_SIZE))
+                .toList();
     }
 
     public void runAllBenchmarks() {
         printHeader();
 
+        Path jfrDirectory = FlightRecording.directory();
         for (BenchmarkBase benchmark : benchmarks) {
-            benchmark.runBenchmark();
+            if (jfrDirectory == null) {
+                benchmark.runBenchmark();
+            } else {
+                runRecorded(benchmark, jfrDirectory);
+            }
         }
 
+        printLatencySummary();
         printFooter();
     }
 
@@ -51,11 +69,44 @@ public class BenchmarkRunner {
         IO.println("Array Size: " + String.format("%,d", BenchmarkBase.ARRAY_SIZE) + " elements");
         IO.println("Iterations: " + String.format("%,d", BenchmarkBase.ITERATIONS));
         IO.println("Warmup Iterations: " + String.format("%,d", BenchmarkBase.WARMUP_ITERATIONS));
+        if (FlightRecording.directory() != null) {
+            IO.println("JFR recordings: " + FlightRecording.directory().toAbsolutePath());
+        }
         IO.println();
         IO.println("===============================================");
         IO.println();
     }
 
+    // Wraps the benchmark in its own JFR recording and prints the summary under its results
+    private void runRecorded(BenchmarkBase benchmark, Path directory) {
+        try (var recording = FlightRecording.start(directory.resolve(FlightRecording.fileName(benchmark.getBenchmarkName())))) {
+            benchmark.runBenchmark();
+            IO.println("JFR (" + benchmark.getBenchmarkName() + "):");
+            recording.stop().print();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void printLatencySummary() {
+        IO.println("Per-iteration latency (us):");
+        IO.println(String.format("%-30s %-7s %9s %9s %9s %9s %9s",
+                "Benchmark", "Kernel", "p50", "p90", "p99", "p99.9", "max"));
+        for (BenchmarkBase benchmark : benchmarks) {
+            printLatencyRow(benchmark.getBenchmarkName(), "Array", benchmark.arrayLatency());
+            printLatencyRow(benchmark.getBenchmarkName(), "Vector", benchmark.vectorLatency());
+        }
+        IO.println();
+    }
+
+    private void printLatencyRow(String name, String kernel, LatencyHistogram latency) {
+        IO.println(String.format("%-30s %-7s %9.1f %9.1f %9.1f %9.1f %9.1f",
+                name, kernel,
+                latency.percentile(50) / 1000.0, latency.percentile(90) / 1000.0,
+                latency.percentile(99) / 1000.0, latency.percentile(99.9) / 1000.0,
+                latency.max() / 1000.0));
+    }
+
     private void printFooter() {
         IO.println("===============================================");
         IO.println("           Benchmark Complete!");
@@ -63,6 +114,7 @@ public class BenchmarkRunner {
         IO.println();
         IO.println("Notes:");
         IO.println("- Higher speedup values indicate better Vector API performance");
+        IO.println("- A p99.9 or max far above p50 points at JIT, GC or page-fault outliers");
         IO.println("- Results may vary based on CPU architecture and JVM optimizations");
         IO.println("- Vector API performance is best on processors with SIMD support");
         IO.println("- JDK 25's Vector API provides significant improvements for data-parallel operations");
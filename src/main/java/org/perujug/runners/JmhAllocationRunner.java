@@ -0,0 +1,89 @@
+package org.perujug.runners;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.perujug.jmh.JmhAllocationBenchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Runs {@link JmhAllocationBenchmarks} under the GC profiler and fails if any hot-path kernel
+ * allocates: {@code _VectorAPI} benchmarks must stay below {@link #TOLERANCE_BYTES} per
+ * operation, and {@code _PerCall} ones, which allocate their fork/join tasks or result, below
+ * {@link #PER_CALL_BYTES}. The deliberately de-optimized {@code _SpeciesField} and
+ * {@code _Megamorphic} ones are only reported. Exits with status 1 on a violation, so it can
+ * gate a build.
+ */
+public class JmhAllocationRunner {
+
+    /** Bytes per operation still counted as zero: JMH's own per-iteration bookkeeping, amortized. */
+    public static final double TOLERANCE_BYTES = 1.0;
+
+    /**
+     * Bytes per operation allowed for a {@code _PerCall} benchmark: a few dozen tasks and
+     * small arrays, where boxing the vectors of its quarter-million floats would take megabytes.
+     */
+    public static final double PER_CALL_BYTES = 16 * 1024;
+
+    private static final String ALLOCATION_RATE = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws RunnerException {
+        IO.println("🔬 Vector API allocation check (-prof gc)");
+        IO.println("=========================================");
+        IO.println();
+
+        var options = new OptionsBuilder()
+            .include(JmhAllocationBenchmarks.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+        var failures = check(results);
+
+        IO.println();
+        if (failures.isEmpty()) {
+            IO.println("✅ No allocation on any hot-path kernel");
+            return;
+        }
+        IO.println("❌ Hot-path kernels that allocate (FloatVector not scalarized):");
+        failures.forEach(failure -> IO.println("   " + failure));
+        System.exit(1);
+    }
+
+    private static List<String> check(Collection<RunResult> results) {
+        var failures = new ArrayList<String>();
+        if (results.isEmpty()) {
+            failures.add("no benchmark results: every fork failed");
+            return failures;
+        }
+        IO.println(String.format("%-45s %12s  %s", "Benchmark", "B/op", "Expected"));
+        for (RunResult result : results) {
+            String name = result.getParams().getBenchmark();
+            name = name.substring(name.lastIndexOf('.') + 1);
+            var allocation = result.getSecondaryResults().get(ALLOCATION_RATE);
+            if (allocation == null) {
+                failures.add(name + ": no " + ALLOCATION_RATE + " result");
+                continue;
+            }
+
+            double bytes = allocation.getScore();
+            boolean deoptimized = name.endsWith("_SpeciesField") || name.endsWith("_Megamorphic");
+            boolean perCall = name.endsWith("_PerCall");
+            double limit = perCall ? PER_CALL_BYTES : TOLERANCE_BYTES;
+            String expected = deoptimized ? "allocates" : perCall ? String.format("<= %.0f", limit) : "0";
+            IO.println(String.format("%-45s %12.2f  %s", name, bytes, expected));
+            if (!deoptimized && bytes > limit) {
+                failures.add(String.format("%s: %.2f B/op", name, bytes));
+            }
+            if (deoptimized && bytes <= TOLERANCE_BYTES) {
+                IO.println("   (" + name + " did not allocate: C2 scalarized it anyway)");
+            }
+        }
+        return failures;
+    }
+}
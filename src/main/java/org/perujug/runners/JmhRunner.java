@@ -3,7 +3,9 @@ package org.perujug.runners;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.perujug.jmh.JmhJfrProfiler;
 import org.perujug.jmh.JmhVectorBenchmarks;
+import org.perujug.profiling.FlightRecording;
 
 public class JmhRunner {
     
@@ -19,8 +21,14 @@ public class JmhRunner {
         IO.println();
         IO.println("This will take several minutes for accurate results...");
         IO.println();
+
+        var jfrDirectory = FlightRecording.directory();
+        if (jfrDirectory != null) {
+            IO.println("JFR recordings: " + jfrDirectory.toAbsolutePath());
+            IO.println();
+        }
         
-        var options = new OptionsBuilder()
+        var builder = new OptionsBuilder()
             .include(JmhVectorBenchmarks.class.getSimpleName())
             .forks(2)
             .warmupIterations(3)
@@ -30,9 +38,11 @@ public class JmhRunner {
                 "-XX:+UnlockExperimentalVMOptions",
                 "-XX:+UseSuperWord",
                 "-XX:+UseVectorCmov"
-            )
-            .build();
+            );
+        if (jfrDirectory != null) {
+            builder.addProfiler(JmhJfrProfiler.class, "dir=" + jfrDirectory.toAbsolutePath());
+        }
 
-        new Runner(options).run();
+        new Runner(builder.build()).run();
     }
 }
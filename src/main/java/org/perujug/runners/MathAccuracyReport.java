@@ -0,0 +1,144 @@
+package org.perujug.runners;
+
+import jdk.incubator.vector.*;
+import org.perujug.kernels.MathKernels;
+import org.perujug.kernels.MathKernels.Mode;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Max ULP error of every {@link MathKernels} variant against a double-precision reference.
+ *
+ * <p>Each function is sampled at evenly spaced float bit patterns over the domain that the
+ * {@link Mode#FAST} kernels support, so the error is spread over every binade rather than
+ * concentrated where uniform sampling would put it. Special values (NaN, infinities,
+ * zeros, subnormals) are checked separately, since fast mode does not handle them.
+ */
+public class MathAccuracyReport {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int SAMPLES = 1 << 22;
+
+    @FunctionalInterface
+    private interface ArrayKernel {
+        void apply(float[] src, float[] dst);
+    }
+
+    private record Function(String name, float min, float max, DoubleUnaryOperator reference,
+                            ArrayKernel lanewise, ArrayKernel fast, ArrayKernel strict, float[] specials) {
+    }
+
+    public static void main(String[] args) {
+        var functions = new Function[] {
+            new Function("exp", -87.3f, 88.3f, Math::exp,
+                    (s, d) -> MathKernels.exp(s, 0, d, 0, s.length),
+                    (s, d) -> MathKernels.expPoly(Mode.FAST, s, 0, d, 0, s.length),
+                    (s, d) -> MathKernels.expPoly(Mode.STRICT, s, 0, d, 0, s.length),
+                    new float[] {Float.NaN, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY, -0.0f, -100.0f, 89.0f}),
+            new Function("log", Float.MIN_NORMAL, Float.MAX_VALUE, Math::log,
+                    (s, d) -> MathKernels.log(s, 0, d, 0, s.length),
+                    (s, d) -> MathKernels.logPoly(Mode.FAST, s, 0, d, 0, s.length),
+                    (s, d) -> MathKernels.logPoly(Mode.STRICT, s, 0, d, 0, s.length),
+                    new float[] {Float.NaN, Float.POSITIVE_INFINITY, 0.0f, -0.0f, -1.0f, 1.0e-40f, Float.MIN_VALUE}),
+            new Function("tanh", -20.0f, 20.0f, Math::tanh,
+                    (s, d) -> MathKernels.tanh(s, 0, d, 0, s.length),
+                    (s, d) -> MathKernels.tanhPoly(Mode.FAST, s, 0, d, 0, s.length),
+                    (s, d) -> MathKernels.tanhPoly(Mode.STRICT, s, 0, d, 0, s.length),
+                    new float[] {Float.NaN, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY, -0.0f, 1.0e-40f}),
+            new Function("sigmoid", -80.0f, 80.0f, MathAccuracyReport::sigmoid,
+                    (s, d) -> MathKernels.sigmoid(s, 0, d, 0, s.length),
+                    (s, d) -> MathKernels.sigmoidPoly(Mode.FAST, s, 0, d, 0, s.length),
+                    (s, d) -> MathKernels.sigmoidPoly(Mode.STRICT, s, 0, d, 0, s.length),
+                    new float[] {Float.NaN, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY, -0.0f, -100.0f})
+        };
+
+        IO.println("--- Vector Math Accuracy (max ULP vs double reference) ---");
+        IO.println("Species: " + SPECIES + ", " + String.format("%,d", SAMPLES) + " samples per function");
+        IO.println();
+        IO.println(String.format("%-8s %-26s %10s %10s %10s %10s", "Function", "Domain", "Math", "lanewise", "fast", "strict"));
+
+        for (Function function : functions) {
+            float[] src = sample(function.min(), function.max());
+            float[] dst = new float[src.length];
+            for (int i = 0; i < src.length; i++) {
+                dst[i] = (float) function.reference().applyAsDouble(src[i]);
+            }
+            double scalar = maxUlp(function, src, dst);
+            function.lanewise().apply(src, dst);
+            double lanewise = maxUlp(function, src, dst);
+            function.fast().apply(src, dst);
+            double fast = maxUlp(function, src, dst);
+            function.strict().apply(src, dst);
+            double strict = maxUlp(function, src, dst);
+
+            String domain = String.format("[%.4g, %.4g]", function.min(), function.max());
+            IO.println(String.format("%-8s %-26s %10.2f %10.2f %10.2f %10.2f",
+                    function.name(), domain, scalar, lanewise, fast, strict));
+        }
+
+        IO.println();
+        IO.println("Special values (NaN, infinities, zeros, subnormals), max ULP:");
+        IO.println(String.format("%-8s %10s %10s", "Function", "lanewise", "strict"));
+        for (Function function : functions) {
+            float[] src = function.specials();
+            float[] dst = new float[src.length];
+            function.lanewise().apply(src, dst);
+            double lanewise = maxUlp(function, src, dst);
+            function.strict().apply(src, dst);
+            double strict = maxUlp(function, src, dst);
+            IO.println(String.format("%-8s %10s %10s", function.name(), format(lanewise), format(strict)));
+        }
+    }
+
+    private static double sigmoid(double x) {
+        return x >= 0 ? 1.0 / (1.0 + Math.exp(-x)) : Math.exp(x) / (1.0 + Math.exp(x));
+    }
+
+    // Evenly spaced bit patterns over [min, max]; negative and positive halves are sampled separately
+    private static float[] sample(float min, float max) {
+        if (min < 0 && max > 0) {
+            float[] negative = sampleSameSign(-min, Float.MIN_VALUE, SAMPLES / 2);
+            float[] positive = sampleSameSign(Float.MIN_VALUE, max, SAMPLES / 2);
+            float[] all = new float[SAMPLES];
+            for (int i = 0; i < negative.length; i++) {
+                all[i] = -negative[i];
+            }
+            System.arraycopy(positive, 0, all, negative.length, positive.length);
+            return all;
+        }
+        return sampleSameSign(min, max, SAMPLES);
+    }
+
+    private static float[] sampleSameSign(float from, float to, int count) {
+        long lo = Float.floatToRawIntBits(Math.min(from, to));
+        long hi = Float.floatToRawIntBits(Math.max(from, to));
+        float[] samples = new float[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = Float.intBitsToFloat((int) (lo + (hi - lo) * i / (count - 1)));
+        }
+        return samples;
+    }
+
+    private static double maxUlp(Function function, float[] src, float[] dst) {
+        double max = 0.0;
+        for (int i = 0; i < src.length; i++) {
+            max = Math.max(max, ulpError(dst[i], function.reference().applyAsDouble(src[i])));
+        }
+        return max;
+    }
+
+    private static double ulpError(float actual, double expected) {
+        if (Double.isNaN(expected) || Float.isNaN(actual)) {
+            return Double.isNaN(expected) == Float.isNaN(actual) ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+        float rounded = (float) expected;
+        if (Float.isInfinite(rounded) || Float.isInfinite(actual)) {
+            return rounded == actual ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+        return Math.abs(actual - expected) / Math.ulp(rounded);
+    }
+
+    private static String format(double ulp) {
+        return Double.isInfinite(ulp) ? "wrong" : String.format("%.2f", ulp);
+    }
+}
@@ -0,0 +1,93 @@
+package org.perujug.runners;
+
+import org.perujug.base.BenchmarkBase;
+import org.perujug.base.MachineRoofs;
+
+/**
+ * Places every benchmark on a single-core roofline of the local machine.
+ *
+ * <p>First the roofs are measured: triad bandwidth at each array size, so that a size that
+ * fits in cache is held to the cache's bandwidth, and the register-only FMA peak. Then each
+ * benchmark runs its scalar and Vector API kernels at each size, and the achieved GB/s and
+ * GFLOP/s are reported next to the fraction of each roof they reach. A kernel whose
+ * arithmetic intensity is below the ridge point can at best reach the bandwidth roof, so that
+ * is the fraction to read for it; above the ridge, the FLOP roof.
+ */
+public class RooflineRunner {
+
+    /** Floats per array: L1, L2, L2/L3, L3 and DRAM resident on a typical core. */
+    public static final int[] SIZES = {4 * 1024, 32 * 1024, 256 * 1024, 2 * 1024 * 1024, 16 * 1024 * 1024};
+
+    // Elements processed per timed run, so that small sizes repeat enough to be measurable
+    private static final long ELEMENTS_PER_RUN = 64L * 1024 * 1024;
+    private static final int TRIALS = 5;
+
+    private final MachineRoofs roofs;
+    private float sink;
+
+    public RooflineRunner(MachineRoofs roofs) {
+        this.roofs = roofs;
+    }
+
+    public static void main(String[] args) {
+        IO.println("--- Roofline ---");
+        IO.println("Measuring machine roofs (single core)...");
+        var roofs = MachineRoofs.measure(SIZES);
+
+        IO.println(String.format("Peak FMA:       %.1f GFLOP/s", roofs.peakGflops()));
+        for (int size : SIZES) {
+            IO.println(String.format("Triad %,11d floats: %7.1f GB/s (ridge at %.2f flop/byte)",
+                    size, roofs.bandwidthGBs(size), roofs.ridgePoint(size)));
+        }
+        IO.println();
+
+        new RooflineRunner(roofs).runAll();
+    }
+
+    private void runAll() {
+        IO.println(String.format("%-30s %-7s %11s %5s %9s %9s %7s %7s  %s",
+                "Benchmark", "Kernel", "Size", "AI", "GB/s", "GFLOP/s", "%BW", "%FLOP", "Bound"));
+        for (var factory : BenchmarkRunner.BENCHMARKS) {
+            for (int size : SIZES) {
+                var benchmark = factory.apply(size);
+                report(benchmark, "Array", time(benchmark, false));
+                report(benchmark, "Vector", time(benchmark, true));
+            }
+        }
+        IO.println();
+        IO.println("AI = arithmetic intensity in flop/byte; %BW and %FLOP are fractions of each roof.");
+        if (sink == 42.0f) {
+            IO.println("");
+        }
+    }
+
+    // Best nanoseconds per element over TRIALS runs, after one untimed run for warmup
+    private double time(BenchmarkBase benchmark, boolean vector) {
+        int reps = (int) Math.max(1, ELEMENTS_PER_RUN / benchmark.size());
+        long best = Long.MAX_VALUE;
+        for (int t = 0; t <= TRIALS; t++) {
+            long start = System.nanoTime();
+            for (int r = 0; r < reps; r++) {
+                sink += vector ? benchmark.runVectorKernel() : benchmark.runArrayKernel();
+            }
+            long elapsed = System.nanoTime() - start;
+            if (t > 0) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        return (double) best / ((long) reps * benchmark.size());
+    }
+
+    private void report(BenchmarkBase benchmark, String kernel, double nanosPerElement) {
+        var cost = benchmark.kernelCost();
+        int size = benchmark.size();
+        double gbs = cost.bytesPerElement() / nanosPerElement;
+        double gflops = cost.flopsPerElement() / nanosPerElement;
+        double bandwidthRoof = roofs.bandwidthGBs(size);
+        boolean memoryBound = cost.intensity() < roofs.ridgePoint(size);
+        IO.println(String.format("%-30s %-7s %,11d %5.2f %9.2f %9.2f %6.1f%% %6.1f%%  %s",
+                benchmark.getBenchmarkName(), kernel, size, cost.intensity(), gbs, gflops,
+                100 * gbs / bandwidthRoof, 100 * gflops / roofs.peakGflops(),
+                memoryBound ? "memory" : "compute"));
+    }
+}
@@ -0,0 +1,56 @@
+package org.perujug.runners;
+
+import org.perujug.tuning.DispatchTable;
+import org.perujug.tuning.Kernel;
+import org.perujug.tuning.SpeciesTuner;
+import org.perujug.tuning.TunedKernels;
+import org.perujug.tuning.VectorWidth;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Runs the {@link SpeciesTuner} and saves the resulting dispatch table.
+ *
+ * <p>Usage: {@code SpeciesTuningRunner [table file]}. The file defaults to
+ * {@link TunedKernels#tableFile()}, which is where {@link TunedKernels} looks for it at startup.
+ */
+public class SpeciesTuningRunner {
+
+    public static void main(String[] args) throws IOException {
+        var file = args.length > 0 ? Path.of(args[0]) : TunedKernels.tableFile();
+        var widths = VectorWidth.supported();
+
+        IO.println("--- Vector Species Auto-Tuner ---");
+        IO.println("Supported widths: " + widths);
+        IO.println("Preferred width:  " + VectorWidth.preferred());
+        IO.println();
+        IO.println(String.format("%-9s %10s %-10s %14s", "Kernel", "Length", "Width", "ns/element"));
+
+        var table = new SpeciesTuner().tune(m -> IO.println(String.format("%-9s %,10d %-10s %14.4f",
+                m.kernel(), m.length(), m.width(), m.nanosPerElement())));
+
+        IO.println();
+        IO.println("Dispatch table (max length:width):");
+        IO.print(table);
+        IO.println();
+        printChanges(table);
+
+        table.save(file);
+        TunedKernels.install(table);
+        IO.println("Saved to " + file.toAbsolutePath());
+    }
+
+    private static void printChanges(DispatchTable table) {
+        var preferred = VectorWidth.preferred();
+        for (Kernel kernel : Kernel.values()) {
+            for (var range : table.ranges(kernel)) {
+                if (range.width() != preferred) {
+                    IO.println(String.format("%-9s overrides the preferred width up to %s with %s",
+                            kernel, range.maxLength() == Integer.MAX_VALUE ? "any length" : String.format("%,d", range.maxLength()),
+                            range.width()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.perujug.runners;
+
+import org.perujug.streaming.StreamingEngine;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Measures {@link StreamingEngine} throughput over memory-mapped files.
+ *
+ * <p>Usage: {@code StreamingBenchmark <dir> [GiB per operand]}. The default operand
+ * size is twice the physical RAM so the page cache cannot hold the working set. The
+ * cold pass drops the page cache first (needs root on Linux); the warm pass repeats
+ * the operation straight after, reusing whatever the cold pass left cached.
+ */
+public class StreamingBenchmark {
+
+    private static final long GIB = 1024L * 1024 * 1024;
+    private static final int PATTERN_FLOATS = 1024 * 1024;
+
+    private final StreamingEngine engine = new StreamingEngine();
+    private final Path fileA;
+    private final Path fileB;
+    private final Path fileOut;
+    private final long length;
+
+    public StreamingBenchmark(Path dir, long length) {
+        this.fileA = dir.resolve("stream-a.f32");
+        this.fileB = dir.resolve("stream-b.f32");
+        this.fileOut = dir.resolve("stream-out.f32");
+        this.length = length;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            IO.println("Usage: StreamingBenchmark <dir> [GiB per operand]");
+            return;
+        }
+
+        long ram = physicalMemory();
+        long bytes = args.length > 1 ? (long) (Double.parseDouble(args[1]) * GIB) : 2 * ram;
+        var benchmark = new StreamingBenchmark(Path.of(args[0]), bytes / Float.BYTES);
+
+        IO.println("--- Mapped File Streaming Benchmark ---");
+        IO.println(String.format("Operand size:   %.2f GiB (%,d floats)", (double) bytes / GIB, bytes / Float.BYTES));
+        IO.println(String.format("Physical RAM:   %.2f GiB", (double) ram / GIB));
+        IO.println();
+
+        benchmark.prepareInputs();
+        benchmark.runAll();
+    }
+
+    private void runAll() throws IOException {
+        IO.println(String.format("%-8s %-6s %12s %10s", "Kernel", "Cache", "Time (s)", "GB/s"));
+        run("add", 3, () -> engine.add(fileA, fileB, fileOut));
+        run("scale", 2, () -> engine.scale(fileA, 2.5f, fileOut));
+        run("fma", 3, () -> engine.fma(fileA, fileB, 1.5f, fileOut));
+        run("dot", 2, () -> engine.dot(fileA, fileB));
+        IO.println();
+
+        Files.deleteIfExists(fileOut);
+    }
+
+    @FunctionalInterface
+    private interface StreamOp {
+        void run() throws IOException;
+    }
+
+    private void run(String name, int streams, StreamOp op) throws IOException {
+        boolean dropped = dropPageCache();
+        report(name, dropped ? "cold" : "cold?", streams, time(op));
+        report(name, "warm", streams, time(op));
+        if (!dropped) {
+            IO.println("  (could not drop the page cache; cold pass relies on the files exceeding RAM)");
+        }
+    }
+
+    private long time(StreamOp op) throws IOException {
+        long start = System.nanoTime();
+        op.run();
+        if (Files.exists(fileOut)) {
+            // Include write-back of the output mapping in the measurement
+            try (var channel = FileChannel.open(fileOut, WRITE)) {
+                channel.force(true);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void report(String name, String cache, int streams, long nanos) {
+        double bytes = (double) length * Float.BYTES * streams;
+        IO.println(String.format("%-8s %-6s %12.2f %10.2f", name, cache, nanos / 1e9, bytes / nanos));
+    }
+
+    private void prepareInputs() throws IOException {
+        Files.createDirectories(fileA.getParent());
+        writeIfMissing(fileA, 42);
+        writeIfMissing(fileB, 43);
+    }
+
+    private void writeIfMissing(Path file, long seed) throws IOException {
+        if (Files.exists(file) && Files.size(file) == length * Float.BYTES) {
+            return;
+        }
+
+        IO.println("Generating " + file + "...");
+        var random = new Random(seed);
+        float[] pattern = new float[PATTERN_FLOATS];
+        for (int i = 0; i < pattern.length; i++) {
+            pattern[i] = random.nextFloat() * 100;
+        }
+        var source = MemorySegment.ofArray(pattern);
+
+        try (var channel = FileChannel.open(file, READ, WRITE, CREATE, TRUNCATE_EXISTING)) {
+            for (long start = 0; start < length; start += PATTERN_FLOATS) {
+                long n = Math.min(PATTERN_FLOATS, length - start);
+                try (var arena = Arena.ofConfined()) {
+                    var window = channel.map(FileChannel.MapMode.READ_WRITE,
+                            start * Float.BYTES, n * Float.BYTES, arena);
+                    MemorySegment.copy(source, 0, window, 0, n * Float.BYTES);
+                }
+            }
+            channel.force(true);
+        }
+    }
+
+    private static boolean dropPageCache() {
+        try {
+            new ProcessBuilder("sync").inheritIO().start().waitFor();
+            Files.writeString(Path.of("/proc/sys/vm/drop_caches"), "3");
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long physicalMemory() {
+        var os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean bean) {
+            return bean.getTotalMemorySize();
+        }
+        return 16 * GIB;
+    }
+}
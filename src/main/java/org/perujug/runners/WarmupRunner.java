@@ -0,0 +1,195 @@
+package org.perujug.runners;
+
+import org.perujug.base.BenchmarkBase;
+import org.perujug.profiling.FlightRecording;
+import org.perujug.profiling.JfrSummary;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Warmup curve of every kernel from its very first call: per-call time, the time it takes to
+ * reach peak speed, and which calls ran in the interpreter, in C1 code and in C2 code.
+ *
+ * <p>Usage: {@code WarmupRunner [output dir] [benchmark name filter]}. Each kernel runs
+ * {@link #CALLS} times on {@link #SIZE} floats under a JFR recording; the compilation events of
+ * its hot loop method (the one that gets an OSR compilation) mark the phase boundaries. Peak is
+ * the median of the last {@link #PEAK_CALLS} calls, and time to peak is the elapsed time until
+ * the median of every later {@link #WINDOW}-call window stays within {@link #PEAK_TOLERANCE} of
+ * it. Per-call times are saved as CSV next to the recordings.
+ *
+ * <p>Kernels run in one JVM in list order, so the first one also pays for loading and
+ * initializing the Vector API classes. Run with {@code -XX:AOTCache} (see {@code make
+ * warmup-curve-aot}) to measure what an AOT cache trained on these runs saves.
+ */
+public class WarmupRunner {
+
+    /** Floats per call: small enough for many calls, large enough to OSR on the first. */
+    public static final int SIZE = 64 * 1024;
+    public static final int CALLS = 3000;
+    public static final int PEAK_CALLS = CALLS / 10;
+    public static final int WINDOW = 20;
+    public static final double PEAK_TOLERANCE = 1.10;
+
+    private static final Path DEFAULT_DIRECTORY = Path.of("target/warmup");
+
+    private final Path directory;
+    private final long[] callStart = new long[CALLS];
+    private final long[] callNanos = new long[CALLS];
+    private float sink;
+
+    public WarmupRunner(Path directory) {
+        this.directory = directory;
+    }
+
+    /** Where a kernel's warmup ended up. */
+    public record Curve(String name, long firstCall, long peak, int callsToPeak, double msToPeak,
+                        int c1Call, int c2Call, int fullC2Call) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        var directory = args.length > 0 ? Path.of(args[0]) : DEFAULT_DIRECTORY;
+        String filter = args.length > 1 ? args[1].toLowerCase() : "";
+        Files.createDirectories(directory);
+
+        IO.println("--- Warmup Curves ---");
+        IO.println(String.format("Calls per kernel: %,d x %,d floats", CALLS, SIZE));
+        IO.println("AOT cache:        " + aotCache());
+        IO.println("Output:           " + directory.toAbsolutePath());
+        IO.println();
+
+        var runner = new WarmupRunner(directory);
+        var curves = new ArrayList<Curve>();
+        for (var factory : BenchmarkRunner.BENCHMARKS) {
+            var benchmark = factory.apply(SIZE);
+            if (!benchmark.getBenchmarkName().toLowerCase().contains(filter)) {
+                continue;
+            }
+            curves.add(runner.run(benchmark, "Array", BenchmarkBase::runArrayKernel));
+            curves.add(runner.run(benchmark, "Vector", BenchmarkBase::runVectorKernel));
+        }
+        print(curves);
+    }
+
+    private Curve run(BenchmarkBase benchmark, String kernel, ToDoubleFunction<BenchmarkBase> call) throws IOException {
+        String name = benchmark.getBenchmarkName() + " / " + kernel;
+        String file = FlightRecording.fileName(benchmark.getBenchmarkName() + "-" + kernel);
+
+        JfrSummary summary;
+        Instant origin;
+        long originNanos;
+        try (var recording = FlightRecording.start(directory.resolve(file))) {
+            origin = Instant.now();
+            originNanos = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                long start = System.nanoTime();
+                sink += (float) call.applyAsDouble(benchmark);
+                callNanos[i] = System.nanoTime() - start;
+                callStart[i] = start - originNanos;
+            }
+            summary = recording.stop();
+        }
+        saveCsv(directory.resolve(file.replace(".jfr", ".csv")));
+
+        // Phase boundaries: the first call that started after the code was installed
+        int c1 = CALLS;
+        int c2 = CALLS;
+        int fullC2 = CALLS;
+        var hotMethods = summary.compilations().stream()
+                .filter(JfrSummary.Compilation::osr)
+                .map(JfrSummary.Compilation::method)
+                .distinct()
+                .toList();
+        for (var compilation : summary.compilations()) {
+            if (!hotMethods.contains(compilation.method())) {
+                continue;
+            }
+            int first = firstCallAfter(Duration.between(origin, compilation.installed()).toNanos());
+            if (compilation.level() < 4) {
+                c1 = Math.min(c1, first);
+            } else {
+                c2 = Math.min(c2, first);
+                if (!compilation.osr()) {
+                    fullC2 = Math.min(fullC2, first);
+                }
+            }
+        }
+
+        long peak = median(callNanos, CALLS - PEAK_CALLS, CALLS);
+        int callsToPeak = callsToPeak(peak);
+        double msToPeak = (callStart[callsToPeak - 1] + callNanos[callsToPeak - 1]) / 1e6;
+        return new Curve(name, callNanos[0], peak, callsToPeak, msToPeak, c1, c2, fullC2);
+    }
+
+    // Calls until every later WINDOW-call median is within PEAK_TOLERANCE of the peak
+    private int callsToPeak(long peak) {
+        long limit = (long) (peak * PEAK_TOLERANCE);
+        for (int i = CALLS - WINDOW; i >= 0; i--) {
+            if (median(callNanos, i, i + WINDOW) > limit) {
+                return Math.min(CALLS, i + WINDOW);
+            }
+        }
+        return 1;
+    }
+
+    private int firstCallAfter(long nanos) {
+        for (int i = 0; i < CALLS; i++) {
+            if (callStart[i] >= nanos) {
+                return i;
+            }
+        }
+        return CALLS;
+    }
+
+    private static long median(long[] values, int from, int to) {
+        long[] window = Arrays.copyOfRange(values, from, to);
+        Arrays.sort(window);
+        return window[window.length / 2];
+    }
+
+    private void saveCsv(Path file) throws IOException {
+        var lines = new ArrayList<String>(CALLS + 1);
+        lines.add("call,start_ms,nanos");
+        for (int i = 0; i < CALLS; i++) {
+            lines.add(String.format("%d,%.3f,%d", i, callStart[i] / 1e6, callNanos[i]));
+        }
+        Files.write(file, lines);
+    }
+
+    private static void print(List<Curve> curves) {
+        IO.println(String.format("%-40s %10s %10s %8s %10s %18s", "Kernel", "First (ms)", "Peak (us)",
+                "1st/peak", "To peak", "C1 / C2 / full C2"));
+        for (var curve : curves) {
+            IO.println(String.format("%-40s %10.2f %10.1f %7.0fx %10s %18s",
+                    curve.name(), curve.firstCall() / 1e6, curve.peak() / 1e3,
+                    (double) curve.firstCall() / curve.peak(),
+                    String.format("%.1f ms", curve.msToPeak()),
+                    call(curve.c1Call()) + " / " + call(curve.c2Call()) + " / " + call(curve.fullC2Call())));
+        }
+        IO.println();
+        IO.println("To peak: wall time from the first call until calls stay within "
+                + Math.round((PEAK_TOLERANCE - 1) * 100) + "% of peak.");
+        IO.println("C1 / C2 / full C2: first call after C1 code, C2 (usually OSR) code and a full C2 compile");
+        IO.println("of the kernel's loop were installed; calls before the C1 one ran in the interpreter.");
+    }
+
+    private static String call(int call) {
+        return call >= CALLS ? "-" : "#" + call;
+    }
+
+    private static String aotCache() {
+        return ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .filter(arg -> arg.startsWith("-XX:AOTCache="))
+                .map(arg -> arg.substring("-XX:AOTCache=".length()))
+                .findFirst()
+                .orElse("none");
+    }
+}
@@ -0,0 +1,238 @@
+package org.perujug.search;
+
+import jdk.incubator.vector.*;
+import org.perujug.kernels.FloatKernels;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * All-pairs scores between a batch of queries and a fixed {@code rows x dimension} table.
+ *
+ * <p>Scoring query by query streams the whole table once per query. Here the table is walked
+ * once per batch in {@link #ROW_BLOCK}-row blocks that stay in L2, and within a block every
+ * tile of {@link #QUERY_TILE} queries x {@link #ROW_TILE} rows is computed together: per
+ * dimension step the kernel loads 4 + 2 vectors and issues 8 FMAs into 8 accumulators, where
+ * the single-pair kernel loads 2 vectors per FMA. For {@link Metric#L2} and
+ * {@link Metric#COSINE} the squared norms of the table rows are computed once when it is
+ * wrapped, so L2 becomes {@code |q|^2 + |r|^2 - 2 q.r} and cosine a scaled dot product.
+ *
+ * <p>Scores are written row-major by query: {@code out[q * rows + r]}. {@link Metric#L2}
+ * yields squared distances, the other metrics similarities.
+ */
+public final class DistanceMatrix {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    /** Table rows per cache block: 64 x 768 floats is 192 KiB. */
+    public static final int ROW_BLOCK = 64;
+    /** Queries per register tile. */
+    public static final int QUERY_TILE = 4;
+    /** Table rows per register tile. */
+    public static final int ROW_TILE = 2;
+
+    // Row blocks per parallel task
+    private static final int TASK_BLOCKS = 4;
+
+    private final Metric metric;
+    private final float[] data;
+    private final int rows;
+    private final int dimension;
+    private final float[] squaredNorms;
+
+    private DistanceMatrix(Metric metric, float[] data, int rows, int dimension) {
+        this.metric = metric;
+        this.data = data;
+        this.rows = rows;
+        this.dimension = dimension;
+        this.squaredNorms = metric == Metric.INNER_PRODUCT ? new float[rows] : squaredNorms(data, rows, dimension);
+    }
+
+    /** Wraps a row-major {@code rows x dimension} table without copying it. */
+    public static DistanceMatrix of(Metric metric, float[] data, int rows, int dimension) {
+        if ((long) rows * dimension > data.length) {
+            throw new IllegalArgumentException(rows + " x " + dimension + " exceeds " + data.length + " floats");
+        }
+        return new DistanceMatrix(metric, data, rows, dimension);
+    }
+
+    public Metric metric() {
+        return metric;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    /** Scores {@code queryCount} row-major queries against every row into {@code out}. */
+    public void compute(float[] queries, int queryCount, float[] out) {
+        var prepared = prepare(queries, queryCount, out);
+        computeRows(prepared, 0, rows);
+    }
+
+    /** {@link #compute} with the row blocks spread over {@code pool}. */
+    public void compute(ForkJoinPool pool, float[] queries, int queryCount, float[] out) {
+        var prepared = prepare(queries, queryCount, out);
+        pool.invoke(new BlockTask(prepared, 0, rows));
+    }
+
+    private record Batch(float[] queries, int count, float[] squaredNorms, float[] out) {
+    }
+
+    private Batch prepare(float[] queries, int queryCount, float[] out) {
+        if ((long) queryCount * dimension > queries.length) {
+            throw new IllegalArgumentException(queryCount + " queries of dimension " + dimension
+                    + " exceed " + queries.length + " floats");
+        }
+        if ((long) queryCount * rows > out.length) {
+            throw new IllegalArgumentException("Output needs " + (long) queryCount * rows + " floats");
+        }
+        var norms = metric == Metric.INNER_PRODUCT ? new float[queryCount] : squaredNorms(queries, queryCount, dimension);
+        return new Batch(queries, queryCount, norms, out);
+    }
+
+    private void computeRows(Batch batch, int from, int to) {
+        for (int block = from; block < to; block += ROW_BLOCK) {
+            int blockEnd = Math.min(block + ROW_BLOCK, to);
+            int q = 0;
+            for (; q + QUERY_TILE <= batch.count(); q += QUERY_TILE) {
+                int r = block;
+                for (; r + ROW_TILE <= blockEnd; r += ROW_TILE) {
+                    tile(batch, q, r);
+                }
+                for (; r < blockEnd; r++) {
+                    for (int t = 0; t < QUERY_TILE; t++) {
+                        single(batch, q + t, r);
+                    }
+                }
+            }
+            for (; q < batch.count(); q++) {
+                for (int r = block; r < blockEnd; r++) {
+                    single(batch, q, r);
+                }
+            }
+        }
+    }
+
+    // QUERY_TILE x ROW_TILE dot products sharing every load
+    private void tile(Batch batch, int q, int r) {
+        float[] queries = batch.queries();
+        int d = dimension;
+        int q0 = q * d;
+        int q1 = q0 + d;
+        int q2 = q1 + d;
+        int q3 = q2 + d;
+        int r0 = r * d;
+        int r1 = r0 + d;
+
+        var acc00 = FloatVector.zero(SPECIES);
+        var acc01 = FloatVector.zero(SPECIES);
+        var acc10 = FloatVector.zero(SPECIES);
+        var acc11 = FloatVector.zero(SPECIES);
+        var acc20 = FloatVector.zero(SPECIES);
+        var acc21 = FloatVector.zero(SPECIES);
+        var acc30 = FloatVector.zero(SPECIES);
+        var acc31 = FloatVector.zero(SPECIES);
+
+        int i = 0;
+        int upperBound = SPECIES.loopBound(d);
+        for (; i < upperBound; i += SPECIES.length()) {
+            var vr0 = FloatVector.fromArray(SPECIES, data, r0 + i);
+            var vr1 = FloatVector.fromArray(SPECIES, data, r1 + i);
+            var vq0 = FloatVector.fromArray(SPECIES, queries, q0 + i);
+            acc00 = vq0.fma(vr0, acc00);
+            acc01 = vq0.fma(vr1, acc01);
+            var vq1 = FloatVector.fromArray(SPECIES, queries, q1 + i);
+            acc10 = vq1.fma(vr0, acc10);
+            acc11 = vq1.fma(vr1, acc11);
+            var vq2 = FloatVector.fromArray(SPECIES, queries, q2 + i);
+            acc20 = vq2.fma(vr0, acc20);
+            acc21 = vq2.fma(vr1, acc21);
+            var vq3 = FloatVector.fromArray(SPECIES, queries, q3 + i);
+            acc30 = vq3.fma(vr0, acc30);
+            acc31 = vq3.fma(vr1, acc31);
+        }
+
+        float d00 = acc00.reduceLanes(VectorOperators.ADD);
+        float d01 = acc01.reduceLanes(VectorOperators.ADD);
+        float d10 = acc10.reduceLanes(VectorOperators.ADD);
+        float d11 = acc11.reduceLanes(VectorOperators.ADD);
+        float d20 = acc20.reduceLanes(VectorOperators.ADD);
+        float d21 = acc21.reduceLanes(VectorOperators.ADD);
+        float d30 = acc30.reduceLanes(VectorOperators.ADD);
+        float d31 = acc31.reduceLanes(VectorOperators.ADD);
+
+        for (; i < d; i++) {
+            float a0 = data[r0 + i];
+            float a1 = data[r1 + i];
+            d00 += queries[q0 + i] * a0;
+            d01 += queries[q0 + i] * a1;
+            d10 += queries[q1 + i] * a0;
+            d11 += queries[q1 + i] * a1;
+            d20 += queries[q2 + i] * a0;
+            d21 += queries[q2 + i] * a1;
+            d30 += queries[q3 + i] * a0;
+            d31 += queries[q3 + i] * a1;
+        }
+
+        store(batch, q, r, d00);
+        store(batch, q, r + 1, d01);
+        store(batch, q + 1, r, d10);
+        store(batch, q + 1, r + 1, d11);
+        store(batch, q + 2, r, d20);
+        store(batch, q + 2, r + 1, d21);
+        store(batch, q + 3, r, d30);
+        store(batch, q + 3, r + 1, d31);
+    }
+
+    private void single(Batch batch, int q, int r) {
+        store(batch, q, r, FloatKernels.dot(SPECIES, batch.queries(), q * dimension, data, r * dimension, dimension));
+    }
+
+    private void store(Batch batch, int q, int r, float dot) {
+        float qq = batch.squaredNorms()[q];
+        float rr = squaredNorms[r];
+        batch.out()[q * rows + r] = switch (metric) {
+            case INNER_PRODUCT -> dot;
+            case COSINE -> qq == 0.0f || rr == 0.0f ? 0.0f : dot / (float) Math.sqrt(qq * rr);
+            // Cancellation can leave a tiny negative for near-identical vectors
+            case L2 -> Math.max(0.0f, qq + rr - 2.0f * dot);
+        };
+    }
+
+    private static float[] squaredNorms(float[] vectors, int count, int dimension) {
+        float[] norms = new float[count];
+        for (int v = 0; v < count; v++) {
+            norms[v] = FloatKernels.dot(SPECIES, vectors, v * dimension, vectors, v * dimension, dimension);
+        }
+        return norms;
+    }
+
+    private final class BlockTask extends RecursiveAction {
+        private final Batch batch;
+        private final int from;
+        private final int to;
+
+        BlockTask(Batch batch, int from, int to) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int span = TASK_BLOCKS * ROW_BLOCK;
+            if (to - from <= span) {
+                computeRows(batch, from, to);
+                return;
+            }
+            // Split on a row-block boundary so that every task but the last walks whole blocks
+            int mid = from + ((to - from + span - 1) / span / 2) * span;
+            invokeAll(new BlockTask(batch, from, mid), new BlockTask(batch, mid, to));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.perujug.search;
+
+import jdk.incubator.vector.*;
+import org.perujug.kernels.FloatKernels;
+import org.perujug.kernels.FloatSegmentKernels;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Fixed-capacity table of {@code count x dimension} float embeddings stored row by row
+ * in one contiguous block, either a heap {@code float[]} or an off-heap segment.
+ *
+ * <p>Row ids are assigned in insertion order starting at zero. The inverse L2 norm of
+ * every row is kept alongside so cosine similarity costs a single dot product per row.
+ */
+public final class EmbeddingStore {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private final int dimension;
+    private final int capacity;
+    private final float[] heap;
+    private final MemorySegment segment;
+    private final float[] inverseNorms;
+    private int count;
+
+    private EmbeddingStore(int dimension, int capacity, float[] heap, MemorySegment segment) {
+        this.dimension = dimension;
+        this.capacity = capacity;
+        this.heap = heap;
+        this.segment = segment;
+        this.inverseNorms = new float[capacity];
+    }
+
+    public static EmbeddingStore onHeap(int dimension, int capacity) {
+        long floats = (long) dimension * capacity;
+        if (floats > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(capacity + " x " + dimension + " does not fit in a float[]; use offHeap");
+        }
+        return new EmbeddingStore(dimension, capacity, new float[(int) floats], null);
+    }
+
+    /** Off-heap store; use a shared arena if the store will be scanned from a {@code ForkJoinPool}. */
+    public static EmbeddingStore offHeap(Arena arena, int dimension, int capacity) {
+        var segment = FloatSegmentKernels.allocate(arena, (long) dimension * capacity);
+        return new EmbeddingStore(dimension, capacity, null, segment);
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isOffHeap() {
+        return segment != null;
+    }
+
+    /** Appends {@code vector} and returns its row id. */
+    public int add(float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected dimension " + dimension + " but got " + vector.length);
+        }
+        if (count == capacity) {
+            throw new IllegalStateException("Store is full (" + capacity + " rows)");
+        }
+
+        int id = count++;
+        if (segment == null) {
+            System.arraycopy(vector, 0, heap, id * dimension, dimension);
+        } else {
+            MemorySegment.copy(vector, 0, segment, ValueLayout.JAVA_FLOAT,
+                    rowOffset(id) * Float.BYTES, dimension);
+        }
+        inverseNorms[id] = inverseNorm(vector);
+        return id;
+    }
+
+    /** Offset of row {@code id} in floats, for {@link #heap()} or {@link #segment()}. */
+    public long rowOffset(int id) {
+        return (long) id * dimension;
+    }
+
+    /** Heap backing array, or {@code null} when the store is off-heap. */
+    public float[] heap() {
+        return heap;
+    }
+
+    /** Off-heap backing segment, or {@code null} when the store is on the heap. */
+    public MemorySegment segment() {
+        return segment;
+    }
+
+    /** {@code 1 / |row id|}, or zero for an all-zero row. */
+    public float inverseNorm(int id) {
+        return inverseNorms[id];
+    }
+
+    static float inverseNorm(float[] vector) {
+        float norm = (float) Math.sqrt(FloatKernels.dot(SPECIES, vector, 0, vector, 0, vector.length));
+        return norm == 0.0f ? 0.0f : 1.0f / norm;
+    }
+}
@@ -0,0 +1,13 @@
+package org.perujug.search;
+
+/**
+ * Similarity measure used to rank stored vectors against a query.
+ *
+ * <p>{@link #INNER_PRODUCT} and {@link #COSINE} rank by descending similarity;
+ * {@link #L2} ranks by ascending squared Euclidean distance.
+ */
+public enum Metric {
+    INNER_PRODUCT,
+    COSINE,
+    L2
+}
@@ -0,0 +1,12 @@
+package org.perujug.search;
+
+/**
+ * Top-k neighbours of one query, best first. For {@link Metric#L2} the scores are
+ * squared distances; for the other metrics they are similarities.
+ */
+public record SearchResult(int[] ids, float[] scores) {
+
+    public int size() {
+        return ids.length;
+    }
+}
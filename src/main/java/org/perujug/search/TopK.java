@@ -0,0 +1,123 @@
+package org.perujug.search;
+
+/**
+ * Bounded min-heap of (id, score) pairs that keeps the {@code k} highest scores.
+ *
+ * <p>Backed by two primitive arrays allocated once, so offering a candidate never
+ * allocates or boxes. The root holds the lowest retained score, which is the
+ * threshold a new candidate has to beat once the heap is full.
+ */
+public final class TopK {
+
+    private final int[] ids;
+    private final float[] scores;
+    private int size;
+
+    public TopK(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.ids = new int[k];
+        this.scores = new float[k];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /** Lowest retained score, or negative infinity while the heap is not full yet. */
+    public float threshold() {
+        return size < ids.length ? Float.NEGATIVE_INFINITY : scores[0];
+    }
+
+    public void offer(int id, float score) {
+        if (size < ids.length) {
+            int i = size++;
+            // Sift up
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (scores[parent] <= score) {
+                    break;
+                }
+                ids[i] = ids[parent];
+                scores[i] = scores[parent];
+                i = parent;
+            }
+            ids[i] = id;
+            scores[i] = score;
+        } else if (score > scores[0]) {
+            siftDown(id, score);
+        }
+    }
+
+    public void addAll(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.ids[i], other.scores[i]);
+        }
+    }
+
+    /**
+     * Returns the retained entries best first. When {@code negate} is set the stored
+     * scores are flipped back, for metrics that were ranked as negated distances.
+     */
+    public SearchResult toResult(boolean negate) {
+        int n = size;
+        int[] outIds = new int[n];
+        float[] outScores = new float[n];
+        int[] heapIds = ids.clone();
+        float[] heapScores = scores.clone();
+
+        // Heap-sort a copy: repeatedly move the minimum to the back of the output
+        for (int last = n - 1; last >= 0; last--) {
+            outIds[last] = heapIds[0];
+            outScores[last] = negate ? -heapScores[0] : heapScores[0];
+            int movedId = heapIds[last];
+            float moved = heapScores[last];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= last) {
+                    break;
+                }
+                if (child + 1 < last && heapScores[child + 1] < heapScores[child]) {
+                    child++;
+                }
+                if (moved <= heapScores[child]) {
+                    break;
+                }
+                heapIds[i] = heapIds[child];
+                heapScores[i] = heapScores[child];
+                i = child;
+            }
+            heapIds[i] = movedId;
+            heapScores[i] = moved;
+        }
+
+        return new SearchResult(outIds, outScores);
+    }
+
+    private void siftDown(int id, float score) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && scores[child + 1] < scores[child]) {
+                child++;
+            }
+            if (score <= scores[child]) {
+                break;
+            }
+            ids[i] = ids[child];
+            scores[i] = scores[child];
+            i = child;
+        }
+        ids[i] = id;
+        scores[i] = score;
+    }
+}
@@ -0,0 +1,205 @@
+package org.perujug.search;
+
+import jdk.incubator.vector.*;
+import org.perujug.kernels.FloatKernels;
+import org.perujug.kernels.FloatSegmentKernels;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Exact (brute-force) top-k search over an {@link EmbeddingStore}.
+ *
+ * <p>Every row is scored with the SIMD dot-product or squared-distance kernel and fed to a
+ * primitive {@link TopK} heap. The parallel overloads split the rows into
+ * {@link #SEGMENT_ROWS}-row segments on a {@link ForkJoinPool}, keep one heap per segment
+ * and merge the heaps pairwise. Batches walk the rows in {@link #BATCH_BLOCK_ROWS}-row
+ * blocks and score every query against a block while it is still in cache.
+ */
+public final class VectorSearchEngine {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    /** Rows per parallel scan task. */
+    public static final int SEGMENT_ROWS = 16 * 1024;
+    /** Rows scored against all queries of a batch before moving on: 64 x 768 floats is 192 KiB. */
+    public static final int BATCH_BLOCK_ROWS = 64;
+
+    private final EmbeddingStore store;
+    private final Metric metric;
+
+    public VectorSearchEngine(EmbeddingStore store, Metric metric) {
+        this.store = store;
+        this.metric = metric;
+    }
+
+    public Metric metric() {
+        return metric;
+    }
+
+    public SearchResult search(float[] query, int k) {
+        var prepared = prepare(new float[][] {query});
+        var top = new TopK(k);
+        scan(prepared, 0, 0, store.size(), top);
+        return top.toResult(metric == Metric.L2);
+    }
+
+    public SearchResult search(ForkJoinPool pool, float[] query, int k) {
+        return searchBatch(pool, new float[][] {query}, k)[0];
+    }
+
+    public SearchResult[] searchBatch(float[][] queries, int k) {
+        var tops = scanBatch(prepare(queries), k, 0, store.size());
+        return toResults(tops);
+    }
+
+    public SearchResult[] searchBatch(ForkJoinPool pool, float[][] queries, int k) {
+        var tops = pool.invoke(new SegmentTask(prepare(queries), k, 0, store.size()));
+        return toResults(tops);
+    }
+
+    /**
+     * Queries plus what the scan loops need per query. Off-heap stores get an aligned
+     * native copy of each query so both kernel operands are native segments.
+     */
+    private record Queries(float[][] vectors, MemorySegment[] segments, float[] inverseNorms) {
+    }
+
+    private Queries prepare(float[][] queries) {
+        var segments = new MemorySegment[queries.length];
+        var inverseNorms = new float[queries.length];
+        for (int q = 0; q < queries.length; q++) {
+            checkDimension(queries[q]);
+            inverseNorms[q] = EmbeddingStore.inverseNorm(queries[q]);
+            if (store.isOffHeap()) {
+                segments[q] = FloatSegmentKernels.allocate(Arena.ofAuto(), queries[q].length);
+                MemorySegment.copy(queries[q], 0, segments[q], ValueLayout.JAVA_FLOAT, 0, queries[q].length);
+            }
+        }
+        return new Queries(queries, segments, inverseNorms);
+    }
+
+    private TopK[] scanBatch(Queries queries, int k, int from, int to) {
+        int count = queries.vectors().length;
+        var tops = new TopK[count];
+        for (int q = 0; q < count; q++) {
+            tops[q] = new TopK(k);
+        }
+
+        for (int block = from; block < to; block += BATCH_BLOCK_ROWS) {
+            int blockEnd = Math.min(block + BATCH_BLOCK_ROWS, to);
+            for (int q = 0; q < count; q++) {
+                scan(queries, q, block, blockEnd, tops[q]);
+            }
+        }
+
+        return tops;
+    }
+
+    // Scores rows [from, to) against one query; the metric and storage are resolved once per call
+    private void scan(Queries queries, int q, int from, int to, TopK top) {
+        float inverseQueryNorm = queries.inverseNorms()[q];
+        if (store.isOffHeap()) {
+            scanOffHeap(queries.segments()[q], inverseQueryNorm, from, to, top);
+        } else {
+            scanHeap(queries.vectors()[q], inverseQueryNorm, from, to, top);
+        }
+    }
+
+    private void scanHeap(float[] query, float inverseQueryNorm, int from, int to, TopK top) {
+        float[] data = store.heap();
+        int d = store.dimension();
+
+        switch (metric) {
+            case INNER_PRODUCT -> {
+                for (int row = from; row < to; row++) {
+                    top.offer(row, FloatKernels.dot(SPECIES, data, row * d, query, 0, d));
+                }
+            }
+            case COSINE -> {
+                for (int row = from; row < to; row++) {
+                    float dot = FloatKernels.dot(SPECIES, data, row * d, query, 0, d);
+                    top.offer(row, dot * inverseQueryNorm * store.inverseNorm(row));
+                }
+            }
+            case L2 -> {
+                for (int row = from; row < to; row++) {
+                    top.offer(row, -FloatKernels.squaredDistance(SPECIES, data, row * d, query, 0, d));
+                }
+            }
+        }
+    }
+
+    private void scanOffHeap(MemorySegment q, float inverseQueryNorm, int from, int to, TopK top) {
+        MemorySegment data = store.segment();
+        int d = store.dimension();
+
+        switch (metric) {
+            case INNER_PRODUCT -> {
+                for (int row = from; row < to; row++) {
+                    top.offer(row, FloatSegmentKernels.dot(SPECIES, data, store.rowOffset(row), q, 0, d));
+                }
+            }
+            case COSINE -> {
+                for (int row = from; row < to; row++) {
+                    float dot = FloatSegmentKernels.dot(SPECIES, data, store.rowOffset(row), q, 0, d);
+                    top.offer(row, dot * inverseQueryNorm * store.inverseNorm(row));
+                }
+            }
+            case L2 -> {
+                for (int row = from; row < to; row++) {
+                    top.offer(row, -FloatSegmentKernels.squaredDistance(SPECIES, data, store.rowOffset(row), q, 0, d));
+                }
+            }
+        }
+    }
+
+    private SearchResult[] toResults(TopK[] tops) {
+        var results = new SearchResult[tops.length];
+        for (int q = 0; q < tops.length; q++) {
+            results[q] = tops[q].toResult(metric == Metric.L2);
+        }
+        return results;
+    }
+
+    private void checkDimension(float[] query) {
+        if (query.length != store.dimension()) {
+            throw new IllegalArgumentException("Expected dimension " + store.dimension() + " but got " + query.length);
+        }
+    }
+
+    private final class SegmentTask extends RecursiveTask<TopK[]> {
+        private final Queries queries;
+        private final int k;
+        private final int from;
+        private final int to;
+
+        SegmentTask(Queries queries, int k, int from, int to) {
+            this.queries = queries;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TopK[] compute() {
+            if (to - from <= SEGMENT_ROWS) {
+                return scanBatch(queries, k, from, to);
+            }
+            int segments = (to - from + SEGMENT_ROWS - 1) / SEGMENT_ROWS;
+            int mid = from + (segments / 2) * SEGMENT_ROWS;
+            var left = new SegmentTask(queries, k, from, mid);
+            var right = new SegmentTask(queries, k, mid, to);
+            left.fork();
+            var merged = right.compute();
+            var leftTops = left.join();
+            for (int q = 0; q < merged.length; q++) {
+                merged[q].addAll(leftTops[q]);
+            }
+            return merged;
+        }
+    }
+}
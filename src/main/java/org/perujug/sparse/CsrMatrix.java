@@ -0,0 +1,147 @@
+package org.perujug.sparse;
+
+import jdk.incubator.vector.*;
+import org.perujug.kernels.SparseKernels;
+
+import java.util.Arrays;
+
+/**
+ * Immutable {@code rows x columns} sparse matrix in compressed sparse row form.
+ *
+ * <p>Row {@code r} holds the nonzeros {@code values[rowStarts[r] .. rowStarts[r + 1])} at the
+ * columns {@code columnIndices[...]} of the same range, in ascending column order. The
+ * {@link #multiply} kernel treats each row as a sparse dot product against {@code x}: rows
+ * with at least {@link #MIN_GATHER_LENGTH} nonzeros use the gather kernel, shorter ones the
+ * scalar loop, where the gather would spend most of its time in the tail and the reduction.
+ */
+public final class CsrMatrix {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    /** Nonzeros per row from which {@link #multiply} gathers: two full vectors. */
+    public static final int MIN_GATHER_LENGTH = 2 * SPECIES.length();
+
+    private final int rows;
+    private final int columns;
+    private final int[] rowStarts;
+    private final int[] columnIndices;
+    private final float[] values;
+
+    private CsrMatrix(int rows, int columns, int[] rowStarts, int[] columnIndices, float[] values) {
+        this.rows = rows;
+        this.columns = columns;
+        this.rowStarts = rowStarts;
+        this.columnIndices = columnIndices;
+        this.values = values;
+    }
+
+    /**
+     * Copies CSR arrays; {@code rowStarts} has {@code rows + 1} entries, and the columns of every
+     * row must be in range and strictly ascending.
+     */
+    public static CsrMatrix of(int rows, int columns, int[] rowStarts, int[] columnIndices, float[] values) {
+        if (rowStarts.length != rows + 1 || rowStarts[0] != 0) {
+            throw new IllegalArgumentException("rowStarts must have " + (rows + 1) + " entries starting at 0");
+        }
+        // Validated after copying, so later writes to the caller's arrays cannot undo the checks
+        int[] starts = rowStarts.clone();
+        for (int r = 0; r < rows; r++) {
+            if (starts[r] > starts[r + 1]) {
+                throw new IllegalArgumentException("rowStarts decreases at row " + r);
+            }
+        }
+        int nnz = starts[rows];
+        if (columnIndices.length < nnz || values.length < nnz) {
+            throw new IllegalArgumentException("Expected " + nnz + " column indices and values");
+        }
+        int[] indices = Arrays.copyOf(columnIndices, nnz);
+
+        // Validated once here, so a bad index fails at construction rather than midway through y
+        for (int r = 0; r < rows; r++) {
+            int previous = -1;
+            for (int k = starts[r]; k < starts[r + 1]; k++) {
+                if (indices[k] < 0 || indices[k] >= columns) {
+                    throw new IllegalArgumentException("Column index " + indices[k] + " outside [0, " + columns + ")");
+                }
+                if (indices[k] <= previous) {
+                    throw new IllegalArgumentException("Columns of row " + r + " are not strictly ascending at " + k);
+                }
+                previous = indices[k];
+            }
+        }
+        return new CsrMatrix(rows, columns, starts, indices, Arrays.copyOf(values, nnz));
+    }
+
+    /** Keeps the nonzero entries of a row-major dense matrix. */
+    public static CsrMatrix fromDense(float[] dense, int rows, int columns) {
+        int nnz = 0;
+        for (int i = 0; i < rows * columns; i++) {
+            if (dense[i] != 0.0f) {
+                nnz++;
+            }
+        }
+
+        int[] rowStarts = new int[rows + 1];
+        int[] columnIndices = new int[nnz];
+        float[] values = new float[nnz];
+        int k = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                float v = dense[r * columns + c];
+                if (v != 0.0f) {
+                    columnIndices[k] = c;
+                    values[k++] = v;
+                }
+            }
+            rowStarts[r + 1] = k;
+        }
+        return new CsrMatrix(rows, columns, rowStarts, columnIndices, values);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    /** Number of stored nonzeros. */
+    public int nonZeros() {
+        return rowStarts[rows];
+    }
+
+    /** Stored nonzeros over {@code rows * columns}. */
+    public double density() {
+        return (double) nonZeros() / ((double) rows * columns);
+    }
+
+    /** {@code y = A * x}, gathering on rows of at least {@link #MIN_GATHER_LENGTH} nonzeros. */
+    public void multiply(float[] x, float[] y) {
+        multiply(x, y, MIN_GATHER_LENGTH);
+    }
+
+    /** {@code y = A * x}, gathering on rows of at least {@code minGatherLength} nonzeros. */
+    public void multiply(float[] x, float[] y, int minGatherLength) {
+        checkShapes(x, y);
+        for (int r = 0; r < rows; r++) {
+            int start = rowStarts[r];
+            int nnz = rowStarts[r + 1] - start;
+            y[r] = nnz >= minGatherLength
+                    ? SparseKernels.dotGather(SPECIES, values, start, columnIndices, start, nnz, x, 0)
+                    : SparseKernels.dotScalar(values, start, columnIndices, start, nnz, x, 0);
+        }
+    }
+
+    /** {@code y = A * x} with the scalar CSR loop on every row. */
+    public void multiplyScalar(float[] x, float[] y) {
+        multiply(x, y, Integer.MAX_VALUE);
+    }
+
+    private void checkShapes(float[] x, float[] y) {
+        if (x.length < columns || y.length < rows) {
+            throw new IllegalArgumentException("Expected x of " + columns + " and y of " + rows
+                    + " but got " + x.length + " and " + y.length);
+        }
+    }
+}
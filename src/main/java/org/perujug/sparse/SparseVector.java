@@ -0,0 +1,63 @@
+package org.perujug.sparse;
+
+import jdk.incubator.vector.*;
+import org.perujug.kernels.SparseKernels;
+
+/**
+ * Immutable sparse vector: the nonzero {@code values} of a {@code dimension}-long vector and
+ * their ascending {@code indices}. {@link #dot} gathers the matching elements of a dense vector
+ * when there are at least {@link CsrMatrix#MIN_GATHER_LENGTH} nonzeros.
+ */
+public final class SparseVector {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private final int dimension;
+    private final int[] indices;
+    private final float[] values;
+
+    private SparseVector(int dimension, int[] indices, float[] values) {
+        this.dimension = dimension;
+        this.indices = indices;
+        this.values = values;
+    }
+
+    /** Keeps the nonzero elements of {@code dense}. */
+    public static SparseVector fromDense(float[] dense) {
+        int nnz = 0;
+        for (float v : dense) {
+            if (v != 0.0f) {
+                nnz++;
+            }
+        }
+
+        int[] indices = new int[nnz];
+        float[] values = new float[nnz];
+        int k = 0;
+        for (int i = 0; i < dense.length; i++) {
+            if (dense[i] != 0.0f) {
+                indices[k] = i;
+                values[k++] = dense[i];
+            }
+        }
+        return new SparseVector(dense.length, indices, values);
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public int nonZeros() {
+        return values.length;
+    }
+
+    /** Returns {@code sum(this[i] * dense[i])}. */
+    public float dot(float[] dense) {
+        if (dense.length < dimension) {
+            throw new IllegalArgumentException("Expected dimension " + dimension + " but got " + dense.length);
+        }
+        return values.length >= CsrMatrix.MIN_GATHER_LENGTH
+                ? SparseKernels.dotGather(SPECIES, values, 0, indices, 0, values.length, dense, 0)
+                : SparseKernels.dotScalar(values, 0, indices, 0, values.length, dense, 0);
+    }
+}
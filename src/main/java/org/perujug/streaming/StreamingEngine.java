@@ -0,0 +1,134 @@
+package org.perujug.streaming;
+
+import jdk.incubator.vector.*;
+import org.perujug.kernels.FloatSegmentKernels;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Runs the segment kernels over memory-mapped files of raw native-order floats.
+ *
+ * <p>Files are mapped one window of {@code chunkElements} floats at a time, straight
+ * into the kernels, and each window is unmapped before the next one is mapped. No data
+ * is copied into {@code float[]}, and the address space in use stays bounded no matter
+ * how large the files are.
+ */
+public final class StreamingEngine {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    public static final long DEFAULT_CHUNK_BYTES = 64L * 1024 * 1024;
+
+    @FunctionalInterface
+    private interface ChunkKernel {
+        void apply(MemorySegment a, MemorySegment b, MemorySegment out, long length);
+    }
+
+    private final long chunkElements;
+
+    public StreamingEngine() {
+        this(DEFAULT_CHUNK_BYTES / Float.BYTES);
+    }
+
+    public StreamingEngine(long chunkElements) {
+        if (chunkElements <= 0) {
+            throw new IllegalArgumentException("chunkElements must be positive: " + chunkElements);
+        }
+        this.chunkElements = chunkElements;
+    }
+
+    /** Number of floats stored in {@code file}. */
+    public static long length(Path file) throws IOException {
+        long size = Files.size(file);
+        if (size % Float.BYTES != 0) {
+            throw new IOException(file + " is not a whole number of floats (" + size + " bytes)");
+        }
+        return size / Float.BYTES;
+    }
+
+    /** {@code out[i] = a[i] + b[i]} */
+    public void add(Path a, Path b, Path out) throws IOException {
+        elementWise(a, b, out, (sa, sb, so, n) -> FloatSegmentKernels.add(SPECIES, sa, 0, sb, 0, so, 0, n));
+    }
+
+    /** {@code out[i] = src[i] * factor} */
+    public void scale(Path src, float factor, Path out) throws IOException {
+        elementWise(src, null, out, (sa, sb, so, n) -> FloatSegmentKernels.scale(SPECIES, sa, 0, factor, so, 0, n));
+    }
+
+    /** {@code out[i] = a[i] * b[i] + addend} */
+    public void fma(Path a, Path b, float addend, Path out) throws IOException {
+        elementWise(a, b, out, (sa, sb, so, n) -> FloatSegmentKernels.fma(SPECIES, sa, 0, sb, 0, addend, so, 0, n));
+    }
+
+    /** Returns {@code sum(a[i] * b[i])}; per-chunk partial sums are combined in double. */
+    public double dot(Path a, Path b) throws IOException {
+        long length = requireSameLength(a, b);
+        double sum = 0.0;
+
+        try (var ca = FileChannel.open(a, READ);
+             var cb = FileChannel.open(b, READ)) {
+            for (long start = 0; start < length; start += chunkElements) {
+                long n = Math.min(chunkElements, length - start);
+                try (var arena = Arena.ofConfined()) {
+                    var sa = map(ca, FileChannel.MapMode.READ_ONLY, start, n, arena);
+                    var sb = map(cb, FileChannel.MapMode.READ_ONLY, start, n, arena);
+                    sum += FloatSegmentKernels.dot(SPECIES, sa, 0, sb, 0, n);
+                }
+            }
+        }
+
+        return sum;
+    }
+
+    private void elementWise(Path a, Path b, Path out, ChunkKernel kernel) throws IOException {
+        long length = b == null ? length(a) : requireSameLength(a, b);
+        // Opening the output truncates it, which would wipe an input before it is read
+        requireDistinct(a, out);
+        if (b != null) {
+            requireDistinct(b, out);
+        }
+
+        try (var ca = FileChannel.open(a, READ);
+             var cb = b == null ? null : FileChannel.open(b, READ);
+             var co = FileChannel.open(out, READ, WRITE, CREATE, TRUNCATE_EXISTING)) {
+            for (long start = 0; start < length; start += chunkElements) {
+                long n = Math.min(chunkElements, length - start);
+                try (var arena = Arena.ofConfined()) {
+                    var sa = map(ca, FileChannel.MapMode.READ_ONLY, start, n, arena);
+                    var sb = cb == null ? null : map(cb, FileChannel.MapMode.READ_ONLY, start, n, arena);
+                    // Mapping READ_WRITE past the end grows the output file
+                    var so = map(co, FileChannel.MapMode.READ_WRITE, start, n, arena);
+                    kernel.apply(sa, sb, so, n);
+                }
+            }
+        }
+    }
+
+    private static MemorySegment map(FileChannel channel, FileChannel.MapMode mode,
+                                     long start, long length, Arena arena) throws IOException {
+        return channel.map(mode, start * Float.BYTES, length * Float.BYTES, arena);
+    }
+
+    private static void requireDistinct(Path in, Path out) throws IOException {
+        if (Files.exists(out) && Files.isSameFile(in, out)) {
+            throw new IOException(out + " is both an input and the output");
+        }
+    }
+
+    private static long requireSameLength(Path a, Path b) throws IOException {
+        long length = length(a);
+        if (length(b) != length) {
+            throw new IOException("Length mismatch: " + a + " has " + length + " floats, "
+                    + b + " has " + length(b));
+        }
+        return length;
+    }
+}
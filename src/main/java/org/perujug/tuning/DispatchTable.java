@@ -0,0 +1,160 @@
+package org.perujug.tuning;
+
+import jdk.incubator.vector.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Vector width to use per {@link Kernel} and array length.
+ *
+ * <p>Each kernel maps to a list of ranges, in ascending order of their inclusive upper
+ * bound; the last range is unbounded. The table is saved as a properties file with
+ * one line per kernel, for example {@code DOT=1024:BITS_128,*:BITS_256}, plus the
+ * {@code max.bits} of the machine it was tuned on. Loading a table tuned on a machine
+ * with a different maximum vector size fails, since its choices do not carry over.
+ */
+public final class DispatchTable {
+
+    private static final String MAX_BITS = "max.bits";
+    private static final String UNBOUNDED = "*";
+
+    private final Map<Kernel, Range[]> ranges;
+
+    /** Lengths up to and including {@code maxLength} run at {@code width}. */
+    public record Range(int maxLength, VectorWidth width) {
+    }
+
+    private DispatchTable(Map<Kernel, Range[]> ranges) {
+        this.ranges = ranges;
+    }
+
+    /** Every kernel at every length runs at {@code width}. */
+    public static DispatchTable uniform(VectorWidth width) {
+        var ranges = new EnumMap<Kernel, Range[]>(Kernel.class);
+        for (Kernel kernel : Kernel.values()) {
+            ranges.put(kernel, new Range[] {new Range(Integer.MAX_VALUE, width)});
+        }
+        return new DispatchTable(ranges);
+    }
+
+    /** The untuned default: {@link FloatVector#SPECIES_PREFERRED} everywhere. */
+    public static DispatchTable preferred() {
+        return uniform(VectorWidth.preferred());
+    }
+
+    public VectorWidth width(Kernel kernel, int length) {
+        for (Range range : ranges.get(kernel)) {
+            if (length <= range.maxLength()) {
+                return range.width();
+            }
+        }
+        throw new IllegalStateException("Unbounded range missing for " + kernel);
+    }
+
+    public List<Range> ranges(Kernel kernel) {
+        return List.of(ranges.get(kernel));
+    }
+
+    /** Returns a copy of this table with {@code kernel} dispatched by {@code kernelRanges}. */
+    public DispatchTable with(Kernel kernel, List<Range> kernelRanges) {
+        var copy = new EnumMap<>(ranges);
+        copy.put(kernel, merge(kernelRanges));
+        return new DispatchTable(copy);
+    }
+
+    public void save(Path file) throws IOException {
+        var properties = new Properties();
+        properties.setProperty(MAX_BITS, Integer.toString(FloatVector.SPECIES_MAX.vectorBitSize()));
+        for (Kernel kernel : Kernel.values()) {
+            properties.setProperty(kernel.name(), format(ranges.get(kernel)));
+        }
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, "Vector width per kernel, by maximum array length");
+        }
+    }
+
+    public static DispatchTable load(Path file) throws IOException {
+        var properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+
+        int maxBits = FloatVector.SPECIES_MAX.vectorBitSize();
+        String tunedBits = properties.getProperty(MAX_BITS);
+        if (tunedBits == null || Integer.parseInt(tunedBits) != maxBits) {
+            throw new IllegalArgumentException(file + " was tuned for " + tunedBits + "-bit vectors, this machine has " + maxBits);
+        }
+
+        var table = preferred();
+        for (Kernel kernel : Kernel.values()) {
+            String value = properties.getProperty(kernel.name());
+            if (value != null) {
+                table = table.with(kernel, parse(value));
+            }
+        }
+        return table;
+    }
+
+    // Joins adjacent ranges with the same width and makes the last one unbounded
+    private static Range[] merge(List<Range> kernelRanges) {
+        if (kernelRanges.isEmpty()) {
+            throw new IllegalArgumentException("At least one range is required");
+        }
+        var merged = new ArrayList<Range>();
+        for (int i = 0; i < kernelRanges.size(); i++) {
+            var range = kernelRanges.get(i);
+            int maxLength = i == kernelRanges.size() - 1 ? Integer.MAX_VALUE : range.maxLength();
+            if (!merged.isEmpty() && merged.getLast().width() == range.width()) {
+                merged.removeLast();
+            } else if (!merged.isEmpty() && merged.getLast().maxLength() >= maxLength) {
+                throw new IllegalArgumentException("Ranges must be in ascending order of length");
+            }
+            merged.add(new Range(maxLength, range.width()));
+        }
+        return merged.toArray(Range[]::new);
+    }
+
+    private static String format(Range[] kernelRanges) {
+        var joined = new StringBuilder();
+        for (Range range : kernelRanges) {
+            if (!joined.isEmpty()) {
+                joined.append(',');
+            }
+            joined.append(range.maxLength() == Integer.MAX_VALUE ? UNBOUNDED : Integer.toString(range.maxLength()))
+                  .append(':')
+                  .append(range.width().name());
+        }
+        return joined.toString();
+    }
+
+    private static List<Range> parse(String value) {
+        var kernelRanges = new ArrayList<Range>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected <maxLength>:<width> but got " + entry);
+            }
+            int maxLength = parts[0].equals(UNBOUNDED) ? Integer.MAX_VALUE : Integer.parseInt(parts[0]);
+            kernelRanges.add(new Range(maxLength, VectorWidth.valueOf(parts[1])));
+        }
+        return kernelRanges;
+    }
+
+    @Override
+    public String toString() {
+        var text = new StringBuilder();
+        for (Kernel kernel : Kernel.values()) {
+            text.append(String.format("%-9s %s%n", kernel, format(ranges.get(kernel))));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,10 @@
+package org.perujug.tuning;
+
+/** Kernels routed through {@link TunedKernels}, each with its own row in the {@link DispatchTable}. */
+public enum Kernel {
+    ADD,
+    SCALE,
+    DOT,
+    FMA,
+    SQRT_ABS
+}
@@ -0,0 +1,134 @@
+package org.perujug.tuning;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Times every {@link Kernel} at every supported {@link VectorWidth} over a ladder of array
+ * lengths and builds the {@link DispatchTable} of the fastest width per length.
+ *
+ * <p>Each width is timed through {@link TunedKernels} with a uniform table installed, so the
+ * measured code is the same dispatch path production calls take. A length keeps the
+ * preferred width unless another width beats it by more than {@link #MIN_GAIN}, which
+ * keeps timer noise from fragmenting the table. The table that was installed before
+ * tuning is restored afterwards.
+ */
+public final class SpeciesTuner {
+
+    public static final int[] DEFAULT_LENGTHS = {
+        16, 64, 256, 1024, 4096, 16384, 65536, 262144, 1048576, 4194304
+    };
+
+    /** Relative speedup another width needs over the preferred one to be chosen. */
+    public static final double MIN_GAIN = 0.03;
+
+    private static final long ELEMENTS_PER_ROUND = 1L << 22;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+
+    private final int[] lengths;
+    private final float[] a;
+    private final float[] b;
+    private final float[] dst;
+    private float sink;
+
+    /** One timing: the best of {@link #ROUNDS} rounds, in nanoseconds per element. */
+    public record Measurement(Kernel kernel, int length, VectorWidth width, double nanosPerElement) {
+    }
+
+    public SpeciesTuner() {
+        this(DEFAULT_LENGTHS);
+    }
+
+    public SpeciesTuner(int[] lengths) {
+        this.lengths = lengths.clone();
+        int max = 0;
+        for (int length : lengths) {
+            max = Math.max(max, length);
+        }
+
+        Random random = new Random(42);
+        a = new float[max];
+        b = new float[max];
+        dst = new float[max];
+        for (int i = 0; i < max; i++) {
+            a[i] = random.nextFloat() * 100;
+            b[i] = random.nextFloat() * 100;
+        }
+    }
+
+    public DispatchTable tune() {
+        return tune(measurement -> { });
+    }
+
+    /** Tunes every kernel, reporting each timing to {@code listener} as it is taken. */
+    public DispatchTable tune(Consumer<Measurement> listener) {
+        var previous = TunedKernels.table();
+        var widths = VectorWidth.supported();
+        var preferred = VectorWidth.preferred();
+        var table = DispatchTable.preferred();
+
+        try {
+            for (Kernel kernel : Kernel.values()) {
+                var ranges = new ArrayList<DispatchTable.Range>();
+                for (int length : lengths) {
+                    var best = preferred;
+                    double preferredNanos = Double.MAX_VALUE;
+                    double bestNanos = Double.MAX_VALUE;
+                    for (VectorWidth width : widths) {
+                        double nanos = measure(kernel, width, length);
+                        listener.accept(new Measurement(kernel, length, width, nanos));
+                        if (width == preferred) {
+                            preferredNanos = nanos;
+                        }
+                        if (nanos < bestNanos) {
+                            bestNanos = nanos;
+                            best = width;
+                        }
+                    }
+                    if (bestNanos * (1 + MIN_GAIN) > preferredNanos) {
+                        best = preferred;
+                    }
+                    ranges.add(new DispatchTable.Range(length, best));
+                }
+                table = table.with(kernel, ranges);
+            }
+        } finally {
+            TunedKernels.install(previous);
+        }
+
+        return table;
+    }
+
+    private double measure(Kernel kernel, VectorWidth width, int length) {
+        TunedKernels.install(DispatchTable.uniform(width));
+        long reps = Math.max(1, ELEMENTS_PER_ROUND / length);
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            run(kernel, length, reps);
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            run(kernel, length, reps);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        return (double) best / (reps * length);
+    }
+
+    private void run(Kernel kernel, int length, long reps) {
+        for (long r = 0; r < reps; r++) {
+            switch (kernel) {
+                case ADD -> TunedKernels.add(a, 0, b, 0, dst, 0, length);
+                case SCALE -> TunedKernels.scale(a, 0, 2.5f, dst, 0, length);
+                case DOT -> sink += TunedKernels.dot(a, 0, b, 0, length);
+                case FMA -> TunedKernels.fma(a, 0, b, 0, 1.5f, dst, 0, length);
+                case SQRT_ABS -> TunedKernels.sqrtAbs(a, 0, dst, 0, length);
+            }
+        }
+        sink += dst[length - 1];
+    }
+}
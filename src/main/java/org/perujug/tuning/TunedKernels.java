@@ -0,0 +1,108 @@
+package org.perujug.tuning;
+
+import jdk.incubator.vector.*;
+import org.perujug.kernels.FloatKernels;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * {@link FloatKernels} entry points that pick their vector width from a {@link DispatchTable}.
+ *
+ * <p>The table only selects a {@link VectorWidth}; each branch of the switch then calls
+ * the kernel with a {@code static final} species, so every inlined copy sees a constant
+ * species exactly as a hard-coded call would. At class initialization the table is read
+ * from the file named by the {@code vector.dispatch} system property (default
+ * {@link #DEFAULT_TABLE}); if that file is missing or was tuned on another machine,
+ * {@link DispatchTable#preferred()} is used.
+ */
+public final class TunedKernels {
+
+    public static final Path DEFAULT_TABLE = Path.of("vector-dispatch.properties");
+
+    private static final VectorSpecies<Float> SPECIES_64 = FloatVector.SPECIES_64;
+    private static final VectorSpecies<Float> SPECIES_128 = FloatVector.SPECIES_128;
+    private static final VectorSpecies<Float> SPECIES_256 = FloatVector.SPECIES_256;
+    private static final VectorSpecies<Float> SPECIES_512 = FloatVector.SPECIES_512;
+
+    private static volatile DispatchTable table = loadDefault();
+
+    private TunedKernels() {
+    }
+
+    public static Path tableFile() {
+        return Path.of(System.getProperty("vector.dispatch", DEFAULT_TABLE.toString()));
+    }
+
+    public static DispatchTable table() {
+        return table;
+    }
+
+    /** Routes all subsequent calls through {@code newTable}. */
+    public static void install(DispatchTable newTable) {
+        table = newTable;
+    }
+
+    private static DispatchTable loadDefault() {
+        var file = tableFile();
+        if (!Files.exists(file)) {
+            return DispatchTable.preferred();
+        }
+        try {
+            return DispatchTable.load(file);
+        } catch (IOException | IllegalArgumentException e) {
+            return DispatchTable.preferred();
+        }
+    }
+
+    /** {@code dst[i] = a[i] + b[i]} */
+    public static void add(float[] a, int aOffset, float[] b, int bOffset, float[] dst, int dstOffset, int length) {
+        switch (table.width(Kernel.ADD, length)) {
+            case BITS_64 -> FloatKernels.add(SPECIES_64, a, aOffset, b, bOffset, dst, dstOffset, length);
+            case BITS_128 -> FloatKernels.add(SPECIES_128, a, aOffset, b, bOffset, dst, dstOffset, length);
+            case BITS_256 -> FloatKernels.add(SPECIES_256, a, aOffset, b, bOffset, dst, dstOffset, length);
+            case BITS_512 -> FloatKernels.add(SPECIES_512, a, aOffset, b, bOffset, dst, dstOffset, length);
+        }
+    }
+
+    /** {@code dst[i] = src[i] * factor} */
+    public static void scale(float[] src, int srcOffset, float factor, float[] dst, int dstOffset, int length) {
+        switch (table.width(Kernel.SCALE, length)) {
+            case BITS_64 -> FloatKernels.scale(SPECIES_64, src, srcOffset, factor, dst, dstOffset, length);
+            case BITS_128 -> FloatKernels.scale(SPECIES_128, src, srcOffset, factor, dst, dstOffset, length);
+            case BITS_256 -> FloatKernels.scale(SPECIES_256, src, srcOffset, factor, dst, dstOffset, length);
+            case BITS_512 -> FloatKernels.scale(SPECIES_512, src, srcOffset, factor, dst, dstOffset, length);
+        }
+    }
+
+    /** Returns {@code sum(a[i] * b[i])}. */
+    public static float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        return switch (table.width(Kernel.DOT, length)) {
+            case BITS_64 -> FloatKernels.dot(SPECIES_64, a, aOffset, b, bOffset, length);
+            case BITS_128 -> FloatKernels.dot(SPECIES_128, a, aOffset, b, bOffset, length);
+            case BITS_256 -> FloatKernels.dot(SPECIES_256, a, aOffset, b, bOffset, length);
+            case BITS_512 -> FloatKernels.dot(SPECIES_512, a, aOffset, b, bOffset, length);
+        };
+    }
+
+    /** {@code dst[i] = a[i] * b[i] + addend} */
+    public static void fma(float[] a, int aOffset, float[] b, int bOffset, float addend, float[] dst, int dstOffset, int length) {
+        switch (table.width(Kernel.FMA, length)) {
+            case BITS_64 -> FloatKernels.fma(SPECIES_64, a, aOffset, b, bOffset, addend, dst, dstOffset, length);
+            case BITS_128 -> FloatKernels.fma(SPECIES_128, a, aOffset, b, bOffset, addend, dst, dstOffset, length);
+            case BITS_256 -> FloatKernels.fma(SPECIES_256, a, aOffset, b, bOffset, addend, dst, dstOffset, length);
+            case BITS_512 -> FloatKernels.fma(SPECIES_512, a, aOffset, b, bOffset, addend, dst, dstOffset, length);
+        }
+    }
+
+    /** {@code dst[i] = sqrt(|src[i]|)} */
+    public static void sqrtAbs(float[] src, int srcOffset, float[] dst, int dstOffset, int length) {
+        switch (table.width(Kernel.SQRT_ABS, length)) {
+            case BITS_64 -> FloatKernels.sqrtAbs(SPECIES_64, src, srcOffset, dst, dstOffset, length);
+            case BITS_128 -> FloatKernels.sqrtAbs(SPECIES_128, src, srcOffset, dst, dstOffset, length);
+            case BITS_256 -> FloatKernels.sqrtAbs(SPECIES_256, src, srcOffset, dst, dstOffset, length);
+            case BITS_512 -> FloatKernels.sqrtAbs(SPECIES_512, src, srcOffset, dst, dstOffset, length);
+        }
+    }
+}
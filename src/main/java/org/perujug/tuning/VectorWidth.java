@@ -0,0 +1,52 @@
+package org.perujug.tuning;
+
+import jdk.incubator.vector.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** The fixed float species a tuned kernel can be dispatched to. */
+public enum VectorWidth {
+    BITS_64(FloatVector.SPECIES_64),
+    BITS_128(FloatVector.SPECIES_128),
+    BITS_256(FloatVector.SPECIES_256),
+    BITS_512(FloatVector.SPECIES_512);
+
+    private final VectorSpecies<Float> species;
+
+    VectorWidth(VectorSpecies<Float> species) {
+        this.species = species;
+    }
+
+    public VectorSpecies<Float> species() {
+        return species;
+    }
+
+    public int bits() {
+        return species.vectorBitSize();
+    }
+
+    /** Widths no wider than {@link FloatVector#SPECIES_MAX}; wider ones would run the Java fallback. */
+    public static List<VectorWidth> supported() {
+        var widths = new ArrayList<VectorWidth>();
+        for (VectorWidth width : values()) {
+            if (width.bits() <= FloatVector.SPECIES_MAX.vectorBitSize()) {
+                widths.add(width);
+            }
+        }
+        return widths;
+    }
+
+    public static VectorWidth preferred() {
+        return of(FloatVector.SPECIES_PREFERRED.vectorBitSize());
+    }
+
+    public static VectorWidth of(int bits) {
+        for (VectorWidth width : values()) {
+            if (width.bits() == bits) {
+                return width;
+            }
+        }
+        throw new IllegalArgumentException("No float species of " + bits + " bits");
+    }
+}